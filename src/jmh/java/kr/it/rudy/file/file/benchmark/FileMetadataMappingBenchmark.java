@@ -0,0 +1,74 @@
+package kr.it.rudy.file.file.benchmark;
+
+import kr.it.rudy.file.file.application.dto.FileResponse;
+import kr.it.rudy.file.file.domain.FileId;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileStatus;
+import kr.it.rudy.file.file.infrastructure.persistence.FileMetadataJpaEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 조회 한 건마다 일어나는 도메인/엔티티/응답 간 변환 비용.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FileMetadataMappingBenchmark {
+
+    private FileMetadata metadata;
+    private FileMetadataJpaEntity entity;
+    private String id;
+
+    @Setup
+    public void setUp() {
+        id = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        metadata = FileMetadata.reconstitute(
+                FileId.of(id),
+                "quarterly-report.pdf",
+                UUID.randomUUID() + ".pdf",
+                "application/pdf",
+                1_048_576L,
+                "pdf",
+                "user-1",
+                "files",
+                FileStatus.ACTIVE,
+                null,
+                null,
+                null,
+                now,
+                now
+        );
+        entity = FileMetadataJpaEntity.fromDomain(metadata);
+    }
+
+    @Benchmark
+    public FileMetadataJpaEntity fromDomain() {
+        return FileMetadataJpaEntity.fromDomain(metadata);
+    }
+
+    @Benchmark
+    public FileMetadata toDomain() {
+        return entity.toDomain();
+    }
+
+    @Benchmark
+    public String downloadPath() {
+        return FileResponse.downloadPath(id);
+    }
+
+    @Benchmark
+    public FileResponse toResponse() {
+        return FileResponse.from(metadata, FileResponse.downloadPath(id));
+    }
+}
@@ -0,0 +1,62 @@
+package kr.it.rudy.file.file.benchmark;
+
+import kr.it.rudy.file.file.application.service.FilePolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드마다 거치는 파일명/확장자 규칙의 비용.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FilePolicyBenchmark {
+
+    private static final String ALLOWED_EXTENSIONS = "jpg,jpeg,png,gif,webp,pdf,doc,docx,xls,xlsx,ppt,pptx,txt,zip";
+
+    @Param({"report.final.PDF", "photo.jpeg", "noextension"})
+    private String fileName;
+
+    private FilePolicy filePolicy;
+    private String extension;
+
+    @Setup
+    public void setUp() {
+        filePolicy = new FilePolicy(ALLOWED_EXTENSIONS, "txt,md,csv,json,xml,html,log,doc,xls,ppt", "jpg,jpeg,png,gif,webp,zip,gz");
+        extension = filePolicy.getExtension(fileName);
+    }
+
+    @Benchmark
+    public String getExtension() {
+        return filePolicy.getExtension(fileName);
+    }
+
+    @Benchmark
+    public void validateExtension(Blackhole blackhole) {
+        try {
+            filePolicy.validateExtension(extension);
+            blackhole.consume(true);
+        } catch (IllegalArgumentException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public boolean isCompressible() {
+        return filePolicy.isCompressible(extension, "application/octet-stream");
+    }
+
+    @Benchmark
+    public String generateStoredName() {
+        return filePolicy.generateStoredName(extension);
+    }
+}
@@ -0,0 +1,60 @@
+package kr.it.rudy.file.file.benchmark;
+
+import kr.it.rudy.file.file.application.dto.FileResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 목록 조회 응답({@code List<FileResponse>})의 JSON 직렬화 비용.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<FileResponse> responses;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().build();
+        responses = new ArrayList<>(size);
+        Instant now = Instant.now();
+        for (int i = 0; i < size; i++) {
+            String id = UUID.randomUUID().toString();
+            responses.add(new FileResponse(
+                    id,
+                    "document-" + i + ".pdf",
+                    "application/pdf",
+                    1_024L * (i + 1),
+                    "pdf",
+                    "user-1",
+                    FileResponse.downloadPath(id),
+                    now,
+                    null
+            ));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
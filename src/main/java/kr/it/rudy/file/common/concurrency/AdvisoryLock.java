@@ -0,0 +1,49 @@
+package kr.it.rudy.file.common.concurrency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * PostgreSQL 세션 advisory lock으로 여러 노드 중 한 곳에서만 작업을 실행한다.
+ * 작업하는 동안 커넥션 하나를 붙잡아 잠금을 유지하며, 노드가 죽어 커넥션이 끊기면 DB가 잠금을 풀어 준다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AdvisoryLock {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 잠금을 얻으면 {@code task}를 실행하고 true를, 다른 노드가 잠금을 쥐고 있으면 실행하지 않고 false를 돌려준다.
+     */
+    public boolean runExclusively(String name, Runnable task) {
+        Boolean ran = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!call(connection, "select pg_try_advisory_lock(hashtext(?))", name)) {
+                return false;
+            }
+            try {
+                task.run();
+                return true;
+            } finally {
+                call(connection, "select pg_advisory_unlock(hashtext(?))", name);
+            }
+        });
+        return Boolean.TRUE.equals(ran);
+    }
+
+    private boolean call(Connection connection, String sql, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+}
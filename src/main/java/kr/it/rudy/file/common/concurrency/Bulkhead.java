@@ -0,0 +1,101 @@
+package kr.it.rudy.file.common.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 작업 종류별 동시 실행 수를 제한하는 세마포어 격벽.
+ * 허용량이 모두 사용 중이면 {@code maxWait}만큼 기다린 뒤 {@link BulkheadFullException}으로 거절한다.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final Semaphore semaphore;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter rejected;
+
+    public Bulkhead(String name, int maxConcurrent, Duration maxWait, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.semaphore = new Semaphore(maxConcurrent, true);
+
+        Gauge.builder("file.bulkhead.active", semaphore, s -> maxConcurrent - s.availablePermits())
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("file.bulkhead.waiting", waiting, AtomicInteger::get)
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("file.bulkhead.limit", () -> maxConcurrent)
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("file.bulkhead.rejected")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public Permit acquire() {
+        waiting.incrementAndGet();
+        try {
+            if (!semaphore.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new BulkheadFullException(name);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            throw new BulkheadFullException(name);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        return new Permit();
+    }
+
+    public <T> T call(Supplier<T> task) {
+        try (Permit permit = acquire()) {
+            return task.get();
+        }
+    }
+
+    public void run(Runnable task) {
+        try (Permit permit = acquire()) {
+            task.run();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * 획득한 허용량. 여러 번 닫아도 한 번만 반환된다.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+    }
+}
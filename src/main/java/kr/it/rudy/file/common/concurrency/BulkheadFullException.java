@@ -0,0 +1,8 @@
+package kr.it.rudy.file.common.concurrency;
+
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String name) {
+        super("Bulkhead '" + name + "' is full");
+    }
+}
@@ -0,0 +1,30 @@
+package kr.it.rudy.file.common.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ArchiveConfig {
+
+    /**
+     * 아카이브 항목을 미리 여는 풀. 응답을 쓰는 스트리밍 풀과 나눠 두어 서로 기다리다 막히지 않게 하고,
+     * 작업자가 모두 바쁘면 대기열에 쌓지 않고 응답을 쓰는 스레드가 직접 연다.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor archivePrefetchExecutor(
+            @Value("${file.archive.prefetch-workers:16}") int workers
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(0);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("archive-");
+        return executor;
+    }
+}
@@ -0,0 +1,56 @@
+package kr.it.rudy.file.common.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.it.rudy.file.common.concurrency.Bulkhead;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 업로드/다운로드/메타데이터 작업의 격벽. 큰 파일 전송이 몰려도 가벼운 메타데이터 요청이
+ * DB 커넥션이나 MinIO 소켓을 얻지 못하는 일이 없도록 작업 종류별로 동시 실행 수를 나눈다.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Value("${file.bulkhead.max-wait:2s}")
+    private Duration maxWait;
+
+    @Bean
+    public Bulkhead uploadBulkhead(
+            @Value("${file.bulkhead.upload.max-concurrent:32}") int maxConcurrent,
+            MeterRegistry meterRegistry
+    ) {
+        return new Bulkhead("upload", maxConcurrent, maxWait, meterRegistry);
+    }
+
+    @Bean
+    public Bulkhead downloadBulkhead(
+            @Value("${file.bulkhead.download.max-concurrent:128}") int maxConcurrent,
+            MeterRegistry meterRegistry
+    ) {
+        return new Bulkhead("download", maxConcurrent, maxWait, meterRegistry);
+    }
+
+    @Bean
+    public Bulkhead metadataBulkhead(
+            @Value("${file.bulkhead.metadata.max-concurrent:64}") int maxConcurrent,
+            MeterRegistry meterRegistry
+    ) {
+        return new Bulkhead("metadata", maxConcurrent, maxWait, meterRegistry);
+    }
+
+    /**
+     * 스트리밍 목록 전용. 응답을 다 읽을 때까지 허용량과 DB 커넥션을 잡고 있으므로, 느린 클라이언트가
+     * 메타데이터 격벽을 채우지 않도록 따로 작게 둔다.
+     */
+    @Bean
+    public Bulkhead listStreamBulkhead(
+            @Value("${file.bulkhead.list-stream.max-concurrent:4}") int maxConcurrent,
+            MeterRegistry meterRegistry
+    ) {
+        return new Bulkhead("list-stream", maxConcurrent, maxWait, meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package kr.it.rudy.file.common.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExpirationConfig {
+
+    /**
+     * 만료 파일을 묶음 단위로 지우는 풀. 동시에 지우는 묶음 수를 작업자 수로 제한해 요청 처리와 저장소를 나눠 쓴다.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor expirationSweepExecutor(
+            @Value("${file.expiration.concurrency:2}") int workers
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(0);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("expiration-");
+        return executor;
+    }
+}
@@ -0,0 +1,27 @@
+package kr.it.rudy.file.common.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ImageVariantConfig {
+
+    /**
+     * 이미지 파생본 생성 풀. 디코딩/리사이즈는 CPU와 힙을 많이 쓰므로 작업자 수와 대기열을 모두 제한하고,
+     * 대기열이 차면 요청을 거절한다.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor variantTaskExecutor(
+            @Value("${file.variants.workers:2}") int workers,
+            @Value("${file.variants.queue-capacity:100}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("variant-");
+        return executor;
+    }
+}
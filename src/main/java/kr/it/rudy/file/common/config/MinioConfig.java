@@ -1,10 +1,23 @@
 package kr.it.rudy.file.common.config;
 
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
+import kr.it.rudy.file.file.infrastructure.metrics.FileMetrics;
+import kr.it.rudy.file.file.infrastructure.storage.MultipartMinioClient;
+import kr.it.rudy.file.file.infrastructure.storage.StorageMetricsInterceptor;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class MinioConfig {
 
@@ -17,11 +30,60 @@ public class MinioConfig {
     @Value("${minio.secret-key}")
     private String secretKey;
 
+    @Value("${minio.http.max-requests:256}")
+    private int maxRequests;
+
+    @Value("${minio.http.max-idle-connections:64}")
+    private int maxIdleConnections;
+
+    @Value("${minio.http.timeout:5m}")
+    private Duration timeout;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * MinIO 클라이언트가 함께 쓰는 OkHttp 클라이언트. 기본 Dispatcher는 호스트당 동시 요청이 5개로 묶여 있어
+     * 단일 MinIO 엔드포인트에 대한 동시 전송이 거기서 막히므로 격벽 한도에 맞춰 넓힌다.
+     * 가상 스레드 모드에서는 비동기 호출 콜백도 가상 스레드에서 실행한다.
+     * 모든 S3 요청의 지연은 {@link StorageMetricsInterceptor}가 연산별로 기록한다.
+     */
     @Bean
-    public MinioClient minioClient() {
+    public OkHttpClient minioHttpClient(FileMetrics fileMetrics) {
+        Dispatcher dispatcher = virtualThreads
+                ? new Dispatcher(Executors.newVirtualThreadPerTaskExecutor())
+                : new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+
+        return new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxIdleConnections, 5, TimeUnit.MINUTES))
+                .connectTimeout(timeout)
+                .readTimeout(timeout)
+                .writeTimeout(timeout)
+                .protocols(List.of(Protocol.HTTP_1_1))
+                .addInterceptor(new StorageMetricsInterceptor(fileMetrics))
+                .build();
+    }
+
+    @Bean
+    public MinioClient minioClient(OkHttpClient minioHttpClient) {
         return MinioClient.builder()
                 .endpoint(endpoint)
                 .credentials(accessKey, secretKey)
+                .httpClient(minioHttpClient)
                 .build();
     }
+
+    @Bean
+    public MultipartMinioClient multipartMinioClient(OkHttpClient minioHttpClient) {
+        return new MultipartMinioClient(
+                MinioAsyncClient.builder()
+                        .endpoint(endpoint)
+                        .credentials(accessKey, secretKey)
+                        .httpClient(minioHttpClient)
+                        .build()
+        );
+    }
 }
@@ -0,0 +1,39 @@
+package kr.it.rudy.file.common.config;
+
+import kr.it.rudy.file.file.domain.FileId;
+import kr.it.rudy.file.file.infrastructure.cache.FileMetadataCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "file.metadata-cache.redis-enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            ObjectProvider<FileMetadataCache> fileMetadataCache
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+
+        // 다른 노드에서 발생한 메타데이터 변경을 로컬 캐시에 반영한다. 일괄 삭제는 여러 ID가 한 메시지로 온다.
+        fileMetadataCache.ifAvailable(cache -> container.addMessageListener(
+                (message, pattern) -> {
+                    String body = new String(message.getBody(), StandardCharsets.UTF_8);
+                    for (String id : body.split(FileMetadataCache.INVALIDATION_SEPARATOR)) {
+                        cache.evictLocal(FileId.of(id));
+                    }
+                },
+                new ChannelTopic(FileMetadataCache.INVALIDATION_CHANNEL)
+        ));
+        return container;
+    }
+}
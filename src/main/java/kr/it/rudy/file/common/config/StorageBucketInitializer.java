@@ -0,0 +1,30 @@
+package kr.it.rudy.file.common.config;
+
+import kr.it.rudy.file.file.application.storage.ObjectStorage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageBucketInitializer {
+
+    private final ObjectStorage objectStorage;
+
+    @Value("${minio.bucket}")
+    private String bucket;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initBucket() {
+        try {
+            objectStorage.createBucketIfAbsent(bucket);
+            log.info("Bucket '{}' is ready", bucket);
+        } catch (Exception e) {
+            log.error("Failed to initialize storage bucket: {}", e.getMessage());
+        }
+    }
+}
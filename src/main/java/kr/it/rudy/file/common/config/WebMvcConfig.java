@@ -0,0 +1,61 @@
+package kr.it.rudy.file.common.config;
+
+import kr.it.rudy.file.common.io.BufferPool;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Value("${file.download.max-concurrent-streams:200}")
+    private int maxConcurrentStreams;
+
+    @Value("${file.download.stream-timeout:1h}")
+    private Duration streamTimeout;
+
+    @Value("${file.download.buffer-size:262144}")
+    private int bufferSize;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * StreamingResponseBody 다운로드가 실행되는 풀. 기본 applicationTaskExecutor는 코어 스레드 8개라서
+     * 동시 다운로드가 8개를 넘으면 나머지가 큐에서 대기하게 된다. 동시 실행 수 제한은 격벽이 맡는다.
+     * 가상 스레드 모드에서는 전송마다 가상 스레드를 하나씩 쓴다.
+     */
+    @Bean
+    public AsyncTaskExecutor streamingTaskExecutor() {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("stream-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentStreams);
+        executor.setMaxPoolSize(maxConcurrentStreams);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("stream-");
+        return executor;
+    }
+
+    @Bean
+    public BufferPool transferBufferPool() {
+        return new BufferPool(bufferSize, maxConcurrentStreams);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingTaskExecutor());
+        configurer.setDefaultTimeout(streamTimeout.toMillis());
+    }
+}
@@ -1,7 +1,11 @@
 package kr.it.rudy.file.common.execption;
 
+import kr.it.rudy.file.common.concurrency.BulkheadFullException;
 import kr.it.rudy.file.common.response.ApiResponse;
+import kr.it.rudy.file.file.application.service.ContentMismatchException;
+import kr.it.rudy.file.file.application.service.QuotaExceededException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -57,6 +61,27 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("TYPE_MISMATCH", "Invalid parameter type: " + e.getName()));
     }
 
+    /**
+     * 서비스가 요청 값을 검증하다 던지는 예외. 메시지는 클라이언트가 고칠 수 있도록 그대로 내려준다.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIllegalArgumentException(IllegalArgumentException e) {
+        log.warn("Invalid request: {}", e.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error("INVALID_REQUEST", e.getMessage()));
+    }
+
+    @ExceptionHandler(ContentMismatchException.class)
+    public ResponseEntity<ApiResponse<Void>> handleContentMismatchException(ContentMismatchException e) {
+        log.warn("Content mismatch: {}", e.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .body(ApiResponse.error("CONTENT_MISMATCH", e.getMessage()));
+    }
+
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
     public ResponseEntity<ApiResponse<Void>> handleHttpRequestMethodNotSupportedException(HttpRequestMethodNotSupportedException e) {
         log.warn("Method not supported: {}", e.getMethod());
@@ -66,6 +91,34 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("METHOD_NOT_ALLOWED", "HTTP method not supported: " + e.getMethod()));
     }
 
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBulkheadFullException(BulkheadFullException e) {
+        log.warn("Request rejected: {}", e.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error("SERVICE_BUSY", "Server is busy. Please retry later."));
+    }
+
+    @ExceptionHandler(QuotaExceededException.class)
+    public ResponseEntity<ApiResponse<Void>> handleQuotaExceededException(QuotaExceededException e) {
+        log.warn("Quota exceeded: {}", e.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(ApiResponse.error("QUOTA_EXCEEDED", e.getMessage()));
+    }
+
+    @ExceptionHandler(UnsupportedOperationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleUnsupportedOperationException(UnsupportedOperationException e) {
+        log.warn("Unsupported operation: {}", e.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.NOT_IMPLEMENTED)
+                .body(ApiResponse.error("NOT_SUPPORTED", e.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<Void>> handleException(Exception e) {
         log.error("Unexpected Exception: {}", e.getMessage(), e);
@@ -0,0 +1,51 @@
+package kr.it.rudy.file.common.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 대용량 전송에 쓰는 고정 크기 버퍼 풀. 요청마다 큰 배열을 새로 할당하지 않도록 재사용하며,
+ * 풀이 비어 있으면 새 버퍼를 만들고 가득 차 있으면 반납된 버퍼를 버린다.
+ */
+public class BufferPool {
+
+    private final int bufferSize;
+    private final BlockingQueue<byte[]> buffers;
+
+    public BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    public byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    public void release(byte[] buffer) {
+        if (buffer.length == bufferSize) {
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * 풀의 버퍼 하나로 {@code in}을 끝까지 {@code out}에 복사하고 복사한 바이트 수를 돌려준다.
+     */
+    public long transfer(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = acquire();
+        try {
+            long total = 0;
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+                total += n;
+            }
+            return total;
+        } finally {
+            release(buffer);
+        }
+    }
+}
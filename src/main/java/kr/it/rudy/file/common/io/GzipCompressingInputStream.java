@@ -0,0 +1,87 @@
+package kr.it.rudy.file.common.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+
+/**
+ * 원본 스트림을 읽는 쪽에서 gzip으로 압축된 바이트를 끌어가는 스트림.
+ * {@link java.util.zip.GZIPOutputStream}은 쓰는 쪽 API라서 업로드 스트림을 그대로 MinIO에 넘기려면
+ * 파이프와 별도 스레드가 필요하므로, 헤더 + raw deflate + CRC32/ISIZE 트레일러를 직접 이어 붙인다.
+ * 헤더의 수정 시각은 0으로 고정해 같은 입력이면 같은 출력이 나오게 한다.
+ */
+public class GzipCompressingInputStream extends InputStream {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final CRC32 crc = new CRC32();
+    private final Deflater deflater;
+    private final DeflaterInputStream deflated;
+    private final byte[] trailer = new byte[8];
+    private int headerPos;
+    private int trailerPos = -1;
+
+    public GzipCompressingInputStream(InputStream in, int level, int bufferSize) {
+        this.deflater = new Deflater(level, true);
+        this.deflated = new DeflaterInputStream(new CheckedInputStream(in, crc), deflater, bufferSize);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int n = read(single, 0, 1);
+        return n == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (headerPos < HEADER.length) {
+            int n = Math.min(len, HEADER.length - headerPos);
+            System.arraycopy(HEADER, headerPos, b, off, n);
+            headerPos += n;
+            return n;
+        }
+        if (trailerPos < 0) {
+            int n = deflated.read(b, off, len);
+            if (n != -1) {
+                return n;
+            }
+            writeTrailer();
+        }
+        if (trailerPos >= trailer.length) {
+            return -1;
+        }
+        int n = Math.min(len, trailer.length - trailerPos);
+        System.arraycopy(trailer, trailerPos, b, off, n);
+        trailerPos += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            deflated.close();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeTrailer() {
+        writeIntLE((int) crc.getValue(), 0);
+        writeIntLE((int) deflater.getBytesRead(), 4);
+        trailerPos = 0;
+    }
+
+    private void writeIntLE(int value, int offset) {
+        trailer[offset] = (byte) value;
+        trailer[offset + 1] = (byte) (value >> 8);
+        trailer[offset + 2] = (byte) (value >> 16);
+        trailer[offset + 3] = (byte) (value >> 24);
+    }
+}
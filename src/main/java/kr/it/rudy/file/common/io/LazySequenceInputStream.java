@@ -0,0 +1,74 @@
+package kr.it.rudy.file.common.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 여러 스트림을 이어 붙이되 각 스트림을 실제로 읽을 차례가 되었을 때만 연다.
+ * {@link java.io.SequenceInputStream}은 close 시 남은 스트림을 모두 열었다가 닫기 때문에
+ * 원격 스트림을 이어 붙이는 용도로는 쓰지 않는다.
+ */
+public class LazySequenceInputStream extends InputStream {
+
+    private final Iterator<Supplier<InputStream>> segments;
+    private InputStream current;
+    private boolean closed;
+
+    public LazySequenceInputStream(List<Supplier<InputStream>> segments) {
+        this.segments = segments.iterator();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int n = read(single, 0, 1);
+        return n == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (nextSegment()) {
+            int n = current.read(b, off, len);
+            if (n != -1) {
+                return n;
+            }
+            current.close();
+            current = null;
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    private boolean nextSegment() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (current != null) {
+            return true;
+        }
+        if (!segments.hasNext()) {
+            return false;
+        }
+        try {
+            current = segments.next().get();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return true;
+    }
+}
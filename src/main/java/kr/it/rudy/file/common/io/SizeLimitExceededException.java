@@ -0,0 +1,17 @@
+package kr.it.rudy.file.common.io;
+
+import java.io.IOException;
+
+public class SizeLimitExceededException extends IOException {
+
+    private final long limit;
+
+    public SizeLimitExceededException(long limit) {
+        super("Stream exceeded the size limit of " + limit + " bytes");
+        this.limit = limit;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+}
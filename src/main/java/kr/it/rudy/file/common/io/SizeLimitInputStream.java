@@ -0,0 +1,63 @@
+package kr.it.rudy.file.common.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 읽은 바이트 수를 세면서 제한을 넘는 순간 {@link SizeLimitExceededException}을 던지는 스트림.
+ * 전체 크기를 미리 알 수 없는 스트리밍 업로드에서 크기 검증과 실제 크기 측정을 함께 처리한다.
+ */
+public class SizeLimitInputStream extends FilterInputStream {
+
+    private final long limit;
+    private long count;
+
+    public SizeLimitInputStream(InputStream in, long limit) {
+        super(in);
+        this.limit = limit;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            advance(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            advance(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        if (skipped > 0) {
+            advance(skipped);
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    private void advance(long n) throws SizeLimitExceededException {
+        count += n;
+        if (count > limit) {
+            throw new SizeLimitExceededException(limit);
+        }
+    }
+}
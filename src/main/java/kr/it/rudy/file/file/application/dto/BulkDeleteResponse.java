@@ -0,0 +1,14 @@
+package kr.it.rudy.file.file.application.dto;
+
+import java.util.List;
+
+public record BulkDeleteResponse(
+        List<String> deleted,
+        List<Failure> failed
+) {
+    public record Failure(
+            String id,
+            String reason
+    ) {
+    }
+}
@@ -0,0 +1,9 @@
+package kr.it.rudy.file.file.application.dto;
+
+import java.util.List;
+
+public record BulkFileInfoResponse(
+        List<FileResponse> items,
+        List<String> notFound
+) {
+}
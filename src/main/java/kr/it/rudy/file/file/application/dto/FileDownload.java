@@ -0,0 +1,96 @@
+package kr.it.rudy.file.file.application.dto;
+
+import kr.it.rudy.file.common.io.BufferPool;
+import kr.it.rudy.file.file.domain.FileMetadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 한 번의 메타데이터 조회로 얻은 다운로드 핸들. 응답 헤더를 만드는 데 필요한 메타데이터와
+ * 객체(또는 그 일부 구간)를 여는 방법을 함께 가진다. 스트림은 실제로 쓰기 직전에 연다.
+ */
+public class FileDownload {
+
+    private static final int DECODE_BUFFER_SIZE = 64 * 1024;
+
+    private final FileMetadata metadata;
+    private final ObjectOpener opener;
+    private final ObjectTransferer transferer;
+
+    public FileDownload(FileMetadata metadata, ObjectOpener opener) {
+        this(metadata, opener, null);
+    }
+
+    /**
+     * {@code transferer}는 객체가 로컬 디스크(디스크 캐시나 파일 시스템 저장소)에 있을 때 주어지며, 스트림을 거치지 않고 바로 내보낸다.
+     */
+    public FileDownload(FileMetadata metadata, ObjectOpener opener, ObjectTransferer transferer) {
+        this.metadata = metadata;
+        this.opener = opener;
+        this.transferer = transferer;
+    }
+
+    public FileMetadata getMetadata() {
+        return metadata;
+    }
+
+    public InputStream open() {
+        return opener.open(0, -1);
+    }
+
+    public InputStream open(long offset, long length) {
+        return opener.open(offset, length);
+    }
+
+    /**
+     * 저장된 바이트의 구간을 {@code out}으로 보낸다. 캐시된 파일이 있으면 그것을, 없거나 그 사이 밀려났으면
+     * 원본 스트림을 {@code bufferPool}의 버퍼로 복사한다. {@code length}가 음수면 끝까지 보낸다.
+     */
+    public long transfer(OutputStream out, long offset, long length, BufferPool bufferPool) throws IOException {
+        if (transferer != null) {
+            try {
+                return transferer.transfer(out, offset, length);
+            } catch (NoSuchFileException e) {
+                // 캐시에서 밀려난 경우이므로 원본에서 읽는다.
+            }
+        }
+        try (InputStream inputStream = open(offset, length)) {
+            return bufferPool.transfer(inputStream, out);
+        }
+    }
+
+    /**
+     * 압축되어 저장된 객체를 원래 바이트로 풀어서 연다. 압축되지 않은 객체는 그대로 연다.
+     */
+    public InputStream openDecoded() {
+        InputStream inputStream = open();
+        if (!metadata.isEncoded()) {
+            return inputStream;
+        }
+        try {
+            return new GZIPInputStream(inputStream, DECODE_BUFFER_SIZE);
+        } catch (IOException e) {
+            try {
+                inputStream.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ObjectOpener {
+        InputStream open(long offset, long length);
+    }
+
+    @FunctionalInterface
+    public interface ObjectTransferer {
+        long transfer(OutputStream out, long offset, long length) throws IOException;
+    }
+}
@@ -0,0 +1,8 @@
+package kr.it.rudy.file.file.application.dto;
+
+import java.util.List;
+
+public record FileIdsRequest(
+        List<String> ids
+) {
+}
@@ -0,0 +1,9 @@
+package kr.it.rudy.file.file.application.dto;
+
+import java.util.List;
+
+public record FilePageResponse(
+        List<FileResponse> items,
+        String nextCursor
+) {
+}
@@ -1,6 +1,7 @@
 package kr.it.rudy.file.file.application.dto;
 
 import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileSummary;
 
 import java.time.Instant;
 
@@ -12,7 +13,8 @@ public record FileResponse(
         String extension,
         String uploadedBy,
         String downloadUrl,
-        Instant createdDt
+        Instant createdDt,
+        Instant expiresAt
 ) {
     public static FileResponse from(FileMetadata metadata, String downloadUrl) {
         return new FileResponse(
@@ -23,7 +25,29 @@ public record FileResponse(
                 metadata.getExtension(),
                 metadata.getUploadedBy(),
                 downloadUrl,
-                metadata.getCreatedDt()
+                metadata.getCreatedDt(),
+                metadata.getExpiresAt()
         );
     }
+
+    public static FileResponse from(FileSummary summary, String downloadUrl) {
+        return new FileResponse(
+                summary.id(),
+                summary.originalName(),
+                summary.contentType(),
+                summary.size(),
+                summary.extension(),
+                summary.uploadedBy(),
+                downloadUrl,
+                summary.createdDt(),
+                summary.expiresAt()
+        );
+    }
+
+    /**
+     * 서버를 거치는 다운로드 경로.
+     */
+    public static String downloadPath(String id) {
+        return "/api/files/" + id + "/download";
+    }
 }
@@ -0,0 +1,22 @@
+package kr.it.rudy.file.file.application.dto;
+
+import java.time.Instant;
+
+/**
+ * {@code GET /api/files/search} 쿼리 파라미터. {@code match}는 {@code contains}(기본) 또는 {@code prefix},
+ * {@code sort}는 {@code latest}(기본), {@code oldest}, {@code largest}, {@code smallest}, {@code name}, {@code name_desc}다.
+ */
+public record FileSearchRequest(
+        String name,
+        String match,
+        String extension,
+        String contentType,
+        Long minSize,
+        Long maxSize,
+        Instant createdFrom,
+        Instant createdTo,
+        String sort,
+        String cursor,
+        Integer size
+) {
+}
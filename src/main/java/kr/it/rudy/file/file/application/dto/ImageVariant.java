@@ -0,0 +1,17 @@
+package kr.it.rudy.file.file.application.dto;
+
+import java.io.InputStream;
+import java.util.function.Supplier;
+
+/**
+ * MinIO에 저장된 이미지 파생본. 스트림은 실제로 쓰기 직전에 연다.
+ */
+public record ImageVariant(
+        String contentType,
+        long size,
+        Supplier<InputStream> opener
+) {
+    public InputStream open() {
+        return opener.get();
+    }
+}
@@ -0,0 +1,10 @@
+package kr.it.rudy.file.file.application.dto;
+
+import java.time.LocalDateTime;
+
+public record PresignedUploadResponse(
+        String fileId,
+        String url,
+        LocalDateTime expiresAt
+) {
+}
@@ -0,0 +1,13 @@
+package kr.it.rudy.file.file.application.dto;
+
+import kr.it.rudy.file.file.domain.StorageUsage;
+
+public record StorageUsageResponse(
+        long bytes,
+        long files,
+        Long quotaBytes
+) {
+    public static StorageUsageResponse from(StorageUsage usage, Long quotaBytes) {
+        return new StorageUsageResponse(usage.bytes(), usage.files(), quotaBytes);
+    }
+}
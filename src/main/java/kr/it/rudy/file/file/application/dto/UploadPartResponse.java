@@ -0,0 +1,8 @@
+package kr.it.rudy.file.file.application.dto;
+
+public record UploadPartResponse(
+        int partNumber,
+        String etag,
+        long size
+) {
+}
@@ -0,0 +1,21 @@
+package kr.it.rudy.file.file.application.dto;
+
+import kr.it.rudy.file.file.domain.UploadSession;
+
+public record UploadSessionResponse(
+        String sessionId,
+        String originalName,
+        long minPartSize,
+        long maxPartSize,
+        int maxParts
+) {
+    public static UploadSessionResponse from(UploadSession session, long minPartSize, long maxPartSize, int maxParts) {
+        return new UploadSessionResponse(
+                session.getId().getValue(),
+                session.getOriginalName(),
+                minPartSize,
+                maxPartSize,
+                maxParts
+        );
+    }
+}
@@ -0,0 +1,79 @@
+package kr.it.rudy.file.file.application.service;
+
+import kr.it.rudy.file.file.application.storage.ObjectStorage;
+import kr.it.rudy.file.file.domain.StoredObjectRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HexFormat;
+
+/**
+ * 같은 내용의 객체를 {@code sha256/{hex}} 키 하나에 모아 저장하고 참조 수로 수명을 관리한다.
+ * 업로드는 임시 키로 전송한 뒤 처음 보는 내용일 때만 서버 측 복사로 내용 키에 옮긴다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentAddressedStore {
+
+    private static final String KEY_PREFIX = "sha256/";
+
+    private final ObjectStorage objectStorage;
+    private final StoredObjectRepository storedObjectRepository;
+
+    public boolean isContentAddressed(String storedName) {
+        return storedName.startsWith(KEY_PREFIX);
+    }
+
+    /**
+     * 임시 객체를 내용 키로 옮기고 참조를 하나 늘린 뒤 내용 키를 돌려준다. 임시 객체는 항상 지운다.
+     */
+    public String commit(String bucket, String tempName, byte[] digest, long size) {
+        String storedName = KEY_PREFIX + HexFormat.of().formatHex(digest);
+
+        long refCount = storedObjectRepository.acquire(bucket, storedName, size);
+        try {
+            // 동시에 같은 내용이 처음 올라오면 복사가 끝나기 전에 참조가 늘 수 있으므로, 객체가 아직 없으면 직접 복사한다.
+            if (refCount == 1 || objectStorage.stat(bucket, storedName).isEmpty()) {
+                objectStorage.copy(bucket, tempName, storedName);
+            }
+        } catch (Exception e) {
+            release(bucket, storedName, 1);
+            throw new RuntimeException("중복 제거 저장에 실패했습니다.", e);
+        }
+
+        removeQuietly(bucket, tempName);
+        log.info("Content-addressed object {} referenced {} time(s)", storedName, refCount);
+        return storedName;
+    }
+
+    /**
+     * 참조를 {@code count}만큼 줄이고, 마지막 참조였으면 객체와 참조 행을 지운다.
+     * 참조 행의 잠금을 쥔 채 객체를 지우므로, 그 사이 같은 내용을 올리는 요청은 삭제가 끝난 뒤 새로 복사한다.
+     */
+    @Transactional
+    public void release(String bucket, String storedName, int count) {
+        long remaining = storedObjectRepository.release(bucket, storedName, count).orElse(-1L);
+        if (remaining != 0) {
+            return;
+        }
+
+        try {
+            objectStorage.remove(bucket, storedName);
+        } catch (Exception e) {
+            throw new RuntimeException("파일 삭제에 실패했습니다.", e);
+        }
+        storedObjectRepository.deleteIfUnreferenced(bucket, storedName);
+        log.info("Content-addressed object removed: {}", storedName);
+    }
+
+    private void removeQuietly(String bucket, String storedName) {
+        try {
+            objectStorage.remove(bucket, storedName);
+        } catch (Exception e) {
+            log.warn("Failed to remove object {}: {}", storedName, e.getMessage());
+        }
+    }
+}
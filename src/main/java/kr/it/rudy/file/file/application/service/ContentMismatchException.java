@@ -0,0 +1,11 @@
+package kr.it.rudy.file.file.application.service;
+
+/**
+ * 파일 앞부분의 시그니처가 확장자가 기대하는 형식과 다르다.
+ */
+public class ContentMismatchException extends IllegalArgumentException {
+
+    public ContentMismatchException(String extension) {
+        super("파일 내용이 확장자와 일치하지 않습니다: " + extension);
+    }
+}
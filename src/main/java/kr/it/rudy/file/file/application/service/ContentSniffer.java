@@ -0,0 +1,168 @@
+package kr.it.rudy.file.file.application.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 업로드 스트림의 앞부분({@value #SNIFF_LENGTH}바이트 이내)으로 실제 형식을 알아낸다. 읽은 바이트는
+ * {@link PushbackInputStream}으로 되돌리므로 스트림을 다시 열거나 전체를 버퍼에 담지 않고 그대로 저장소로 이어 보낸다.
+ * 허용 확장자마다 기대하는 시그니처를 생성 시 한 번만 정해 두고, 앞부분이 맞지 않으면 전송 전에 거절한다.
+ * 시그니처가 없는 확장자는 검사하지 않고 클라이언트가 밝힌 타입을 그대로 쓴다.
+ */
+@Component
+public class ContentSniffer {
+
+    public static final int SNIFF_LENGTH = 4096;
+
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+    private static final byte[] GIF87A = {'G', 'I', 'F', '8', '7', 'a'};
+    private static final byte[] GIF89A = {'G', 'I', 'F', '8', '9', 'a'};
+    private static final byte[] RIFF = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP = {'W', 'E', 'B', 'P'};
+    private static final byte[] PDF = {'%', 'P', 'D', 'F', '-'};
+    private static final byte[] ZIP = {'P', 'K', 0x03, 0x04};
+    private static final byte[] ZIP_EMPTY = {'P', 'K', 0x05, 0x06};
+    private static final byte[] OLE2 = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+    private static final byte[] GZIP = {0x1F, (byte) 0x8B};
+    private static final byte[] TAR = {'u', 's', 't', 'a', 'r'};
+    private static final int TAR_MAGIC_OFFSET = 257;
+
+    private enum Signature {
+        JPEG, PNG, GIF, WEBP, PDF, ZIP, OLE2, GZIP, TAR, TEXT
+    }
+
+    private record Format(Signature signature, String contentType) {
+    }
+
+    private static final Map<String, Format> KNOWN_FORMATS = Map.ofEntries(
+            Map.entry("jpg", new Format(Signature.JPEG, "image/jpeg")),
+            Map.entry("jpeg", new Format(Signature.JPEG, "image/jpeg")),
+            Map.entry("png", new Format(Signature.PNG, "image/png")),
+            Map.entry("gif", new Format(Signature.GIF, "image/gif")),
+            Map.entry("webp", new Format(Signature.WEBP, "image/webp")),
+            Map.entry("pdf", new Format(Signature.PDF, "application/pdf")),
+            Map.entry("zip", new Format(Signature.ZIP, "application/zip")),
+            Map.entry("docx", new Format(Signature.ZIP, "application/vnd.openxmlformats-officedocument.wordprocessingml.document")),
+            Map.entry("xlsx", new Format(Signature.ZIP, "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")),
+            Map.entry("pptx", new Format(Signature.ZIP, "application/vnd.openxmlformats-officedocument.presentationml.presentation")),
+            Map.entry("doc", new Format(Signature.OLE2, "application/msword")),
+            Map.entry("xls", new Format(Signature.OLE2, "application/vnd.ms-excel")),
+            Map.entry("ppt", new Format(Signature.OLE2, "application/vnd.ms-powerpoint")),
+            Map.entry("gz", new Format(Signature.GZIP, "application/gzip")),
+            Map.entry("tar", new Format(Signature.TAR, "application/x-tar")),
+            Map.entry("txt", new Format(Signature.TEXT, "text/plain")),
+            Map.entry("md", new Format(Signature.TEXT, "text/markdown")),
+            Map.entry("csv", new Format(Signature.TEXT, "text/csv")),
+            Map.entry("json", new Format(Signature.TEXT, "application/json"))
+    );
+
+    private final boolean enabled;
+    private final Map<String, Format> formats;
+
+    public ContentSniffer(@Value("${file.allowed-extensions}") String allowedExtensions,
+                          @Value("${file.upload.sniff.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        // 허용 확장자 중 시그니처를 아는 것만 남긴다.
+        this.formats = Arrays.stream(allowedExtensions.split(","))
+                .map(extension -> extension.trim().toLowerCase(Locale.ROOT))
+                .filter(KNOWN_FORMATS::containsKey)
+                .distinct()
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), KNOWN_FORMATS::get));
+    }
+
+    /**
+     * 감지 결과와 이어서 읽을 스트림. {@code contentType}은 감지한 타입이며, 검사하지 않은 형식이면 null이다.
+     */
+    public record Sniffed(InputStream inputStream, String contentType) {
+    }
+
+    /**
+     * 앞부분을 읽어 확장자가 기대하는 시그니처인지 확인하고, 읽은 바이트를 되돌린 스트림을 돌려준다.
+     * 빈 스트림은 검사하지 않는다.
+     */
+    public Sniffed sniff(InputStream inputStream, String extension) throws IOException {
+        Format format = extension != null ? formats.get(extension.toLowerCase(Locale.ROOT)) : null;
+        if (!enabled || format == null) {
+            return new Sniffed(inputStream, null);
+        }
+
+        PushbackInputStream pushback = new PushbackInputStream(inputStream, SNIFF_LENGTH);
+        byte[] head = pushback.readNBytes(SNIFF_LENGTH);
+        pushback.unread(head);
+        if (head.length == 0) {
+            return new Sniffed(pushback, null);
+        }
+
+        verify(head, head.length < SNIFF_LENGTH, extension, format);
+        return new Sniffed(pushback, format.contentType());
+    }
+
+    /**
+     * 이미 저장된 객체의 앞부분을 검사해 감지한 타입을 돌려준다. 검사하지 않는 형식이면 null이다.
+     * {@code complete}는 {@code head}가 객체 전체인지 여부다.
+     */
+    public String detect(byte[] head, boolean complete, String extension) {
+        Format format = extension != null ? formats.get(extension.toLowerCase(Locale.ROOT)) : null;
+        if (!enabled || format == null || head.length == 0) {
+            return null;
+        }
+        verify(head, complete, extension, format);
+        return format.contentType();
+    }
+
+    private void verify(byte[] head, boolean complete, String extension, Format format) {
+        if (!matches(format.signature(), head, complete)) {
+            throw new ContentMismatchException(extension);
+        }
+    }
+
+    private boolean matches(Signature signature, byte[] head, boolean complete) {
+        return switch (signature) {
+            case JPEG -> startsWith(head, JPEG, 0);
+            case PNG -> startsWith(head, PNG, 0);
+            case GIF -> startsWith(head, GIF87A, 0) || startsWith(head, GIF89A, 0);
+            case WEBP -> startsWith(head, RIFF, 0) && startsWith(head, WEBP, 8);
+            case PDF -> startsWith(head, PDF, 0);
+            case ZIP -> startsWith(head, ZIP, 0) || startsWith(head, ZIP_EMPTY, 0);
+            case OLE2 -> startsWith(head, OLE2, 0);
+            case GZIP -> startsWith(head, GZIP, 0);
+            case TAR -> startsWith(head, TAR, TAR_MAGIC_OFFSET);
+            case TEXT -> isText(head, complete);
+        };
+    }
+
+    private boolean startsWith(byte[] head, byte[] magic, int offset) {
+        return head.length >= offset + magic.length
+                && Arrays.equals(head, offset, offset + magic.length, magic, 0, magic.length);
+    }
+
+    /**
+     * NUL 바이트가 없고 UTF-8로 읽히면 텍스트로 본다. 앞부분만 읽었으면 끝에서 잘린 멀티바이트 문자는 허용한다.
+     */
+    private boolean isText(byte[] head, boolean complete) {
+        for (byte b : head) {
+            if (b == 0) {
+                return false;
+            }
+        }
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        return !decoder.decode(ByteBuffer.wrap(head), CharBuffer.allocate(head.length), complete).isError();
+    }
+}
@@ -0,0 +1,242 @@
+package kr.it.rudy.file.file.application.service;
+
+import kr.it.rudy.file.common.io.BufferPool;
+import kr.it.rudy.file.file.domain.FileCursor;
+import kr.it.rudy.file.file.domain.FileId;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileMetadataRepository;
+import kr.it.rudy.file.file.domain.FileSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 여러 파일을 ZIP 하나로 묶어 만들어지는 대로 내보낸다. 아카이브는 메모리나 디스크에 쌓지 않으며,
+ * 쓰는 동안 다음 항목 몇 개를 미리 열어 두어 항목마다 저장소의 첫 바이트를 기다리지 않게 한다.
+ * 미리 여는 수가 고정되어 있으므로 메모리 사용량은 아카이브 크기와 관계없다.
+ * 이미 압축된 형식은 압축 수준 0으로 담는다. STORED 항목은 크기와 CRC를 먼저 적어야 해서
+ * 스트림으로 만들 수 없으므로, 무압축 DEFLATE 블록으로 다시 압축하는 비용만 없앤다.
+ */
+@Slf4j
+@Service
+public class FileArchiveService {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final FileService fileService;
+    private final FileMetadataRepository fileMetadataRepository;
+    private final FilePolicy filePolicy;
+    private final BufferPool transferBufferPool;
+    private final Executor prefetchExecutor;
+    private final int prefetch;
+    private final int maxBatchSize;
+
+    public FileArchiveService(
+            FileService fileService,
+            FileMetadataRepository fileMetadataRepository,
+            FilePolicy filePolicy,
+            BufferPool transferBufferPool,
+            @Qualifier("archivePrefetchExecutor") Executor prefetchExecutor,
+            @Value("${file.archive.prefetch:4}") int prefetch,
+            @Value("${file.batch.max-size:1000}") int maxBatchSize
+    ) {
+        this.fileService = fileService;
+        this.fileMetadataRepository = fileMetadataRepository;
+        this.filePolicy = filePolicy;
+        this.transferBufferPool = transferBufferPool;
+        this.prefetchExecutor = prefetchExecutor;
+        this.prefetch = Math.max(prefetch, 1);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * 요청한 파일들을 IN 조회 한 번으로 확인한다. 응답을 시작하기 전에 호출해 잘못된 요청을 오류로 돌려줄 수 있게 한다.
+     * 없는 파일은 건너뛰며, 하나도 없으면 예외가 발생한다. 결과는 요청한 순서를 따른다.
+     */
+    public List<FileMetadata> findFiles(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("파일 ID가 비어있습니다.");
+        }
+        if (ids.size() > maxBatchSize) {
+            throw new IllegalArgumentException("한 번에 처리할 수 있는 파일 수를 초과했습니다. (최대: " + maxBatchSize + "개)");
+        }
+        List<FileId> fileIds = ids.stream().distinct().map(FileId::of).collect(Collectors.toList());
+        Map<FileId, FileMetadata> found = fileMetadataRepository.findAllById(fileIds).stream()
+                .filter(FileMetadata::isAvailable)
+                .collect(Collectors.toMap(FileMetadata::getId, Function.identity()));
+        if (found.isEmpty()) {
+            throw new IllegalArgumentException("파일을 찾을 수 없습니다.");
+        }
+        return fileIds.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    /**
+     * 사용자의 파일 전체를 최신순으로 한 페이지씩 읽어 온다. 한 번에 한 페이지만 메모리에 둔다.
+     */
+    public Iterator<FileMetadata> findOwnedFiles(String uploadedBy) {
+        return new OwnedFileIterator(uploadedBy);
+    }
+
+    public void write(Iterator<FileMetadata> files, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        Deque<Prefetched> window = new ArrayDeque<>(prefetch);
+        Set<String> usedNames = new HashSet<>();
+        int entries = 0;
+        try {
+            fill(window, files);
+            while (!window.isEmpty()) {
+                Prefetched next = window.poll();
+                try (InputStream inputStream = next.await()) {
+                    fill(window, files);
+                    FileMetadata metadata = next.metadata();
+
+                    ZipEntry entry = new ZipEntry(entryName(metadata, usedNames));
+                    if (metadata.getCreatedDt() != null) {
+                        entry.setLastModifiedTime(FileTime.from(metadata.getCreatedDt()));
+                    }
+                    zip.setLevel(filePolicy.isPrecompressed(metadata.getExtension())
+                            ? Deflater.NO_COMPRESSION
+                            : Deflater.DEFAULT_COMPRESSION);
+                    zip.putNextEntry(entry);
+                    transferBufferPool.transfer(inputStream, zip);
+                    zip.closeEntry();
+                    entries++;
+                }
+            }
+            zip.finish();
+            zip.flush();
+            log.info("Archive streamed: {} entries", entries);
+        } finally {
+            window.forEach(Prefetched::discard);
+        }
+    }
+
+    private void fill(Deque<Prefetched> window, Iterator<FileMetadata> files) {
+        while (window.size() < prefetch && files.hasNext()) {
+            FileMetadata metadata = files.next();
+            window.add(new Prefetched(metadata, CompletableFuture.supplyAsync(
+                    () -> fileService.openDownload(metadata).openDecoded(), prefetchExecutor)));
+        }
+    }
+
+    /**
+     * 항목 이름은 원래 파일명이다. 경로 구분자는 바꾸고, 같은 이름이 이미 있으면 뒤에 번호를 붙인다.
+     */
+    private String entryName(FileMetadata metadata, Set<String> usedNames) {
+        String name = metadata.getOriginalName() == null || metadata.getOriginalName().isBlank()
+                ? metadata.getId().getValue()
+                : metadata.getOriginalName().replace('/', '_').replace('\\', '_');
+        if (usedNames.add(name)) {
+            return name;
+        }
+
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        for (int i = 1; ; i++) {
+            String candidate = base + " (" + i + ")" + extension;
+            if (usedNames.add(candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    private static void closeQuietly(InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            log.warn("Failed to close archive entry stream: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 미리 열고 있는 항목. 쓰지 않고 버리면 열리는 대로 닫아 저장소 연결을 돌려준다.
+     */
+    private record Prefetched(FileMetadata metadata, CompletableFuture<InputStream> stream) {
+
+        InputStream await() throws IOException {
+            try {
+                return stream.join();
+            } catch (CompletionException e) {
+                throw new IOException("Failed to open archive entry " + metadata.getId().getValue(), e.getCause());
+            }
+        }
+
+        void discard() {
+            stream.thenAccept(FileArchiveService::closeQuietly);
+        }
+    }
+
+    private class OwnedFileIterator implements Iterator<FileMetadata> {
+
+        private final String uploadedBy;
+        private Iterator<FileMetadata> page = Collections.emptyIterator();
+        private FileCursor cursor;
+        private boolean exhausted;
+
+        OwnedFileIterator(String uploadedBy) {
+            this.uploadedBy = uploadedBy;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!page.hasNext() && !exhausted) {
+                page = nextPage();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public FileMetadata next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+
+        private Iterator<FileMetadata> nextPage() {
+            List<FileSummary> rows = fileMetadataRepository.findPage(uploadedBy, cursor, PAGE_SIZE);
+            if (rows.size() < PAGE_SIZE) {
+                exhausted = true;
+            }
+            if (rows.isEmpty()) {
+                return Collections.emptyIterator();
+            }
+            cursor = FileCursor.of(rows.get(rows.size() - 1));
+
+            Map<FileId, FileMetadata> found = new HashMap<>();
+            fileMetadataRepository.findAllById(rows.stream().map(row -> FileId.of(row.id())).collect(Collectors.toList()))
+                    .forEach(metadata -> found.put(metadata.getId(), metadata));
+            return rows.stream()
+                    .map(row -> found.get(FileId.of(row.id())))
+                    .filter(metadata -> metadata != null && metadata.isAvailable())
+                    .iterator();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package kr.it.rudy.file.file.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import kr.it.rudy.file.common.concurrency.AdvisoryLock;
+import kr.it.rudy.file.file.application.dto.BulkDeleteResponse;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileMetadataRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 만료 시각이 지난 파일을 주기적으로 지운다. {@code (expires_at, id)} 인덱스를 키셋으로 훑어
+ * {@code batch-size}개씩 {@link FileService#purge(List)}에 넘기므로, 객체는 멀티 오브젝트 삭제로, 메타데이터는 DELETE 한 번으로 지워진다.
+ * 동시에 지우는 묶음은 {@code concurrency}개, 초당 삭제 수는 {@code max-deletes-per-second}로 제한해 요청 처리와 경쟁하지 않게 한다.
+ * 여러 노드가 같은 행을 두 번 지우지 않도록 advisory lock을 쥔 노드 하나만 정리한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "file.expiration.enabled", havingValue = "true", matchIfMissing = true)
+public class FileExpirationSweeper {
+
+    private static final String LOCK_NAME = "file-expiration-sweeper";
+
+    private final FileMetadataRepository fileMetadataRepository;
+    private final FileService fileService;
+    private final AdvisoryLock advisoryLock;
+    private final Executor executor;
+    private final int batchSize;
+    private final int concurrency;
+    private final double maxDeletesPerSecond;
+    private final long maxFilesPerSweep;
+    private final Counter deleted;
+    private final Counter failed;
+    private final Timer sweepTimer;
+    private final AtomicLong backlog = new AtomicLong();
+
+    public FileExpirationSweeper(
+            FileMetadataRepository fileMetadataRepository,
+            FileService fileService,
+            AdvisoryLock advisoryLock,
+            @Qualifier("expirationSweepExecutor") Executor executor,
+            MeterRegistry meterRegistry,
+            @Value("${file.expiration.batch-size:500}") int batchSize,
+            @Value("${file.expiration.concurrency:2}") int concurrency,
+            @Value("${file.expiration.max-deletes-per-second:500}") double maxDeletesPerSecond,
+            @Value("${file.expiration.max-files-per-sweep:100000}") long maxFilesPerSweep
+    ) {
+        this.fileMetadataRepository = fileMetadataRepository;
+        this.fileService = fileService;
+        this.advisoryLock = advisoryLock;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.maxDeletesPerSecond = maxDeletesPerSecond;
+        this.maxFilesPerSweep = maxFilesPerSweep;
+        this.deleted = Counter.builder("file.expiration.files")
+                .tag("result", "deleted")
+                .register(meterRegistry);
+        this.failed = Counter.builder("file.expiration.files")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("file.expiration.sweep")
+                .register(meterRegistry);
+        Gauge.builder("file.expiration.backlog", backlog, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${file.expiration.sweep-interval:60000}")
+    public void sweep() {
+        if (!advisoryLock.runExclusively(LOCK_NAME, () -> sweepTimer.record(this::sweepExpired))) {
+            log.debug("Expiration sweep skipped: another node holds the lock");
+        }
+    }
+
+    private void sweepExpired() {
+        Instant now = Instant.now();
+        long started = System.nanoTime();
+        long processed = 0;
+        long removed = 0;
+        FileMetadata after = null;
+
+        while (processed < maxFilesPerSweep) {
+            int pageSize = batchSize * concurrency;
+            List<FileMetadata> page = fileMetadataRepository.findExpiredBefore(now, after, pageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            // 지우지 못한 행을 같은 주기에 다시 읽지 않도록 삭제 결과와 관계없이 다음 키로 넘어간다.
+            after = page.get(page.size() - 1);
+
+            List<List<FileMetadata>> chunks = new ArrayList<>();
+            List<CompletableFuture<BulkDeleteResponse>> futures = new ArrayList<>();
+            for (int from = 0; from < page.size(); from += batchSize) {
+                List<FileMetadata> chunk = page.subList(from, Math.min(from + batchSize, page.size()));
+                chunks.add(chunk);
+                futures.add(CompletableFuture.supplyAsync(() -> fileService.purge(chunk), executor));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    BulkDeleteResponse response = futures.get(i).join();
+                    deleted.increment(response.deleted().size());
+                    failed.increment(response.failed().size());
+                    removed += response.deleted().size();
+                } catch (RuntimeException e) {
+                    failed.increment(chunks.get(i).size());
+                    log.warn("Failed to delete {} expired files: {}", chunks.get(i).size(), e.getMessage());
+                }
+            }
+
+            processed += page.size();
+            if (page.size() < pageSize || !pace(started, processed)) {
+                break;
+            }
+        }
+
+        backlog.set(fileMetadataRepository.countExpiredBefore(Instant.now()));
+        if (processed > 0) {
+            log.info("Expired files swept: {} deleted, {} failed (backlog: {})", removed, processed - removed, backlog.get());
+        }
+    }
+
+    /**
+     * 시작 이후 처리한 수가 허용 속도를 넘지 않을 때까지 기다린다. 인터럽트되면 false를 돌려준다.
+     */
+    private boolean pace(long startedNanos, long processed) {
+        if (maxDeletesPerSecond <= 0) {
+            return true;
+        }
+        long waitNanos = startedNanos + (long) (processed * 1_000_000_000L / maxDeletesPerSecond) - System.nanoTime();
+        if (waitNanos <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package kr.it.rudy.file.file.application.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 업로드 경로(단일 업로드, 분할 업로드, presigned 업로드)가 함께 쓰는 파일명/확장자 규칙.
+ * 설정 목록은 생성 시 한 번만 파싱해 두고 요청마다 집합 조회만 한다.
+ */
+@Component
+public class FilePolicy {
+
+    private final Set<String> allowedExtensions;
+    private final Set<String> compressibleExtensions;
+    private final Set<String> precompressedExtensions;
+
+    public FilePolicy(@Value("${file.allowed-extensions}") String allowedExtensions,
+                      @Value("${file.compression.extensions:txt,md,csv,json,xml,html,log,doc,xls,ppt}") String compressibleExtensions,
+                      @Value("${file.archive.precompressed-extensions:jpg,jpeg,png,gif,webp,zip,gz,docx,xlsx,pptx}") String precompressedExtensions) {
+        this.allowedExtensions = parse(allowedExtensions);
+        this.compressibleExtensions = parse(compressibleExtensions);
+        this.precompressedExtensions = parse(precompressedExtensions);
+    }
+
+    public void validateExtension(String extension) {
+        if (!allowedExtensions.contains(extension.toLowerCase(Locale.ROOT))) {
+            throw new IllegalArgumentException("허용되지 않는 파일 형식입니다: " + extension);
+        }
+    }
+
+    /**
+     * 압축해서 저장할 형식인지 판단한다. docx/xlsx/zip처럼 이미 압축된 형식은 대상이 아니다.
+     */
+    public boolean isCompressible(String extension, String contentType) {
+        if (contentType != null && contentType.regionMatches(true, 0, "text/", 0, 5)) {
+            return true;
+        }
+        return extension != null && compressibleExtensions.contains(extension.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 이미 압축된 형식인지 판단한다. 아카이브에 담을 때 다시 압축하지 않는다.
+     */
+    public boolean isPrecompressed(String extension) {
+        return extension != null && precompressedExtensions.contains(extension.toLowerCase(Locale.ROOT));
+    }
+
+    public String getExtension(String fileName) {
+        int dot = fileName == null ? -1 : fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1);
+    }
+
+    public String generateStoredName(String extension) {
+        String uuid = UUID.randomUUID().toString();
+        return extension.isEmpty() ? uuid : uuid + "." + extension;
+    }
+
+    private static Set<String> parse(String extensions) {
+        return Arrays.stream(extensions.split(","))
+                .map(String::trim)
+                .filter(extension -> !extension.isEmpty())
+                .map(extension -> extension.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
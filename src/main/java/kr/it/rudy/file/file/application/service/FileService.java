@@ -1,27 +1,59 @@
 package kr.it.rudy.file.file.application.service;
 
-import io.minio.*;
-import io.minio.http.Method;
+import kr.it.rudy.file.common.io.CountingInputStream;
+import kr.it.rudy.file.common.io.GzipCompressingInputStream;
+import kr.it.rudy.file.common.io.SizeLimitExceededException;
+import kr.it.rudy.file.common.io.SizeLimitInputStream;
+import kr.it.rudy.file.file.application.dto.BulkDeleteResponse;
+import kr.it.rudy.file.file.application.dto.BulkFileInfoResponse;
+import kr.it.rudy.file.file.application.dto.FileDownload;
+import kr.it.rudy.file.file.application.dto.FilePageResponse;
+import kr.it.rudy.file.file.application.dto.FileSearchRequest;
 import kr.it.rudy.file.file.application.dto.FileResponse;
+import kr.it.rudy.file.file.application.dto.PresignedUploadResponse;
 import kr.it.rudy.file.file.application.dto.PresignedUrlResponse;
+import kr.it.rudy.file.file.application.storage.ObjectStat;
+import kr.it.rudy.file.file.application.storage.ObjectStorage;
+import kr.it.rudy.file.file.domain.FileCursor;
 import kr.it.rudy.file.file.domain.FileId;
 import kr.it.rudy.file.file.domain.FileMetadata;
 import kr.it.rudy.file.file.domain.FileMetadataRepository;
+import kr.it.rudy.file.file.domain.FileSearchCondition;
+import kr.it.rudy.file.file.domain.FileSearchCursor;
+import kr.it.rudy.file.file.domain.FileSearchSort;
+import kr.it.rudy.file.file.domain.FileSummary;
+import kr.it.rudy.file.file.infrastructure.cache.ObjectDiskCache;
+import kr.it.rudy.file.file.infrastructure.cache.PresignedUrlCache;
+import kr.it.rudy.file.file.infrastructure.metrics.FileMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -29,71 +61,250 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class FileService {
 
-    private final MinioClient minioClient;
+    private static final String GZIP = "gzip";
+    private static final int COMPRESSION_BUFFER_SIZE = 64 * 1024;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_SEARCH_NAME_LENGTH = 255;
+
+    private final ObjectStorage objectStorage;
     private final FileMetadataRepository fileMetadataRepository;
+    private final FilePolicy filePolicy;
+    private final ContentAddressedStore contentAddressedStore;
+    private final PresignedUrlCache presignedUrlCache;
+    private final ObjectDiskCache objectDiskCache;
+    private final ImageVariantService imageVariantService;
+    private final FileMetrics fileMetrics;
+    private final StorageUsageService storageUsageService;
+    private final ContentSniffer contentSniffer;
 
     @Value("${minio.bucket}")
     private String bucket;
 
-    @Value("${file.allowed-extensions}")
-    private String allowedExtensions;
-
     @Value("${file.max-file-size}")
     private Long maxFileSize;
 
-    @Transactional
-    public FileResponse upload(MultipartFile file, String uploadedBy) {
-        validateFile(file);
+    @Value("${file.list.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${file.list.stream-timeout:5m}")
+    private Duration listStreamTimeout;
+
+    @Value("${file.batch.max-size:1000}")
+    private int maxBatchSize;
 
-        String originalName = file.getOriginalFilename();
-        String extension = getExtension(originalName);
-        String storedName = generateStoredName(extension);
+    @Value("${file.dedup.enabled:false}")
+    private boolean dedupEnabled;
+
+    @Value("${file.compression.enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${file.compression.level:6}")
+    private int compressionLevel;
+
+    @Value("${file.upload.pending-timeout:1h}")
+    private Duration pendingTimeout;
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FileResponse upload(MultipartFile file, String uploadedBy, Instant expiresAt) {
+        validateFile(file);
+        validateExpiresAt(expiresAt);
+        storageUsageService.checkQuota(uploadedBy, file.getSize());
 
         try {
-            // MinIO에 파일 업로드
-            minioClient.putObject(
-                    PutObjectArgs.builder()
-                            .bucket(bucket)
-                            .object(storedName)
-                            .stream(file.getInputStream(), file.getSize(), -1)
-                            .contentType(file.getContentType())
-                            .build()
-            );
+            return store(file.getOriginalFilename(), file.getContentType(), file.getInputStream(), file.getSize(), uploadedBy, expiresAt);
+        } catch (IOException e) {
+            log.error("Failed to upload file: {}", e.getMessage());
+            throw new RuntimeException("파일 업로드에 실패했습니다.", e);
+        }
+    }
 
-            // 메타데이터 저장
-            FileMetadata metadata = FileMetadata.create(
-                    originalName,
-                    storedName,
-                    file.getContentType(),
-                    file.getSize(),
-                    extension,
-                    uploadedBy,
-                    bucket
-            );
+    /**
+     * 멀티파트 본문을 임시 파일로 받지 않고 파싱 중인 파트 스트림을 그대로 저장소로 전달한다.
+     * 전체 크기를 알 수 없으므로 크기를 모르는 채로 전송하며, 크기 제한은 전송 도중 검사한다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FileResponse upload(String originalName, String contentType, InputStream inputStream, String uploadedBy, Instant expiresAt) {
+        if (originalName == null || originalName.isBlank()) {
+            throw new IllegalArgumentException("파일이 비어있습니다.");
+        }
 
-            FileMetadata saved = fileMetadataRepository.save(metadata);
-            String downloadUrl = "/api/files/" + saved.getId().getValue() + "/download";
+        String extension = filePolicy.getExtension(originalName);
+        filePolicy.validateExtension(extension);
+        validateExpiresAt(expiresAt);
+        // 크기를 모르므로 이미 한도에 닿았는지만 먼저 보고, 실제 크기는 전송 후 다시 검사한다.
+        storageUsageService.checkQuota(uploadedBy, 0);
 
-            log.info("File uploaded: {} -> {}", originalName, storedName);
-            return FileResponse.from(saved, downloadUrl);
+        return store(originalName, contentType, inputStream, -1, uploadedBy, expiresAt);
+    }
 
+    /**
+     * 두 단계로 저장한다. 짧은 트랜잭션으로 PENDING 메타데이터를 남기고, 트랜잭션 없이 객체를 전송한 뒤,
+     * 다시 짧은 트랜잭션으로 ACTIVE로 전환한다. 전송하는 동안 DB 커넥션을 붙잡지 않으며,
+     * 중간에 실패해 남은 PENDING 행과 객체는 {@link PendingUploadReconciler}가 정리한다.
+     * 중복 제거 모드에서는 전송하면서 SHA-256을 계산하고, 전송한 객체를 임시 객체로 삼아 내용 키로 옮긴다.
+     * 압축 대상 형식은 gzip으로 압축하며 저장하고, 다이제스트는 저장되는 바이트 기준으로 계산한다.
+     * 메타데이터를 남기기 전에 스트림 앞부분으로 실제 형식을 확인하므로, 확장자와 내용이 다른 파일은 전송 없이 거절된다.
+     */
+    private FileResponse store(String originalName, String contentType, InputStream inputStream, long size, String uploadedBy, Instant expiresAt) {
+        String extension = filePolicy.getExtension(originalName);
+        ContentSniffer.Sniffed sniffed;
+        try {
+            sniffed = contentSniffer.sniff(inputStream, extension);
+        } catch (IOException e) {
+            log.error("Failed to read upload stream: {}", e.getMessage());
+            throw new RuntimeException("파일 업로드에 실패했습니다.", e);
+        }
+        String storedName = filePolicy.generateStoredName(extension);
+        String resolvedContentType = sniffed.contentType() != null ? sniffed.contentType()
+                : contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        SizeLimitInputStream limited = new SizeLimitInputStream(sniffed.inputStream(), maxFileSize);
+        CountingInputStream compressed = compressionEnabled && filePolicy.isCompressible(extension, resolvedContentType)
+                ? new CountingInputStream(new GzipCompressingInputStream(limited, compressionLevel, COMPRESSION_BUFFER_SIZE))
+                : null;
+        InputStream encoded = compressed != null ? compressed : limited;
+        MessageDigest digest = dedupEnabled ? sha256() : null;
+        InputStream source = digest != null ? new DigestInputStream(encoded, digest) : encoded;
+        // 압축하면 저장 크기를 미리 알 수 없다.
+        long objectSize = compressed != null ? -1 : size;
+
+        FileMetadata metadata = fileMetadataRepository.save(FileMetadata.pending(
+                originalName,
+                storedName,
+                resolvedContentType,
+                0L,
+                extension,
+                uploadedBy,
+                bucket
+        ));
+
+        FileMetrics.Transfer transfer = fileMetrics.startUpload();
+        try {
+            // 저장소에 파일 업로드
+            objectStorage.put(bucket, storedName, source, objectSize, resolvedContentType, compressed != null ? GZIP : null);
         } catch (Exception e) {
+            discard(metadata);
+            if (isSizeLimitExceeded(e)) {
+                throw new IllegalArgumentException("파일 크기가 제한을 초과했습니다. (최대: " + (maxFileSize / 1024 / 1024) + "MB)");
+            }
             log.error("Failed to upload file: {}", e.getMessage());
             throw new RuntimeException("파일 업로드에 실패했습니다.", e);
+        } finally {
+            transfer.close();
+            if (compressed != null) {
+                closeQuietly(compressed);
+            }
         }
-    }
 
-    public InputStream download(String id) {
-        FileMetadata metadata = fileMetadataRepository.findById(FileId.of(id))
-                .orElseThrow(() -> new IllegalArgumentException("파일을 찾을 수 없습니다: " + id));
+        if (limited.getCount() == 0) {
+            discard(metadata);
+            throw new IllegalArgumentException("파일이 비어있습니다.");
+        }
+        try {
+            storageUsageService.checkQuota(uploadedBy, limited.getCount());
+        } catch (QuotaExceededException e) {
+            discard(metadata);
+            throw e;
+        }
+
+        metadata.activate(limited.getCount());
+        metadata.expireAt(expiresAt);
+        if (compressed != null) {
+            metadata.markEncoded(GZIP, compressed.getCount());
+        }
 
+        if (digest != null) {
+            try {
+                metadata.relocate(contentAddressedStore.commit(bucket, storedName, digest.digest(), metadata.getStoredLength()));
+            } catch (RuntimeException e) {
+                discard(metadata);
+                throw e;
+            }
+        }
+
+        // 메타데이터 활성화
+        FileMetadata saved;
         try {
-            return minioClient.getObject(
-                    GetObjectArgs.builder()
-                            .bucket(metadata.getBucket())
-                            .object(metadata.getStoredName())
-                            .build()
+            saved = fileMetadataRepository.save(metadata);
+        } catch (RuntimeException e) {
+            if (digest != null) {
+                contentAddressedStore.release(bucket, metadata.getStoredName(), 1);
+            }
+            throw e;
+        }
+        String downloadUrl = FileResponse.downloadPath(saved.getId().getValue());
+        storageUsageService.recordUpload(uploadedBy, limited.getCount());
+        fileMetrics.recordBytesIn(limited.getCount());
+        fileMetrics.recordUploadSize(extension, limited.getCount());
+
+        imageVariantService.pregenerate(saved);
+
+        log.info("File uploaded: {} -> {} ({} bytes, {} stored)", originalName, saved.getStoredName(), limited.getCount(), saved.getStoredLength());
+        return FileResponse.from(saved, downloadUrl);
+    }
+
+    /**
+     * 메타데이터를 한 번만 조회해 다운로드 핸들을 만든다. 객체 스트림은 핸들을 통해 필요한 구간만 연다.
+     */
+    public FileDownload openDownload(String id) {
+        return openDownload(getActiveMetadata(id));
+    }
+
+    /**
+     * 이미 조회한 활성 메타데이터로 다운로드 핸들을 만든다.
+     */
+    public FileDownload openDownload(FileMetadata metadata) {
+        if (objectStorage.isLocal()) {
+            // 저장소가 이미 로컬 디스크이므로 디스크 캐시를 거치지 않고 저장소에서 바로 내보낸다.
+            return new FileDownload(
+                    metadata,
+                    (offset, length) -> fetchObject(metadata, offset, length),
+                    (out, offset, length) -> objectStorage.transferTo(metadata.getBucket(), metadata.getStoredName(), out, offset, length)
+            );
+        }
+
+        Optional<Path> cached = objectDiskCache.get(metadata.getBucket(), metadata.getStoredName());
+        if (cached.isPresent()) {
+            Path path = cached.get();
+            return new FileDownload(
+                    metadata,
+                    (offset, length) -> openCached(metadata, path, offset, length),
+                    (out, offset, length) -> objectDiskCache.transferTo(path, out, offset, length)
             );
+        }
+        return new FileDownload(metadata, (offset, length) -> getObject(metadata, offset, length));
+    }
+
+    private InputStream openCached(FileMetadata metadata, Path path, long offset, long length) {
+        try {
+            return objectDiskCache.open(path, offset, length);
+        } catch (NoSuchFileException e) {
+            // 그 사이 캐시에서 밀려났으면 원본에서 읽는다.
+            return getObject(metadata, offset, length);
+        } catch (IOException e) {
+            log.warn("Failed to read cached object {}: {}", metadata.getStoredName(), e.getMessage());
+            return fetchObject(metadata, offset, length);
+        }
+    }
+
+    /**
+     * 객체 전체를 읽을 때는 로컬 디스크 캐시를 거친다. 같은 객체의 콜드 읽기가 겹치면 저장소 스트림 하나를
+     * 함께 쓰고, 늦게 붙은 독자는 놓친 앞부분만 구간 요청으로 읽는다. 구간 요청은 캐시하지 않는다.
+     */
+    private InputStream getObject(FileMetadata metadata, long offset, long length) {
+        if (offset <= 0 && length < 0 && objectDiskCache.isShareable(metadata.getStoredLength())) {
+            try {
+                return objectDiskCache.openShared(metadata.getBucket(), metadata.getStoredName(), metadata.getStoredLength(),
+                        (from, count) -> fetchObject(metadata, from, count));
+            } catch (IOException e) {
+                log.warn("Failed to read through disk cache {}: {}", metadata.getStoredName(), e.getMessage());
+            }
+        }
+        return fetchObject(metadata, offset, length);
+    }
+
+    private InputStream fetchObject(FileMetadata metadata, long offset, long length) {
+        try {
+            return objectStorage.get(metadata.getBucket(), metadata.getStoredName(), offset, length);
         } catch (Exception e) {
             log.error("Failed to download file: {}", e.getMessage());
             throw new RuntimeException("파일 다운로드에 실패했습니다.", e);
@@ -101,48 +312,213 @@ public class FileService {
     }
 
     public FileResponse getFileInfo(String id) {
-        FileMetadata metadata = fileMetadataRepository.findById(FileId.of(id))
-                .orElseThrow(() -> new IllegalArgumentException("파일을 찾을 수 없습니다: " + id));
+        FileMetadata metadata = getActiveMetadata(id);
 
-        String downloadUrl = "/api/files/" + id + "/download";
+        String downloadUrl = FileResponse.downloadPath(id);
         return FileResponse.from(metadata, downloadUrl);
     }
 
-    public List<FileResponse> getFilesByUser(String uploadedBy) {
-        return fileMetadataRepository.findByUploadedBy(uploadedBy).stream()
-                .map(metadata -> {
-                    String downloadUrl = "/api/files/" + metadata.getId().getValue() + "/download";
-                    return FileResponse.from(metadata, downloadUrl);
-                })
+    /**
+     * 여러 파일의 메타데이터를 IN 조회 한 번으로 가져온다. 결과는 요청한 ID 순서를 따른다.
+     */
+    public BulkFileInfoResponse getFileInfos(List<String> ids) {
+        List<FileId> fileIds = toFileIds(ids);
+        Map<FileId, FileMetadata> found = findActive(fileIds);
+
+        List<FileResponse> items = new ArrayList<>();
+        List<String> notFound = new ArrayList<>();
+        for (FileId id : fileIds) {
+            FileMetadata metadata = found.get(id);
+            if (metadata == null) {
+                notFound.add(id.getValue());
+            } else {
+                items.add(FileResponse.from(metadata, FileResponse.downloadPath(id.getValue())));
+            }
+        }
+        return new BulkFileInfoResponse(items, notFound);
+    }
+
+    /**
+     * 여러 파일을 버킷별 {@code removeObjects} 요청과 DELETE 한 번으로 삭제한다.
+     * 객체 삭제에 성공한 파일만 메타데이터를 지우고, 나머지는 ID별 실패 사유와 함께 돌려준다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkDeleteResponse deleteAll(List<String> ids) {
+        List<FileId> fileIds = toFileIds(ids);
+        Map<FileId, FileMetadata> found = findActive(fileIds);
+
+        List<BulkDeleteResponse.Failure> failed = new ArrayList<>();
+        List<FileMetadata> files = new ArrayList<>();
+        for (FileId id : fileIds) {
+            FileMetadata metadata = found.get(id);
+            if (metadata == null) {
+                failed.add(new BulkDeleteResponse.Failure(id.getValue(), "NOT_FOUND"));
+            } else {
+                files.add(metadata);
+            }
+        }
+
+        BulkDeleteResponse purged = purge(files);
+        failed.addAll(purged.failed());
+        return new BulkDeleteResponse(purged.deleted(), failed);
+    }
+
+    /**
+     * 이미 조회한 메타데이터의 파일을 {@link #deleteAll(List)}과 같은 방식으로 한꺼번에 지운다.
+     * 개수 제한을 검사하지 않으므로 호출하는 쪽에서 묶음 크기를 정한다. 만료 정리도 이 경로를 쓴다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkDeleteResponse purge(List<FileMetadata> files) {
+        Map<FileId, FileMetadata> found = files.stream()
+                .collect(Collectors.toMap(FileMetadata::getId, Function.identity()));
+
+        List<BulkDeleteResponse.Failure> failed = new ArrayList<>();
+        List<FileId> deleted = new ArrayList<>();
+        List<FileMetadata> shared = new ArrayList<>();
+        Map<String, List<FileMetadata>> byBucket = new HashMap<>();
+        for (FileMetadata metadata : found.values()) {
+            if (contentAddressedStore.isContentAddressed(metadata.getStoredName())) {
+                shared.add(metadata);
+                deleted.add(metadata.getId());
+            } else {
+                byBucket.computeIfAbsent(metadata.getBucket(), bucket -> new ArrayList<>()).add(metadata);
+            }
+        }
+
+        byBucket.forEach((bucket, bucketFiles) -> {
+            Map<String, String> errors = removeObjects(bucket, bucketFiles);
+            for (FileMetadata metadata : bucketFiles) {
+                String error = errors.get(metadata.getStoredName());
+                if (error == null) {
+                    deleted.add(metadata.getId());
+                } else {
+                    failed.add(new BulkDeleteResponse.Failure(metadata.getId().getValue(), error));
+                }
+            }
+        });
+
+        if (!deleted.isEmpty()) {
+            try {
+                // 메타데이터 삭제
+                fileMetadataRepository.deleteAllById(deleted);
+                deleted.forEach(id -> presignedUrlCache.evict(id.getValue()));
+                deleted.stream().map(found::get)
+                        .forEach(metadata -> storageUsageService.recordDelete(metadata.getUploadedBy(), metadata.getSize()));
+                deleted.stream().map(found::get)
+                        .forEach(metadata -> objectDiskCache.evict(metadata.getBucket(), metadata.getStoredName()));
+                imageVariantService.removeVariants(deleted.stream().map(found::get).collect(Collectors.toList()));
+            } catch (Exception e) {
+                log.error("Failed to delete metadata of {} files: {}", deleted.size(), e.getMessage());
+                throw new RuntimeException("파일 삭제에 실패했습니다.", e);
+            }
+        }
+
+        // 중복 제거된 객체는 메타데이터를 지운 뒤 객체별로 참조를 한 번에 줄인다. 실패하면 객체가 남을 뿐 파일은 이미 삭제되었다.
+        shared.stream()
+                .collect(Collectors.groupingBy(metadata -> List.of(metadata.getBucket(), metadata.getStoredName()), Collectors.counting()))
+                .forEach((key, count) -> {
+                    try {
+                        contentAddressedStore.release(key.get(0), key.get(1), count.intValue());
+                    } catch (Exception e) {
+                        log.warn("Failed to release content-addressed object {}: {}", key.get(1), e.getMessage());
+                    }
+                });
+
+        log.info("Files deleted: {} (failed: {})", deleted.size(), failed.size());
+        return new BulkDeleteResponse(deleted.stream().map(FileId::getValue).collect(Collectors.toList()), failed);
+    }
+
+    /**
+     * {@code uploadedBy}가 null이면 전체 파일을, 아니면 해당 사용자의 파일을 최신순으로 한 페이지 조회한다.
+     */
+    public FilePageResponse getFiles(String uploadedBy, String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), maxPageSize);
+        FileCursor after = cursor != null && !cursor.isBlank() ? FileCursor.decode(cursor) : null;
+
+        // 다음 페이지 존재 여부를 알기 위해 한 건 더 읽는다.
+        List<FileSummary> rows = fileMetadataRepository.findPage(uploadedBy, after, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<FileSummary> page = hasNext ? rows.subList(0, limit) : rows;
+
+        List<FileResponse> items = page.stream()
+                .map(summary -> FileResponse.from(summary, FileResponse.downloadPath(summary.id())))
                 .collect(Collectors.toList());
+        String nextCursor = hasNext ? FileCursor.of(page.get(page.size() - 1)).encode() : null;
+        return new FilePageResponse(items, nextCursor);
     }
 
-    public List<FileResponse> getAllFiles() {
-        return fileMetadataRepository.findAll().stream()
-                .map(metadata -> {
-                    String downloadUrl = "/api/files/" + metadata.getId().getValue() + "/download";
-                    return FileResponse.from(metadata, downloadUrl);
-                })
+    /**
+     * 사용자의 파일을 조건으로 검색해 키셋 페이지로 돌려준다. 커서는 같은 정렬로 만든 것만 받는다.
+     */
+    public FilePageResponse search(String uploadedBy, FileSearchRequest request) {
+        FileSearchSort sort = FileSearchSort.from(request.sort());
+        FileSearchCondition condition = new FileSearchCondition(
+                uploadedBy,
+                trimToNull(request.name()),
+                isPrefixMatch(request.match()),
+                trimToNull(request.extension()),
+                trimToNull(request.contentType()),
+                request.minSize(),
+                request.maxSize(),
+                request.createdFrom(),
+                request.createdTo(),
+                sort
+        );
+        validateSearch(condition);
+        int limit = Math.min(Math.max(request.size() != null ? request.size() : DEFAULT_PAGE_SIZE, 1), maxPageSize);
+        FileSearchCursor after = request.cursor() != null && !request.cursor().isBlank()
+                ? FileSearchCursor.decode(request.cursor(), sort)
+                : null;
+
+        // 다음 페이지 존재 여부를 알기 위해 한 건 더 읽는다.
+        List<FileSummary> rows = fileMetadataRepository.search(condition, after, limit + 1);
+        boolean hasNext = rows.size() > limit;
+        List<FileSummary> page = hasNext ? rows.subList(0, limit) : rows;
+
+        List<FileResponse> items = page.stream()
+                .map(summary -> FileResponse.from(summary, FileResponse.downloadPath(summary.id())))
                 .collect(Collectors.toList());
+        String nextCursor = hasNext ? FileSearchCursor.of(sort, page.get(page.size() - 1)).encode() : null;
+        return new FilePageResponse(items, nextCursor);
+    }
+
+    /**
+     * 목록 전체를 JDBC 커서에서 읽히는 대로 {@code consumer}에 넘긴다. 힙에 목록을 쌓지 않는다.
+     * 커서는 다 읽을 때까지 DB 커넥션을 잡으므로, {@code stream-timeout}이 지나면 중단해 느린 클라이언트가 커넥션을 오래 잡지 못하게 한다.
+     */
+    public void streamFiles(String uploadedBy, Consumer<FileResponse> consumer) {
+        long deadline = System.nanoTime() + listStreamTimeout.toNanos();
+        try (Stream<FileSummary> rows = fileMetadataRepository.streamAll(uploadedBy)) {
+            rows.forEach(summary -> {
+                if (System.nanoTime() - deadline > 0) {
+                    throw new IllegalStateException("목록 스트리밍 시간이 초과되었습니다. (" + listStreamTimeout + ")");
+                }
+                consumer.accept(FileResponse.from(summary, FileResponse.downloadPath(summary.id())));
+            });
+        }
     }
 
     @Transactional
     public void delete(String id) {
-        FileMetadata metadata = fileMetadataRepository.findById(FileId.of(id))
-                .orElseThrow(() -> new IllegalArgumentException("파일을 찾을 수 없습니다: " + id));
+        FileMetadata metadata = getActiveMetadata(id);
 
         try {
-            // MinIO에서 파일 삭제
-            minioClient.removeObject(
-                    RemoveObjectArgs.builder()
-                            .bucket(metadata.getBucket())
-                            .object(metadata.getStoredName())
-                            .build()
-            );
-
-            // 메타데이터 삭제
-            fileMetadataRepository.delete(FileId.of(id));
-
+            if (contentAddressedStore.isContentAddressed(metadata.getStoredName())) {
+                // 다른 파일이 같은 객체를 가리킬 수 있으므로 참조만 줄이고, 마지막 참조일 때만 객체를 지운다.
+                fileMetadataRepository.delete(FileId.of(id));
+                contentAddressedStore.release(metadata.getBucket(), metadata.getStoredName(), 1);
+            } else {
+                // 저장소에서 파일 삭제
+                objectStorage.remove(metadata.getBucket(), metadata.getStoredName());
+
+                // 메타데이터 삭제
+                fileMetadataRepository.delete(FileId.of(id));
+            }
+
+            presignedUrlCache.evict(id);
+            storageUsageService.recordDelete(metadata.getUploadedBy(), metadata.getSize());
+            objectDiskCache.evict(metadata.getBucket(), metadata.getStoredName());
+            imageVariantService.removeVariants(List.of(metadata));
             log.info("File deleted: {}", metadata.getStoredName());
         } catch (Exception e) {
             log.error("Failed to delete file: {}", e.getMessage());
@@ -150,84 +526,295 @@ public class FileService {
         }
     }
 
+    /**
+     * 같은 파일과 만료 구간이면 캐시된 URL을 돌려주므로, 실제 만료 시간은 요청한 값보다 짧을 수 있다.
+     * 만료가 예정된 파일이면 URL도 그 시각을 넘지 않게 서명한다.
+     * URL 캐시는 노드 로컬이라 다른 노드의 삭제를 알지 못하므로, 적중하더라도 메타데이터로 파일이 살아 있는지 먼저 확인한다.
+     * 메타데이터 조회는 노드 간 무효화가 전파되는 메타데이터 캐시를 거치며, 적중 시 DB 커넥션을 잡지 않도록 트랜잭션 없이 실행한다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PresignedUrlResponse getPresignedDownloadUrl(String id, int expiryMinutes) {
-        FileMetadata metadata = fileMetadataRepository.findById(FileId.of(id))
-                .orElseThrow(() -> new IllegalArgumentException("파일을 찾을 수 없습니다: " + id));
+        FileMetadata metadata = getActiveMetadata(id);
+        return presignedUrlCache.get(id, expiryMinutes, minutes -> signDownloadUrl(metadata, minutes));
+    }
+
+    private PresignedUrlResponse signDownloadUrl(FileMetadata metadata, int expiryMinutes) {
+        Duration expiry = Duration.ofMinutes(expiryMinutes);
+        if (metadata.getExpiresAt() != null) {
+            Duration remaining = Duration.between(Instant.now(), metadata.getExpiresAt());
+            if (remaining.compareTo(expiry) < 0) {
+                expiry = remaining;
+            }
+        }
+        Duration signedExpiry = expiry;
 
         try {
-            String url = minioClient.getPresignedObjectUrl(
-                    GetPresignedObjectUrlArgs.builder()
-                            .bucket(metadata.getBucket())
-                            .object(metadata.getStoredName())
-                            .method(Method.GET)
-                            .expiry(expiryMinutes, TimeUnit.MINUTES)
-                            .build()
-            );
+            String url = fileMetrics.storage("presign", () -> objectStorage.presign(
+                    metadata.getBucket(), metadata.getStoredName(), ObjectStorage.PresignMethod.GET, signedExpiry));
 
-            LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(expiryMinutes);
+            LocalDateTime expiresAt = LocalDateTime.now().plus(signedExpiry);
             return new PresignedUrlResponse(url, expiresAt);
+        } catch (UnsupportedOperationException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to generate presigned URL: {}", e.getMessage());
             throw new RuntimeException("Presigned URL 생성에 실패했습니다.", e);
         }
     }
 
-    public PresignedUrlResponse getPresignedUploadUrl(String fileName, int expiryMinutes) {
-        String extension = getExtension(fileName);
-        validateExtension(extension);
-        String storedName = generateStoredName(extension);
+    /**
+     * 클라이언트가 MinIO로 직접 올릴 PUT URL을 발급하고, 밝힌 이름/크기/타입으로 PENDING 메타데이터를 예약한다.
+     * 업로드를 마친 클라이언트는 {@link #finalizeUpload(String, String)}로 파일을 활성화한다.
+     * 만료 시간은 {@code pending-timeout}을 넘지 않으므로, 확정되지 않은 예약은 {@link PendingUploadReconciler}가 정리한다.
+     */
+    @Transactional
+    public PresignedUploadResponse getPresignedUploadUrl(String fileName, String contentType, long size, int expiryMinutes, String uploadedBy, Instant expiresAt) {
+        String extension = filePolicy.getExtension(fileName);
+        filePolicy.validateExtension(extension);
+        if (size <= 0) {
+            throw new IllegalArgumentException("파일이 비어있습니다.");
+        }
+        if (size > maxFileSize) {
+            throw new IllegalArgumentException("파일 크기가 제한을 초과했습니다. (최대: " + (maxFileSize / 1024 / 1024) + "MB)");
+        }
+        validateExpiresAt(expiresAt);
+        storageUsageService.checkQuota(uploadedBy, size);
+        String storedName = filePolicy.generateStoredName(extension);
+        String resolvedContentType = contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        int expiry = (int) Math.min(expiryMinutes, pendingTimeout.toMinutes());
 
         try {
-            String url = minioClient.getPresignedObjectUrl(
-                    GetPresignedObjectUrlArgs.builder()
-                            .bucket(bucket)
-                            .object(storedName)
-                            .method(Method.PUT)
-                            .expiry(expiryMinutes, TimeUnit.MINUTES)
-                            .build()
+            String url = fileMetrics.storage("presign", () -> objectStorage.presign(
+                    bucket, storedName, ObjectStorage.PresignMethod.PUT, Duration.ofMinutes(expiry)));
+
+            FileMetadata pending = FileMetadata.pending(
+                    fileName,
+                    storedName,
+                    resolvedContentType,
+                    size,
+                    extension,
+                    uploadedBy,
+                    bucket
             );
+            pending.expireAt(expiresAt);
+            FileMetadata reserved = fileMetadataRepository.save(pending);
 
-            LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(expiryMinutes);
-            return new PresignedUrlResponse(url, expiresAt);
+            LocalDateTime urlExpiresAt = LocalDateTime.now().plusMinutes(expiry);
+            return new PresignedUploadResponse(reserved.getId().getValue(), url, urlExpiresAt);
+        } catch (UnsupportedOperationException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to generate presigned upload URL: {}", e.getMessage());
             throw new RuntimeException("Presigned Upload URL 생성에 실패했습니다.", e);
         }
     }
 
-    private void validateFile(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("파일이 비어있습니다.");
+    /**
+     * 직접 업로드된 객체를 {@code statObject}로 확인하고, 실제 크기와 타입이 예약한 값과 같으면 활성화한다.
+     * 값이 다르면 객체와 예약을 함께 지운다. 이미 활성화된 파일이면 그대로 돌려준다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FileResponse finalizeUpload(String id, String uploadedBy) {
+        FileMetadata metadata = fileMetadataRepository.findById(FileId.of(id))
+                .filter(found -> found.isOwnedBy(uploadedBy))
+                .orElseThrow(() -> new IllegalArgumentException("파일을 찾을 수 없습니다: " + id));
+        String downloadUrl = FileResponse.downloadPath(id);
+        if (metadata.isActive()) {
+            return FileResponse.from(metadata, downloadUrl);
         }
 
-        if (file.getSize() > maxFileSize) {
-            throw new IllegalArgumentException("파일 크기가 제한을 초과했습니다. (최대: " + (maxFileSize / 1024 / 1024) + "MB)");
+        ObjectStat stat;
+        try {
+            stat = objectStorage.stat(metadata.getBucket(), metadata.getStoredName())
+                    .orElseThrow(() -> new IllegalArgumentException("업로드된 파일을 찾을 수 없습니다: " + id));
+        } catch (IOException e) {
+            log.error("Failed to stat uploaded file: {}", e.getMessage());
+            throw new RuntimeException("업로드 확인에 실패했습니다.", e);
+        }
+
+        if (stat.size() != metadata.getSize()) {
+            discard(metadata);
+            throw new IllegalArgumentException("업로드된 파일 크기가 요청한 크기와 다릅니다. (요청: " + metadata.getSize() + ", 실제: " + stat.size() + ")");
+        }
+        if (!isSameType(metadata.getContentType(), stat.contentType())) {
+            discard(metadata);
+            throw new IllegalArgumentException("업로드된 파일 형식이 요청한 형식과 다릅니다. (요청: " + metadata.getContentType() + ", 실제: " + stat.contentType() + ")");
+        }
+        String detected;
+        try {
+            detected = sniffStored(metadata, stat.size());
+        } catch (IllegalArgumentException e) {
+            discard(metadata);
+            throw e;
+        }
+        if (detected != null) {
+            metadata.detectContentType(detected);
+        }
+        // 예약 이후 다른 업로드로 한도에 닿았을 수 있다.
+        try {
+            storageUsageService.checkQuota(uploadedBy, stat.size());
+        } catch (QuotaExceededException e) {
+            discard(metadata);
+            throw e;
+        }
+
+        metadata.activate(stat.size());
+        FileMetadata saved = fileMetadataRepository.save(metadata);
+        storageUsageService.recordUpload(uploadedBy, stat.size());
+
+        imageVariantService.pregenerate(saved);
+
+        log.info("Direct upload finalized: {} -> {} ({} bytes)", saved.getOriginalName(), saved.getStoredName(), stat.size());
+        return FileResponse.from(saved, downloadUrl);
+    }
+
+    /**
+     * 직접 업로드된 객체의 앞부분만 범위 요청으로 읽어 형식을 확인한다.
+     */
+    private String sniffStored(FileMetadata metadata, long size) {
+        byte[] head;
+        try (InputStream inputStream = objectStorage.get(metadata.getBucket(), metadata.getStoredName(), 0, ContentSniffer.SNIFF_LENGTH)) {
+            head = inputStream.readNBytes(ContentSniffer.SNIFF_LENGTH);
+        } catch (IOException e) {
+            log.error("Failed to read uploaded file: {}", e.getMessage());
+            throw new RuntimeException("업로드 확인에 실패했습니다.", e);
+        }
+        return contentSniffer.detect(head, head.length >= size, metadata.getExtension());
+    }
+
+    private FileMetadata getActiveMetadata(String id) {
+        return fileMetadataRepository.findById(FileId.of(id))
+                .filter(FileMetadata::isAvailable)
+                .orElseThrow(() -> new IllegalArgumentException("파일을 찾을 수 없습니다: " + id));
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<FileId> toFileIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("파일 ID가 비어있습니다.");
+        }
+        if (ids.size() > maxBatchSize) {
+            throw new IllegalArgumentException("한 번에 처리할 수 있는 파일 수를 초과했습니다. (최대: " + maxBatchSize + "개)");
         }
+        return ids.stream().distinct().map(FileId::of).collect(Collectors.toList());
+    }
 
-        String extension = getExtension(file.getOriginalFilename());
-        validateExtension(extension);
+    private Map<FileId, FileMetadata> findActive(Collection<FileId> ids) {
+        return fileMetadataRepository.findAllById(ids).stream()
+                .filter(FileMetadata::isAvailable)
+                .collect(Collectors.toMap(FileMetadata::getId, Function.identity()));
     }
 
-    private void validateExtension(String extension) {
-        Set<String> allowed = Arrays.stream(allowedExtensions.split(","))
-                .map(String::trim)
-                .map(String::toLowerCase)
-                .collect(Collectors.toSet());
+    /**
+     * 객체를 멀티 오브젝트 삭제로 지우고, 실패한 객체 이름과 사유를 돌려준다.
+     * 요청 자체가 실패하면 어느 객체가 지워졌는지 알 수 없으므로 모두 실패로 처리한다.
+     * 이미 없는 객체의 삭제는 성공으로 응답되므로 같은 ID로 다시 요청하면 정리된다.
+     */
+    private Map<String, String> removeObjects(String bucket, List<FileMetadata> files) {
+        try {
+            return objectStorage.removeAll(bucket, files.stream().map(FileMetadata::getStoredName).collect(Collectors.toList()));
+        } catch (Exception e) {
+            log.error("Failed to remove objects from {}: {}", bucket, e.getMessage());
+            Map<String, String> errors = new HashMap<>();
+            files.forEach(metadata -> errors.put(metadata.getStoredName(), "STORAGE_ERROR"));
+            return errors;
+        }
+    }
 
-        if (!allowed.contains(extension.toLowerCase())) {
-            throw new IllegalArgumentException("허용되지 않는 파일 형식입니다: " + extension);
+    private void discard(FileMetadata metadata) {
+        removeObject(metadata.getBucket(), metadata.getStoredName());
+        try {
+            fileMetadataRepository.delete(metadata.getId());
+        } catch (Exception e) {
+            log.warn("Failed to discard pending metadata {}: {}", metadata.getId().getValue(), e.getMessage());
         }
     }
 
-    private String getExtension(String fileName) {
-        if (fileName == null || !fileName.contains(".")) {
-            return "";
+    private void removeObject(String bucket, String storedName) {
+        try {
+            objectStorage.remove(bucket, storedName);
+        } catch (Exception e) {
+            log.warn("Failed to remove object {}: {}", storedName, e.getMessage());
         }
-        return fileName.substring(fileName.lastIndexOf(".") + 1);
     }
 
-    private String generateStoredName(String extension) {
-        String uuid = UUID.randomUUID().toString();
-        return extension.isEmpty() ? uuid : uuid + "." + extension;
+    private void closeQuietly(InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            log.warn("Failed to close stream: {}", e.getMessage());
+        }
+    }
+
+    private boolean isSameType(String declared, String actual) {
+        if (actual == null) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaType(declared).equalsTypeAndSubtype(MediaType.parseMediaType(actual));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private boolean isSizeLimitExceeded(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SizeLimitExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void validateExpiresAt(Instant expiresAt) {
+        if (expiresAt != null && !expiresAt.isAfter(Instant.now())) {
+            throw new IllegalArgumentException("만료 시각은 현재보다 이후여야 합니다: " + expiresAt);
+        }
+    }
+
+    private void validateSearch(FileSearchCondition condition) {
+        if (condition.name() != null && condition.name().length() > MAX_SEARCH_NAME_LENGTH) {
+            throw new IllegalArgumentException("검색어가 너무 깁니다. (최대: " + MAX_SEARCH_NAME_LENGTH + "자)");
+        }
+        if (condition.minSize() != null && condition.maxSize() != null && condition.minSize() > condition.maxSize()) {
+            throw new IllegalArgumentException("최소 크기가 최대 크기보다 큽니다.");
+        }
+        if (condition.createdFrom() != null && condition.createdTo() != null && !condition.createdFrom().isBefore(condition.createdTo())) {
+            throw new IllegalArgumentException("검색 시작 시각이 종료 시각보다 늦습니다.");
+        }
+    }
+
+    private boolean isPrefixMatch(String match) {
+        if (match == null || match.isBlank() || "contains".equalsIgnoreCase(match)) {
+            return false;
+        }
+        if ("prefix".equalsIgnoreCase(match)) {
+            return true;
+        }
+        throw new IllegalArgumentException("지원하지 않는 검색 방식입니다: " + match);
+    }
+
+    private String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private void validateFile(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("파일이 비어있습니다.");
+        }
+
+        if (file.getSize() > maxFileSize) {
+            throw new IllegalArgumentException("파일 크기가 제한을 초과했습니다. (최대: " + (maxFileSize / 1024 / 1024) + "MB)");
+        }
+
+        String extension = filePolicy.getExtension(file.getOriginalFilename());
+        filePolicy.validateExtension(extension);
     }
 }
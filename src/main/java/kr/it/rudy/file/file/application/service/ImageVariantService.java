@@ -0,0 +1,343 @@
+package kr.it.rudy.file.file.application.service;
+
+import kr.it.rudy.file.common.concurrency.BulkheadFullException;
+import kr.it.rudy.file.file.application.dto.ImageVariant;
+import kr.it.rudy.file.file.application.storage.ObjectStat;
+import kr.it.rudy.file.file.application.storage.ObjectStorage;
+import kr.it.rudy.file.file.domain.FileId;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileMetadataRepository;
+import kr.it.rudy.file.file.domain.ImageVariantSpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * 이미지 파일의 축소 파생본(썸네일)을 만들어 {@code variants/{fileId}/{spec}}에 저장하고 제공한다.
+ * 생성은 제한된 작업 풀에서 비동기로 수행하며, 같은 파생본을 동시에 요청하면 진행 중인 생성 하나를 함께 기다린다.
+ * 파생본 규격은 허용된 너비/품질 조합으로 제한해 임의 규격으로 저장 공간을 채울 수 없게 한다.
+ */
+@Slf4j
+@Service
+public class ImageVariantService {
+
+    // JDK ImageIO가 기본으로 읽을 수 있는 형식만 대상으로 한다. (webp는 별도 플러그인이 필요하다.)
+    private static final Set<String> SOURCE_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif");
+    private static final List<String> FORMATS = List.of("jpg", "png");
+
+    private final ObjectStorage objectStorage;
+    private final FileMetadataRepository fileMetadataRepository;
+    private final ThreadPoolTaskExecutor variantTaskExecutor;
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final List<Integer> allowedWidths;
+    private final List<Integer> allowedQualities;
+    private final int defaultQuality;
+    private final long maxSourceSize;
+    private final long maxSourcePixels;
+    private final Duration waitTimeout;
+    private final List<String> pregenerate;
+
+    public ImageVariantService(
+            ObjectStorage objectStorage,
+            FileMetadataRepository fileMetadataRepository,
+            @Qualifier("variantTaskExecutor") ThreadPoolTaskExecutor variantTaskExecutor,
+            @Value("${file.variants.enabled:true}") boolean enabled,
+            @Value("${file.variants.allowed-widths:64,128,256,512,1024}") List<Integer> allowedWidths,
+            @Value("${file.variants.allowed-qualities:60,80,90}") List<Integer> allowedQualities,
+            @Value("${file.variants.default-quality:80}") int defaultQuality,
+            @Value("${file.variants.max-source-size:20971520}") long maxSourceSize,
+            @Value("${file.variants.max-source-pixels:40000000}") long maxSourcePixels,
+            @Value("${file.variants.wait-timeout:2s}") Duration waitTimeout,
+            @Value("${file.variants.pregenerate:}") List<String> pregenerate
+    ) {
+        this.objectStorage = objectStorage;
+        this.fileMetadataRepository = fileMetadataRepository;
+        this.variantTaskExecutor = variantTaskExecutor;
+        this.enabled = enabled;
+        this.allowedWidths = allowedWidths;
+        this.allowedQualities = allowedQualities;
+        this.defaultQuality = defaultQuality;
+        this.maxSourceSize = maxSourceSize;
+        this.maxSourcePixels = maxSourcePixels;
+        this.waitTimeout = waitTimeout;
+        this.pregenerate = pregenerate;
+    }
+
+    /**
+     * 저장된 파생본을 돌려준다. 아직 없으면 생성을 시작하고 {@code wait-timeout}만큼 기다린 뒤,
+     * 그때까지 끝나지 않으면 비어 있는 값을 돌려준다. 호출자는 잠시 후 다시 요청하면 된다.
+     */
+    public Optional<ImageVariant> open(String id, String specValue) {
+        if (!enabled) {
+            throw new IllegalArgumentException("이미지 변환을 사용할 수 없습니다.");
+        }
+        ImageVariantSpec spec = parse(specValue);
+        FileMetadata metadata = fileMetadataRepository.findById(FileId.of(id))
+                .filter(FileMetadata::isAvailable)
+                .orElseThrow(() -> new IllegalArgumentException("파일을 찾을 수 없습니다: " + id));
+        validateSource(metadata);
+
+        String objectName = spec.objectName(metadata.getId());
+        Optional<ImageVariant> stored = stat(metadata.getBucket(), objectName);
+        if (stored.isPresent()) {
+            return stored;
+        }
+
+        try {
+            submit(metadata, spec).get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("이미지 변환에 실패했습니다.", e.getCause());
+        }
+        return stat(metadata.getBucket(), objectName);
+    }
+
+    /**
+     * 업로드 직후 {@code pregenerate}에 지정한 파생본을 미리 만든다. 대상이 아니거나 풀이 가득 차면 건너뛴다.
+     */
+    public void pregenerate(FileMetadata metadata) {
+        if (!enabled || pregenerate.isEmpty() || !isSource(metadata) || metadata.getSize() > maxSourceSize) {
+            return;
+        }
+        for (String specValue : pregenerate) {
+            try {
+                submit(metadata, parse(specValue));
+            } catch (RuntimeException e) {
+                log.warn("Skipped pregenerating variant {} of {}: {}", specValue, metadata.getId().getValue(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 삭제된 파일들의 파생본을 지운다. 허용 규격이 유한하므로 목록 조회 없이 가능한 키를 모두 멀티 오브젝트 삭제로 보낸다.
+     */
+    public void removeVariants(Collection<FileMetadata> files) {
+        Map<String, List<String>> byBucket = files.stream()
+                .filter(this::isSource)
+                .collect(Collectors.groupingBy(FileMetadata::getBucket, Collectors.flatMapping(
+                        metadata -> objectNames(metadata.getId()).stream(),
+                        Collectors.toList()
+                )));
+
+        byBucket.forEach((bucket, objects) -> {
+            try {
+                objectStorage.removeAll(bucket, objects)
+                        .forEach((objectName, error) -> log.warn("Failed to remove variant {}: {}", objectName, error));
+            } catch (Exception e) {
+                log.warn("Failed to remove variants from {}: {}", bucket, e.getMessage());
+            }
+        });
+    }
+
+    private CompletableFuture<Void> submit(FileMetadata metadata, ImageVariantSpec spec) {
+        String objectName = spec.objectName(metadata.getId());
+        CompletableFuture<Void> created = new CompletableFuture<>();
+        CompletableFuture<Void> existing = inFlight.putIfAbsent(objectName, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            variantTaskExecutor.execute(() -> {
+                try {
+                    generate(metadata, spec, objectName);
+                    created.complete(null);
+                } catch (Throwable e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(objectName, created);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            inFlight.remove(objectName, created);
+            throw new BulkheadFullException("variant");
+        }
+        return created;
+    }
+
+    private void generate(FileMetadata metadata, ImageVariantSpec spec, String objectName) throws Exception {
+        BufferedImage source;
+        try (InputStream inputStream = objectStorage.get(metadata.getBucket(), metadata.getStoredName(), 0, -1)) {
+            source = decode(inputStream, spec, metadata.getId());
+        }
+
+        byte[] bytes = encode(resize(source, spec), spec);
+        objectStorage.put(metadata.getBucket(), objectName, new ByteArrayInputStream(bytes), bytes.length, spec.contentType(), null);
+        log.info("Image variant generated: {} ({} bytes)", objectName, bytes.length);
+    }
+
+    /**
+     * 헤더에서 크기만 먼저 읽어 픽셀 수 상한을 넘으면 거절한다. {@code max-source-size}는 압축된 크기만 제한하므로
+     * 작은 파일이 거대한 크기를 선언하면 전체 래스터를 풀다가 힙이 고갈될 수 있다.
+     * 상한 안이라도 목표 너비의 두 배까지만 남기도록 솎아 읽어 디코딩 메모리를 줄인다.
+     */
+    private BufferedImage decode(InputStream inputStream, ImageVariantSpec spec, FileId fileId) throws IOException {
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = imageInputStream == null ? null : ImageIO.getImageReaders(imageInputStream);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("이미지를 읽을 수 없습니다: " + fileId.getValue());
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width <= 0 || height <= 0 || (long) width * height > maxSourcePixels) {
+                    throw new IllegalArgumentException("이미지 변환 가능한 해상도를 초과했습니다: " + width + "x" + height);
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / (spec.width() * 2));
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, ImageVariantSpec spec) {
+        // 원본보다 크게 늘리지는 않는다.
+        int width = Math.min(spec.width(), source.getWidth());
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height, spec.isJpeg() ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (spec.isJpeg()) {
+                // JPEG에는 투명도가 없으므로 투명 영역을 흰색으로 채운다.
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image, ImageVariantSpec spec) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(spec.format()).next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (spec.isJpeg()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(spec.quality() / 100f);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private Optional<ImageVariant> stat(String bucket, String objectName) {
+        try {
+            Optional<ObjectStat> stat = objectStorage.stat(bucket, objectName);
+            return stat.map(found -> new ImageVariant(found.contentType(), found.size(), () -> getObject(bucket, objectName)));
+        } catch (Exception e) {
+            log.error("Failed to stat variant {}: {}", objectName, e.getMessage());
+            throw new RuntimeException("이미지 변환본 조회에 실패했습니다.", e);
+        }
+    }
+
+    private InputStream getObject(String bucket, String objectName) {
+        try {
+            return objectStorage.get(bucket, objectName, 0, -1);
+        } catch (Exception e) {
+            log.error("Failed to download variant {}: {}", objectName, e.getMessage());
+            throw new RuntimeException("파일 다운로드에 실패했습니다.", e);
+        }
+    }
+
+    private ImageVariantSpec parse(String specValue) {
+        ImageVariantSpec spec = ImageVariantSpec.parse(specValue, defaultQuality);
+        if (!allowedWidths.contains(spec.width())) {
+            throw new IllegalArgumentException("허용되지 않는 이미지 너비입니다: " + spec.width());
+        }
+        if (spec.isJpeg() && !allowedQualities.contains(spec.quality())) {
+            throw new IllegalArgumentException("허용되지 않는 이미지 품질입니다: " + spec.quality());
+        }
+        return spec;
+    }
+
+    private List<String> objectNames(FileId fileId) {
+        List<String> names = new ArrayList<>();
+        for (int width : allowedWidths) {
+            for (String format : FORMATS) {
+                if ("jpg".equals(format)) {
+                    for (int quality : allowedQualities) {
+                        names.add(new ImageVariantSpec(width, quality, format).objectName(fileId));
+                    }
+                } else {
+                    names.add(new ImageVariantSpec(width, defaultQuality, format).objectName(fileId));
+                }
+            }
+        }
+        return names;
+    }
+
+    private void validateSource(FileMetadata metadata) {
+        if (!isSource(metadata)) {
+            throw new IllegalArgumentException("이미지 변환을 지원하지 않는 파일 형식입니다: " + metadata.getExtension());
+        }
+        if (metadata.getSize() > maxSourceSize) {
+            throw new IllegalArgumentException("이미지 변환 가능한 크기를 초과했습니다. (최대: " + (maxSourceSize / 1024 / 1024) + "MB)");
+        }
+    }
+
+    private boolean isSource(FileMetadata metadata) {
+        return metadata.getExtension() != null && SOURCE_EXTENSIONS.contains(metadata.getExtension().toLowerCase());
+    }
+}
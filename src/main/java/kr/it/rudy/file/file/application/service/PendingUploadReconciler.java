@@ -0,0 +1,52 @@
+package kr.it.rudy.file.file.application.service;
+
+import kr.it.rudy.file.file.application.storage.ObjectStorage;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileMetadataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 활성화되지 못한 채 남은 PENDING 메타데이터와 그 객체를 정리한다.
+ * 전송 도중 프로세스가 죽거나 활성화 저장이 실패하면 행과 객체가 함께 남기 때문이다.
+ * {@code pending-timeout}은 가장 긴 업로드보다 길어야 진행 중인 업로드를 건드리지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PendingUploadReconciler {
+
+    private static final int CLEANUP_BATCH_SIZE = 100;
+
+    private final ObjectStorage objectStorage;
+    private final FileMetadataRepository fileMetadataRepository;
+
+    @Value("${file.upload.pending-timeout:1h}")
+    private Duration pendingTimeout;
+
+    @Scheduled(fixedDelayString = "${file.upload.pending-cleanup-interval:600000}")
+    public void cleanupStalePendingUploads() {
+        Instant threshold = Instant.now().minus(pendingTimeout);
+        List<FileMetadata> stale = fileMetadataRepository.findPendingCreatedBefore(threshold, CLEANUP_BATCH_SIZE);
+
+        for (FileMetadata metadata : stale) {
+            try {
+                objectStorage.remove(metadata.getBucket(), metadata.getStoredName());
+                fileMetadataRepository.delete(metadata.getId());
+            } catch (Exception e) {
+                log.warn("Failed to clean up pending upload {}: {}", metadata.getId().getValue(), e.getMessage());
+            }
+        }
+
+        if (!stale.isEmpty()) {
+            log.info("Stale pending uploads cleaned up: {}", stale.size());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package kr.it.rudy.file.file.application.service;
+
+public class QuotaExceededException extends RuntimeException {
+
+    private final long quotaBytes;
+
+    public QuotaExceededException(long quotaBytes) {
+        super("저장 용량을 초과했습니다. (한도: " + (quotaBytes / 1024 / 1024) + "MB)");
+        this.quotaBytes = quotaBytes;
+    }
+
+    public long getQuotaBytes() {
+        return quotaBytes;
+    }
+}
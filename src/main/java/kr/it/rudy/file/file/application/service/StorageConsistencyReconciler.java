@@ -0,0 +1,366 @@
+package kr.it.rudy.file.file.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.it.rudy.file.common.concurrency.AdvisoryLock;
+import kr.it.rudy.file.file.application.storage.ObjectEntry;
+import kr.it.rudy.file.file.application.storage.ObjectStorage;
+import kr.it.rudy.file.file.domain.FileId;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileMetadataRepository;
+import kr.it.rudy.file.file.domain.FileStatus;
+import kr.it.rudy.file.file.domain.StoredNameReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 저장소 객체와 file_metadata의 어긋남을 찾는다. 버킷의 객체 목록과 메타데이터를 모두 저장 이름의 UTF-8 바이트 순으로 읽으며
+ * 병합 조인하므로, 어느 쪽도 통째로 메모리에 올리지 않는다. 객체 목록은 저장소가 페이지 단위로 흘려보내고,
+ * 메타데이터는 {@code (stored_name, id)} 키셋 페이지로 읽어 긴 트랜잭션을 잡지 않는다.
+ * <ul>
+ *     <li>고아 객체: 메타데이터가 가리키지 않는 객체. 메타데이터 저장에 실패한 업로드, 확정되지 않은 presigned PUT, 남은 임시 객체 등.</li>
+ *     <li>끊긴 참조: 객체가 없는 ACTIVE 메타데이터. 객체만 지워진 삭제 실패 등.</li>
+ * </ul>
+ * 유예 기간 안에 만들어진 객체와 행은 진행 중인 업로드일 수 있어 건너뛰고, PENDING 행은 {@link PendingUploadReconciler}에 맡긴다.
+ * {@code repair}가 켜져 있으면 고아 객체를 멀티 오브젝트 삭제로, 끊긴 참조를 {@link FileService#purge(List)}로 묶어서 지운다.
+ * 내용 주소 객체({@code sha256/})는 참조 수로 수명을 관리하므로 보고만 하고, 변환 이미지({@code variants/{id}/})는
+ * 원본 파일 ID를 묶음으로 조회해 판단한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "file.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class StorageConsistencyReconciler {
+
+    private static final String LOCK_NAME = "storage-consistency-reconciler";
+    private static final String VARIANT_PREFIX = "variants/";
+
+    private final ObjectStorage objectStorage;
+    private final FileMetadataRepository fileMetadataRepository;
+    private final FileService fileService;
+    private final ContentAddressedStore contentAddressedStore;
+    private final AdvisoryLock advisoryLock;
+    private final List<String> buckets;
+    private final Duration gracePeriod;
+    private final boolean repair;
+    private final int batchSize;
+    private final int reportLimit;
+    private final AtomicLong orphanObjects = new AtomicLong();
+    private final AtomicLong danglingReferences = new AtomicLong();
+    private final Counter repairedObjects;
+    private final Counter repairedReferences;
+
+    public StorageConsistencyReconciler(
+            ObjectStorage objectStorage,
+            FileMetadataRepository fileMetadataRepository,
+            FileService fileService,
+            ContentAddressedStore contentAddressedStore,
+            AdvisoryLock advisoryLock,
+            MeterRegistry meterRegistry,
+            @Value("${file.reconcile.buckets:${minio.bucket}}") String buckets,
+            @Value("${file.reconcile.grace-period:24h}") Duration gracePeriod,
+            @Value("${file.reconcile.repair:false}") boolean repair,
+            @Value("${file.reconcile.batch-size:1000}") int batchSize,
+            @Value("${file.reconcile.report-limit:100}") int reportLimit
+    ) {
+        this.objectStorage = objectStorage;
+        this.fileMetadataRepository = fileMetadataRepository;
+        this.fileService = fileService;
+        this.contentAddressedStore = contentAddressedStore;
+        this.advisoryLock = advisoryLock;
+        this.buckets = Arrays.stream(buckets.split(","))
+                .map(String::trim)
+                .filter(bucket -> !bucket.isEmpty())
+                .collect(Collectors.toList());
+        this.gracePeriod = gracePeriod;
+        this.repair = repair;
+        this.batchSize = batchSize;
+        this.reportLimit = reportLimit;
+        this.repairedObjects = Counter.builder("file.reconcile.repaired")
+                .tag("kind", "orphan_object")
+                .register(meterRegistry);
+        this.repairedReferences = Counter.builder("file.reconcile.repaired")
+                .tag("kind", "dangling_reference")
+                .register(meterRegistry);
+        Gauge.builder("file.reconcile.found", orphanObjects, AtomicLong::get)
+                .tag("kind", "orphan_object")
+                .register(meterRegistry);
+        Gauge.builder("file.reconcile.found", danglingReferences, AtomicLong::get)
+                .tag("kind", "dangling_reference")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${file.reconcile.cron:0 0 3 * * *}")
+    public void reconcile() {
+        if (!advisoryLock.runExclusively(LOCK_NAME, this::reconcileAll)) {
+            log.debug("Storage reconciliation skipped: another node holds the lock");
+        }
+    }
+
+    private void reconcileAll() {
+        long orphans = 0;
+        long dangling = 0;
+        for (String bucket : buckets) {
+            try {
+                Scan scan = reconcile(bucket);
+                orphans += scan.orphans;
+                dangling += scan.dangling;
+            } catch (Exception e) {
+                log.error("Failed to reconcile bucket {}: {}", bucket, e.getMessage());
+            }
+        }
+        orphanObjects.set(orphans);
+        danglingReferences.set(dangling);
+    }
+
+    private Scan reconcile(String bucket) throws IOException {
+        Instant settledBefore = Instant.now().minus(gracePeriod);
+        Scan scan = new Scan(bucket);
+
+        try (Stream<ObjectEntry> objects = objectStorage.list(bucket)) {
+            Iterator<ObjectEntry> objectIterator = objects.iterator();
+            Iterator<StoredNameReference> referenceIterator = new ReferenceIterator(bucket, settledBefore);
+            ObjectEntry object = next(objectIterator);
+            StoredNameReference reference = next(referenceIterator);
+
+            while (object != null || reference != null) {
+                int order = object == null ? 1 : reference == null ? -1 : compare(object.name(), reference.storedName());
+                if (order < 0) {
+                    scan.object(object, settledBefore);
+                    object = next(objectIterator);
+                } else if (order > 0) {
+                    scan.reference(reference);
+                    reference = next(referenceIterator);
+                } else {
+                    // 중복 제거된 객체는 여러 행이 같은 이름을 가리킨다.
+                    String name = reference.storedName();
+                    do {
+                        reference = next(referenceIterator);
+                    } while (reference != null && reference.storedName().equals(name));
+                    object = next(objectIterator);
+                }
+            }
+        }
+        scan.finish();
+
+        log.info("Storage reconciled: bucket={}, objects={}, orphan objects={}, dangling references={}, repaired={}",
+                bucket, scan.objects, scan.orphans, scan.dangling, repair);
+        return scan;
+    }
+
+    private <T> T next(Iterator<T> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * 코드 포인트 순은 UTF-8 바이트 순과 같다. {@link String#compareTo}는 UTF-16 단위로 비교해 보충 문자에서 순서가 달라진다.
+     */
+    private int compare(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int x = a.codePointAt(i);
+            int y = b.codePointAt(j);
+            if (x != y) {
+                return Integer.compare(x, y);
+            }
+            i += Character.charCount(x);
+            j += Character.charCount(y);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    /**
+     * 한 버킷의 검사 상태. 고아 객체, 끊긴 참조, 변환 이미지 후보를 {@code batchSize}개씩만 쌓았다가 처리한다.
+     */
+    private class Scan {
+
+        private final String bucket;
+        private final List<String> orphanNames = new ArrayList<>();
+        private final List<FileId> danglingIds = new ArrayList<>();
+        private final Map<FileId, List<String>> variants = new HashMap<>();
+        private long objects;
+        private long orphans;
+        private long dangling;
+
+        private Scan(String bucket) {
+            this.bucket = bucket;
+        }
+
+        private void object(ObjectEntry object, Instant settledBefore) {
+            objects++;
+            if (object.lastModified().isAfter(settledBefore)) {
+                return;
+            }
+            String name = object.name();
+            if (name.startsWith(VARIANT_PREFIX)) {
+                int end = name.indexOf('/', VARIANT_PREFIX.length());
+                if (end > 0) {
+                    variants.computeIfAbsent(FileId.of(name.substring(VARIANT_PREFIX.length(), end)), id -> new ArrayList<>()).add(name);
+                    if (variants.size() >= batchSize) {
+                        flushVariants();
+                    }
+                    return;
+                }
+            }
+            orphan(name, !contentAddressedStore.isContentAddressed(name));
+        }
+
+        private void reference(StoredNameReference reference) {
+            if (reference.status() != FileStatus.ACTIVE || !reference.settled()) {
+                return;
+            }
+            dangling++;
+            report("Dangling reference: {} -> {}/{}", reference.id().getValue(), bucket, reference.storedName());
+            if (repair) {
+                danglingIds.add(reference.id());
+                if (danglingIds.size() >= batchSize) {
+                    flushDangling();
+                }
+            }
+        }
+
+        private void orphan(String name, boolean repairable) {
+            orphans++;
+            report("Orphan object: {}/{}{}", bucket, name, repairable ? "" : " (content-addressed, not repaired)");
+            if (repair && repairable) {
+                orphanNames.add(name);
+                if (orphanNames.size() >= batchSize) {
+                    flushOrphans();
+                }
+            }
+        }
+
+        private void finish() {
+            flushVariants();
+            flushOrphans();
+            flushDangling();
+        }
+
+        private void flushVariants() {
+            if (variants.isEmpty()) {
+                return;
+            }
+            Set<FileId> alive = fileMetadataRepository.findAllById(variants.keySet()).stream()
+                    .filter(FileMetadata::isActive)
+                    .map(FileMetadata::getId)
+                    .collect(Collectors.toSet());
+            Map<FileId, List<String>> pending = new HashMap<>(variants);
+            variants.clear();
+            pending.forEach((id, names) -> {
+                if (!alive.contains(id)) {
+                    names.forEach(name -> orphan(name, true));
+                }
+            });
+        }
+
+        private void flushOrphans() {
+            if (orphanNames.isEmpty()) {
+                return;
+            }
+            List<String> names = new ArrayList<>(orphanNames);
+            orphanNames.clear();
+            try {
+                Map<String, String> errors = objectStorage.removeAll(bucket, names);
+                repairedObjects.increment(names.size() - errors.size());
+                errors.forEach((name, error) -> log.warn("Failed to remove orphan object {}/{}: {}", bucket, name, error));
+            } catch (Exception e) {
+                log.warn("Failed to remove {} orphan objects from {}: {}", names.size(), bucket, e.getMessage());
+            }
+        }
+
+        /**
+         * 목록을 읽은 뒤 객체가 다시 생겼을 수 있으므로, 지우기 직전에 객체가 여전히 없는지 한 번 더 확인한다.
+         */
+        private void flushDangling() {
+            if (danglingIds.isEmpty()) {
+                return;
+            }
+            List<FileId> ids = new ArrayList<>(danglingIds);
+            danglingIds.clear();
+            List<FileMetadata> missing = fileMetadataRepository.findAllById(ids).stream()
+                    .filter(FileMetadata::isActive)
+                    .filter(metadata -> isMissing(metadata.getBucket(), metadata.getStoredName()))
+                    .collect(Collectors.toList());
+            if (missing.isEmpty()) {
+                return;
+            }
+            try {
+                repairedReferences.increment(fileService.purge(missing).deleted().size());
+            } catch (Exception e) {
+                log.warn("Failed to remove {} dangling references: {}", missing.size(), e.getMessage());
+            }
+        }
+
+        private boolean isMissing(String bucket, String storedName) {
+            try {
+                return objectStorage.stat(bucket, storedName).isEmpty();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        private void report(String format, Object... arguments) {
+            if (orphans + dangling <= reportLimit) {
+                log.info(format, arguments);
+            }
+        }
+    }
+
+    /**
+     * 메타데이터를 {@code batchSize}개씩 키셋 페이지로 읽는다. 한 번에 한 페이지만 메모리에 둔다.
+     */
+    private class ReferenceIterator implements Iterator<StoredNameReference> {
+
+        private final String bucket;
+        private final Instant settledBefore;
+        private Iterator<StoredNameReference> page = Collections.emptyIterator();
+        private StoredNameReference last;
+        private boolean exhausted;
+
+        private ReferenceIterator(String bucket, Instant settledBefore) {
+            this.bucket = bucket;
+            this.settledBefore = settledBefore;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!page.hasNext() && !exhausted) {
+                List<StoredNameReference> rows = fileMetadataRepository.findStoredNames(bucket, last, settledBefore, batchSize);
+                exhausted = rows.size() < batchSize;
+                if (!rows.isEmpty()) {
+                    last = rows.get(rows.size() - 1);
+                }
+                page = rows.iterator();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public StoredNameReference next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+    }
+}
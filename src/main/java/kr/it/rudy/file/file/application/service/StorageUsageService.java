@@ -0,0 +1,191 @@
+package kr.it.rudy.file.file.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import kr.it.rudy.file.common.concurrency.AdvisoryLock;
+import kr.it.rudy.file.file.domain.StorageUsage;
+import kr.it.rudy.file.file.domain.StorageUsageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 사용자별 저장 사용량을 관리한다. 업로드/삭제마다 DB를 갱신하지 않고 사용자별 증감을 메모리에 모았다가
+ * {@code flush-interval}마다 사용자당 upsert 한 번으로 더한다. 증감은 {@link ConcurrentHashMap}의
+ * 키 단위 잠금으로 합치므로 서로 다른 사용자의 기록은 경합하지 않는다.
+ * 조회는 저장된 사용량(Caffeine 캐시)과 아직 반영하지 않은 증감의 합이라 DB를 거의 거치지 않는다.
+ * 노드마다 증감을 따로 모으므로 여러 노드에서 동시에 올리면 한도를 조금 넘을 수 있으며,
+ * 어긋난 값은 {@code reconcile-cron}마다 file_metadata 집계로 바로잡는다({@link #reconcile}).
+ */
+@Slf4j
+@Service
+public class StorageUsageService {
+
+    private static final String LOCK_NAME = "storage-usage-reconcile";
+
+    private final StorageUsageRepository storageUsageRepository;
+    private final AdvisoryLock advisoryLock;
+    private final Cache<String, StorageUsage> persisted;
+    private final ConcurrentMap<String, StorageUsage> pending = new ConcurrentHashMap<>();
+    private final long quotaBytes;
+    private final Duration reconcileSettle;
+
+    public StorageUsageService(
+            StorageUsageRepository storageUsageRepository,
+            AdvisoryLock advisoryLock,
+            @Value("${file.usage.quota-bytes:0}") long quotaBytes,
+            @Value("${file.usage.reconcile-settle:30s}") Duration reconcileSettle,
+            @Value("${file.usage.cache.maximum-size:100000}") long cacheMaximumSize,
+            @Value("${file.usage.cache.ttl:5m}") Duration cacheTtl
+    ) {
+        this.storageUsageRepository = storageUsageRepository;
+        this.advisoryLock = advisoryLock;
+        this.quotaBytes = quotaBytes;
+        this.reconcileSettle = reconcileSettle;
+        this.persisted = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    /**
+     * 한도가 없으면 {@code null}이다.
+     */
+    public Long getQuotaBytes() {
+        return quotaBytes > 0 ? quotaBytes : null;
+    }
+
+    public StorageUsage getUsage(String uploadedBy) {
+        StorageUsage usage = persisted.get(uploadedBy,
+                key -> storageUsageRepository.findByUploadedBy(key).orElseGet(() -> StorageUsage.empty(key)));
+        StorageUsage delta = pending.get(uploadedBy);
+        return delta != null ? usage.plus(delta.bytes(), delta.files()) : usage;
+    }
+
+    /**
+     * 현재 사용량에 {@code additionalBytes}를 더한 값이 한도를 넘으면 {@link QuotaExceededException}을 던진다.
+     */
+    public void checkQuota(String uploadedBy, long additionalBytes) {
+        if (quotaBytes <= 0 || uploadedBy == null) {
+            return;
+        }
+        if (getUsage(uploadedBy).bytes() + additionalBytes > quotaBytes) {
+            throw new QuotaExceededException(quotaBytes);
+        }
+    }
+
+    public void recordUpload(String uploadedBy, long bytes) {
+        record(uploadedBy, bytes, 1);
+    }
+
+    public void recordDelete(String uploadedBy, long bytes) {
+        record(uploadedBy, -bytes, -1);
+    }
+
+    /**
+     * 모은 증감을 DB에 더한다. 실패한 증감은 다시 모아 두었다가 다음 주기에 더한다.
+     */
+    @Scheduled(fixedDelayString = "${file.usage.flush-interval:5000}")
+    public void flush() {
+        int flushed = 0;
+        for (String uploadedBy : pending.keySet()) {
+            StorageUsage delta = pending.remove(uploadedBy);
+            if (delta == null || (delta.bytes() == 0 && delta.files() == 0)) {
+                continue;
+            }
+            try {
+                storageUsageRepository.add(uploadedBy, delta.bytes(), delta.files());
+                persisted.invalidate(uploadedBy);
+                flushed++;
+            } catch (Exception e) {
+                accumulate(uploadedBy, delta.bytes(), delta.files());
+                log.warn("Failed to flush storage usage of {}: {}", uploadedBy, e.getMessage());
+            }
+        }
+
+        if (flushed > 0) {
+            log.debug("Storage usage flushed: {} users", flushed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 집계와 다른 사용자의 사용량을 집계 값으로 덮어쓴다. 한 노드에서만 실행한다.
+     * 집계 시점에 이미 커밋됐지만 어느 노드에서도 아직 더하지 않은 증감이 있으면, 덮어쓴 뒤 그 증감이 한 번 더 더해진다.
+     * 그래서 집계한 뒤 {@code reconcile-settle}만큼 기다려 그런 증감이 모두 반영되게 하고, 그 사이 갱신된 행은
+     * 건너뛴다(다음 주기에 맞춘다). 기다리는 동안 갱신되지 않은 행은 집계 이후 바뀐 것이 없으므로 집계 값이 맞다.
+     * {@code reconcile-settle}은 {@code flush-interval}보다 충분히 길어야 한다.
+     */
+    @Scheduled(cron = "${file.usage.reconcile-cron:0 30 4 * * *}")
+    public void reconcile() {
+        if (!advisoryLock.runExclusively(LOCK_NAME, this::reconcileDrifted)) {
+            log.debug("Storage usage reconcile skipped: another node holds the lock");
+        }
+    }
+
+    private void reconcileDrifted() {
+        flush();
+        Instant snapshotAt = storageUsageRepository.currentTime();
+        List<StorageUsage> drifted = storageUsageRepository.findDrifted();
+        if (drifted.isEmpty()) {
+            log.info("Storage usage reconciled: no drift");
+            return;
+        }
+
+        // 이 노드의 스케줄러는 기다리는 동안 멈추므로, 집계 전에 커밋된 이 노드의 증감은 지금 더해 둔다.
+        flush();
+        try {
+            Thread.sleep(reconcileSettle.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        int corrected = 0;
+        for (StorageUsage usage : drifted) {
+            if (storageUsageRepository.overwriteIfUnchangedSince(usage, snapshotAt)) {
+                persisted.invalidate(usage.uploadedBy());
+                corrected++;
+            }
+        }
+        log.info("Storage usage reconciled: {} of {} drifted users corrected", corrected, drifted.size());
+    }
+
+    /**
+     * 트랜잭션 안에서 호출되면 커밋된 뒤에 반영해, 롤백된 삭제가 사용량을 줄이지 않게 한다.
+     */
+    private void record(String uploadedBy, long bytes, long files) {
+        if (uploadedBy == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accumulate(uploadedBy, bytes, files);
+                }
+            });
+        } else {
+            accumulate(uploadedBy, bytes, files);
+        }
+    }
+
+    private void accumulate(String uploadedBy, long bytes, long files) {
+        pending.merge(uploadedBy, new StorageUsage(uploadedBy, bytes, files),
+                (current, delta) -> current.plus(delta.bytes(), delta.files()));
+    }
+}
@@ -0,0 +1,298 @@
+package kr.it.rudy.file.file.application.service;
+
+import io.minio.messages.Part;
+import kr.it.rudy.file.common.io.SizeLimitInputStream;
+import kr.it.rudy.file.file.application.dto.FileResponse;
+import kr.it.rudy.file.file.application.dto.UploadPartResponse;
+import kr.it.rudy.file.file.application.dto.UploadSessionResponse;
+import kr.it.rudy.file.file.application.storage.ObjectStorage;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileMetadataRepository;
+import kr.it.rudy.file.file.domain.UploadSession;
+import kr.it.rudy.file.file.domain.UploadSessionId;
+import kr.it.rudy.file.file.domain.UploadSessionRepository;
+import kr.it.rudy.file.file.infrastructure.metrics.FileMetrics;
+import kr.it.rudy.file.file.infrastructure.storage.MultipartMinioClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * MinIO 멀티파트 업로드 위에 세션 기반 분할 업로드를 제공한다.
+ * 파트는 순서와 관계없이 병렬로 올라올 수 있고, 조립은 완료 시점에 MinIO가 수행한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadSessionService {
+
+    private static final int MAX_PARTS = 10000;
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final int CLEANUP_BATCH_SIZE = 100;
+
+    private final MultipartMinioClient multipartMinioClient;
+    private final ObjectStorage objectStorage;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final FileMetadataRepository fileMetadataRepository;
+    private final FilePolicy filePolicy;
+    private final ImageVariantService imageVariantService;
+    private final FileMetrics fileMetrics;
+    private final StorageUsageService storageUsageService;
+    private final ContentSniffer contentSniffer;
+
+    @Value("${minio.bucket}")
+    private String bucket;
+
+    @Value("${file.storage.type:minio}")
+    private String storageType;
+
+    @Value("${file.upload.chunk.max-file-size:10737418240}")
+    private long maxFileSize;
+
+    @Value("${file.upload.chunk.max-part-size:67108864}")
+    private long maxPartSize;
+
+    @Value("${file.upload.chunk.session-ttl:24h}")
+    private Duration sessionTtl;
+
+    public UploadSessionResponse initiate(String fileName, String contentType, String uploadedBy) {
+        // 세션은 MinIO 멀티파트 업로드 위에 있으므로 다른 저장소에서는 쓸 수 없다.
+        if (!"minio".equals(storageType)) {
+            throw new UnsupportedOperationException("분할 업로드는 MinIO 저장소에서만 지원합니다.");
+        }
+        String extension = filePolicy.getExtension(fileName);
+        filePolicy.validateExtension(extension);
+        storageUsageService.checkQuota(uploadedBy, 0);
+        String storedName = filePolicy.generateStoredName(extension);
+        String resolvedContentType = contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+
+        try {
+            String uploadId = multipartMinioClient.createMultipartUpload(bucket, storedName, resolvedContentType);
+
+            UploadSession session = uploadSessionRepository.save(UploadSession.create(
+                    uploadId,
+                    bucket,
+                    storedName,
+                    fileName,
+                    resolvedContentType,
+                    extension,
+                    uploadedBy
+            ));
+
+            log.info("Upload session started: {} -> {}", fileName, storedName);
+            return UploadSessionResponse.from(session, MIN_PART_SIZE, maxPartSize, MAX_PARTS);
+        } catch (Exception e) {
+            log.error("Failed to start upload session: {}", e.getMessage());
+            throw new RuntimeException("분할 업로드 세션 생성에 실패했습니다.", e);
+        }
+    }
+
+    public UploadPartResponse uploadPart(String sessionId, int partNumber, InputStream inputStream, long contentLength, String uploadedBy) {
+        if (partNumber < 1 || partNumber > MAX_PARTS) {
+            throw new IllegalArgumentException("파트 번호는 1 이상 " + MAX_PARTS + " 이하여야 합니다: " + partNumber);
+        }
+        if (contentLength <= 0 || contentLength > maxPartSize) {
+            throw new IllegalArgumentException("파트 크기가 올바르지 않습니다. (최대: " + (maxPartSize / 1024 / 1024) + "MB)");
+        }
+
+        UploadSession session = getSession(sessionId, uploadedBy);
+        InputStream source = new SizeLimitInputStream(inputStream, contentLength);
+        if (partNumber == 1) {
+            // 첫 파트의 앞부분으로 형식을 미리 확인해, 맞지 않는 파일은 나머지 파트를 받기 전에 거절한다.
+            source = sniffFirstPart(source, session);
+        }
+
+        try (FileMetrics.Transfer transfer = fileMetrics.startUpload()) {
+            String etag = multipartMinioClient.uploadPart(
+                    session.getBucket(),
+                    session.getStoredName(),
+                    session.getUploadId(),
+                    partNumber,
+                    source,
+                    contentLength
+            );
+            fileMetrics.recordBytesIn(contentLength);
+            return new UploadPartResponse(partNumber, etag, contentLength);
+        } catch (Exception e) {
+            log.error("Failed to upload part {} of session {}: {}", partNumber, sessionId, e.getMessage());
+            throw new RuntimeException("파트 업로드에 실패했습니다.", e);
+        }
+    }
+
+    public List<UploadPartResponse> getParts(String sessionId, String uploadedBy) {
+        UploadSession session = getSession(sessionId, uploadedBy);
+        return listParts(session).stream()
+                .map(part -> new UploadPartResponse(part.partNumber(), part.etag(), part.partSize()))
+                .collect(Collectors.toList());
+    }
+
+    public FileResponse complete(String sessionId, String uploadedBy) {
+        UploadSession session = getSession(sessionId, uploadedBy);
+        List<Part> parts = listParts(session);
+
+        if (parts.isEmpty()) {
+            throw new IllegalArgumentException("업로드된 파트가 없습니다.");
+        }
+        for (int i = 0; i < parts.size(); i++) {
+            Part part = parts.get(i);
+            if (part.partNumber() != i + 1) {
+                throw new IllegalArgumentException("누락된 파트가 있습니다: " + (i + 1));
+            }
+            // 마지막 파트를 뺀 나머지가 최소 크기보다 작으면 MinIO가 조립을 거절한다(EntityTooSmall).
+            if (i < parts.size() - 1 && part.partSize() < MIN_PART_SIZE) {
+                throw new IllegalArgumentException("마지막 파트를 제외한 파트는 " + (MIN_PART_SIZE / 1024 / 1024) + "MB 이상이어야 합니다: " + part.partNumber());
+            }
+        }
+
+        long size = parts.stream().mapToLong(Part::partSize).sum();
+        if (size > maxFileSize) {
+            if (uploadSessionRepository.claim(session.getId())) {
+                abortQuietly(session);
+            }
+            throw new IllegalArgumentException("파일 크기가 제한을 초과했습니다. (최대: " + (maxFileSize / 1024 / 1024) + "MB)");
+        }
+        // 세션은 남겨 두어, 다른 파일을 지워 공간을 만든 뒤 다시 완료할 수 있게 한다.
+        storageUsageService.checkQuota(uploadedBy, size);
+
+        // 동시에 들어온 완료 요청 중 세션을 지운 하나만 진행한다. 나머지는 세션이 없는 것으로 본다.
+        if (!uploadSessionRepository.claim(session.getId())) {
+            throw new IllegalArgumentException("업로드 세션을 찾을 수 없습니다: " + sessionId);
+        }
+
+        try {
+            Part[] completed = parts.stream()
+                    .map(part -> new Part(part.partNumber(), part.etag()))
+                    .toArray(Part[]::new);
+            multipartMinioClient.completeMultipartUpload(session.getBucket(), session.getStoredName(), session.getUploadId(), completed);
+        } catch (Exception e) {
+            log.error("Failed to complete upload session {}: {}", sessionId, e.getMessage());
+            // 멀티파트 업로드는 그대로 남아 있으므로 세션을 되돌려 다시 완료할 수 있게 한다.
+            uploadSessionRepository.save(session);
+            throw new RuntimeException("분할 업로드 완료에 실패했습니다.", e);
+        }
+
+        // 첫 파트는 완료 전에 다시 올릴 수 있으므로, 조립된 객체의 앞부분을 다시 확인한다.
+        String detected;
+        try {
+            detected = sniffStored(session, size);
+        } catch (RuntimeException e) {
+            removeQuietly(session);
+            throw e;
+        }
+
+        FileMetadata saved = fileMetadataRepository.save(FileMetadata.create(
+                session.getOriginalName(),
+                session.getStoredName(),
+                detected != null ? detected : session.getContentType(),
+                size,
+                session.getExtension(),
+                session.getUploadedBy(),
+                session.getBucket()
+        ));
+        storageUsageService.recordUpload(saved.getUploadedBy(), size);
+        fileMetrics.recordUploadSize(saved.getExtension(), size);
+        imageVariantService.pregenerate(saved);
+
+        log.info("Upload session completed: {} -> {} ({} parts, {} bytes)",
+                session.getOriginalName(), session.getStoredName(), parts.size(), size);
+        String downloadUrl = FileResponse.downloadPath(saved.getId().getValue());
+        return FileResponse.from(saved, downloadUrl);
+    }
+
+    public void abort(String sessionId, String uploadedBy) {
+        UploadSession session = getSession(sessionId, uploadedBy);
+        if (!uploadSessionRepository.claim(session.getId())) {
+            throw new IllegalArgumentException("업로드 세션을 찾을 수 없습니다: " + sessionId);
+        }
+        abortQuietly(session);
+        log.info("Upload session aborted: {}", sessionId);
+    }
+
+    /**
+     * 완료되지 않은 채 방치된 세션의 멀티파트 업로드를 정리한다.
+     * 중단된 업로드의 파트는 MinIO에 계속 남아 저장 공간을 차지하기 때문이다.
+     */
+    @Scheduled(fixedDelayString = "${file.upload.chunk.cleanup-interval:3600000}")
+    public void cleanupExpiredSessions() {
+        Instant threshold = Instant.now().minus(sessionTtl);
+        List<UploadSession> expired = uploadSessionRepository.findCreatedBefore(threshold, CLEANUP_BATCH_SIZE);
+
+        for (UploadSession session : expired) {
+            // 그 사이 완료된 세션의 업로드를 중단하지 않도록 선점한 것만 정리한다.
+            if (uploadSessionRepository.claim(session.getId())) {
+                abortQuietly(session);
+            }
+        }
+
+        if (!expired.isEmpty()) {
+            log.info("Expired upload sessions cleaned up: {}", expired.size());
+        }
+    }
+
+    private UploadSession getSession(String sessionId, String uploadedBy) {
+        return uploadSessionRepository.findById(UploadSessionId.of(sessionId))
+                .filter(session -> session.isOwnedBy(uploadedBy))
+                .orElseThrow(() -> new IllegalArgumentException("업로드 세션을 찾을 수 없습니다: " + sessionId));
+    }
+
+    private List<Part> listParts(UploadSession session) {
+        try {
+            return multipartMinioClient.listParts(session.getBucket(), session.getStoredName(), session.getUploadId()).stream()
+                    .sorted(Comparator.comparingInt(Part::partNumber))
+                    .collect(Collectors.toList());
+        } catch (Exception e) {
+            log.error("Failed to list parts of session {}: {}", session.getId().getValue(), e.getMessage());
+            throw new RuntimeException("파트 목록 조회에 실패했습니다.", e);
+        }
+    }
+
+    private InputStream sniffFirstPart(InputStream inputStream, UploadSession session) {
+        try {
+            return contentSniffer.sniff(inputStream, session.getExtension()).inputStream();
+        } catch (IOException e) {
+            log.error("Failed to read first part of session {}: {}", session.getId().getValue(), e.getMessage());
+            throw new RuntimeException("파트 업로드에 실패했습니다.", e);
+        }
+    }
+
+    /**
+     * 조립된 객체의 앞부분만 범위 요청으로 읽어 형식을 확인한다.
+     */
+    private String sniffStored(UploadSession session, long size) {
+        byte[] head;
+        try (InputStream inputStream = objectStorage.get(session.getBucket(), session.getStoredName(), 0, ContentSniffer.SNIFF_LENGTH)) {
+            head = inputStream.readNBytes(ContentSniffer.SNIFF_LENGTH);
+        } catch (IOException e) {
+            log.error("Failed to read completed upload {}: {}", session.getStoredName(), e.getMessage());
+            throw new RuntimeException("업로드 확인에 실패했습니다.", e);
+        }
+        return contentSniffer.detect(head, head.length >= size, session.getExtension());
+    }
+
+    private void removeQuietly(UploadSession session) {
+        try {
+            objectStorage.remove(session.getBucket(), session.getStoredName());
+        } catch (Exception e) {
+            log.warn("Failed to remove object {}: {}", session.getStoredName(), e.getMessage());
+        }
+    }
+
+    private void abortQuietly(UploadSession session) {
+        try {
+            multipartMinioClient.abortMultipartUpload(session.getBucket(), session.getStoredName(), session.getUploadId());
+        } catch (Exception e) {
+            log.warn("Failed to abort multipart upload {}: {}", session.getUploadId(), e.getMessage());
+        }
+    }
+}
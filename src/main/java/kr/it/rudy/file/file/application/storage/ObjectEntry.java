@@ -0,0 +1,13 @@
+package kr.it.rudy.file.file.application.storage;
+
+import java.time.Instant;
+
+/**
+ * 목록 조회로 얻은 객체 하나.
+ */
+public record ObjectEntry(
+        String name,
+        long size,
+        Instant lastModified
+) {
+}
@@ -0,0 +1,7 @@
+package kr.it.rudy.file.file.application.storage;
+
+public record ObjectStat(
+        long size,
+        String contentType
+) {
+}
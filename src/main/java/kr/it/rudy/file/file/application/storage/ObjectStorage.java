@@ -0,0 +1,82 @@
+package kr.it.rudy.file.file.application.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * 파일 객체를 저장하는 저장소. MinIO(S3)와 로컬 파일 시스템 구현이 있으며 {@code file.storage.type}으로 고른다.
+ * 없는 객체를 읽으면 {@link java.nio.file.NoSuchFileException}이 발생한다.
+ */
+public interface ObjectStorage {
+
+    /**
+     * 버킷이 없으면 만든다.
+     */
+    void createBucketIfAbsent(String bucket) throws IOException;
+
+    /**
+     * 스트림을 객체로 저장한다. {@code size}가 음수면 크기를 모르는 것으로 보고 끝까지 읽는다.
+     * 저장이 끝나기 전에는 같은 이름으로 읽을 수 없으며, 실패하면 아무것도 남지 않는다.
+     */
+    void put(String bucket, String name, InputStream inputStream, long size, String contentType, String contentEncoding) throws IOException;
+
+    /**
+     * 객체의 구간을 연다. {@code length}가 음수면 끝까지 읽는다.
+     */
+    InputStream get(String bucket, String name, long offset, long length) throws IOException;
+
+    /**
+     * 객체의 구간을 {@code out}으로 보내고 보낸 바이트 수를 돌려준다. 로컬 구현은 커널 수준 복사를 쓴다.
+     */
+    default long transferTo(String bucket, String name, OutputStream out, long offset, long length) throws IOException {
+        try (InputStream inputStream = get(bucket, name, offset, length)) {
+            return inputStream.transferTo(out);
+        }
+    }
+
+    /**
+     * 객체가 이 프로세스의 로컬 디스크에 있는지 여부. 로컬이면 디스크 캐시를 거칠 이유가 없다.
+     */
+    default boolean isLocal() {
+        return false;
+    }
+
+    Optional<ObjectStat> stat(String bucket, String name) throws IOException;
+
+    /**
+     * 버킷의 모든 객체를 이름의 UTF-8 바이트 순(S3 목록 순서)으로 흘려보낸다.
+     * 읽는 도중의 실패는 {@link java.io.UncheckedIOException}으로 알린다. 사용 후 닫아야 한다.
+     */
+    Stream<ObjectEntry> list(String bucket) throws IOException;
+
+    /**
+     * 같은 버킷 안에서 객체를 복사한다.
+     */
+    void copy(String bucket, String source, String target) throws IOException;
+
+    /**
+     * 객체를 지운다. 이미 없는 객체를 지워도 성공한다.
+     */
+    void remove(String bucket, String name) throws IOException;
+
+    /**
+     * 여러 객체를 지우고, 실패한 객체 이름과 사유를 돌려준다. 요청 자체가 실패하면 예외가 발생한다.
+     */
+    Map<String, String> removeAll(String bucket, Collection<String> names) throws IOException;
+
+    /**
+     * 클라이언트가 저장소에 직접 접근할 서명된 URL을 만든다. 지원하지 않는 구현은
+     * {@link UnsupportedOperationException}을 던진다. 만료 시간은 초 단위로 내려 맞춘다.
+     */
+    String presign(String bucket, String name, PresignMethod method, Duration expiry) throws IOException;
+
+    enum PresignMethod {
+        GET, PUT
+    }
+}
@@ -0,0 +1,32 @@
+package kr.it.rudy.file.file.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * (createdDt, id) 키셋 페이지네이션 커서. 클라이언트에는 불투명한 문자열로 전달한다.
+ */
+public record FileCursor(Instant createdDt, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static FileCursor of(FileSummary last) {
+        return new FileCursor(last.createdDt(), last.id());
+    }
+
+    public static FileCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            return new FileCursor(Instant.parse(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + value);
+        }
+    }
+
+    public String encode() {
+        String raw = createdDt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
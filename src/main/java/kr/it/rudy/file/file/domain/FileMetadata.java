@@ -20,6 +20,10 @@ public class FileMetadata {
     private String extension;
     private String uploadedBy;
     private String bucket;
+    private FileStatus status;
+    private String contentEncoding;
+    private Long storedSize;
+    private Instant expiresAt;
     private Instant createdDt;
     private Instant updatedDt;
 
@@ -41,6 +45,41 @@ public class FileMetadata {
                 extension,
                 uploadedBy,
                 bucket,
+                FileStatus.ACTIVE,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+    }
+
+    /**
+     * 객체 전송 전에 기록하는 PENDING 메타데이터. 전송이 끝나면 {@link #activate(long)}로 실제 크기를 채운다.
+     * {@code size}는 클라이언트가 밝힌 크기이며, 알 수 없으면 0이다.
+     */
+    public static FileMetadata pending(
+            String originalName,
+            String storedName,
+            String contentType,
+            long size,
+            String extension,
+            String uploadedBy,
+            String bucket
+    ) {
+        return new FileMetadata(
+                FileId.generate(),
+                originalName,
+                storedName,
+                contentType,
+                size,
+                extension,
+                uploadedBy,
+                bucket,
+                FileStatus.PENDING,
+                null,
+                null,
+                null,
                 null,
                 null
         );
@@ -55,6 +94,10 @@ public class FileMetadata {
             String extension,
             String uploadedBy,
             String bucket,
+            FileStatus status,
+            String contentEncoding,
+            Long storedSize,
+            Instant expiresAt,
             Instant createdDt,
             Instant updatedDt
     ) {
@@ -67,8 +110,98 @@ public class FileMetadata {
                 extension,
                 uploadedBy,
                 bucket,
+                status,
+                contentEncoding,
+                storedSize,
+                expiresAt,
                 createdDt,
                 updatedDt
         );
     }
+
+    /**
+     * 같은 값을 가진 새 인스턴스. 캐시가 보관하는 인스턴스를 호출자가 바꾸지 못하도록 캐시에 넣고 꺼낼 때 복사한다.
+     */
+    public FileMetadata copy() {
+        return new FileMetadata(
+                id,
+                originalName,
+                storedName,
+                contentType,
+                size,
+                extension,
+                uploadedBy,
+                bucket,
+                status,
+                contentEncoding,
+                storedSize,
+                expiresAt,
+                createdDt,
+                updatedDt
+        );
+    }
+
+    public void activate(long size) {
+        this.size = size;
+        this.status = FileStatus.ACTIVE;
+    }
+
+    /**
+     * 내용으로 감지한 타입으로 바꾼다. 클라이언트가 밝힌 타입보다 감지한 타입을 믿는다.
+     */
+    public void detectContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * 전송을 마친 객체가 다른 키로 옮겨졌을 때 저장 위치를 바꾼다. 중복 제거 모드에서 내용 키로 옮길 때 쓴다.
+     */
+    public void relocate(String storedName) {
+        this.storedName = storedName;
+    }
+
+    /**
+     * 객체가 압축되어 저장되었음을 기록한다. {@code size}는 원본 크기, {@code storedSize}는 저장된 바이트 수다.
+     */
+    public void markEncoded(String contentEncoding, long storedSize) {
+        this.contentEncoding = contentEncoding;
+        this.storedSize = storedSize;
+    }
+
+    /**
+     * {@code expiresAt}이 지나면 조회되지 않으며, {@code FileExpirationSweeper}가 객체와 함께 지운다. null이면 만료되지 않는다.
+     */
+    public void expireAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    public boolean isEncoded() {
+        return contentEncoding != null;
+    }
+
+    /**
+     * MinIO에 저장된 객체의 바이트 수. 압축하지 않았으면 원본 크기와 같다.
+     */
+    public long getStoredLength() {
+        return storedSize != null ? storedSize : size;
+    }
+
+    public boolean isOwnedBy(String userId) {
+        return uploadedBy.equals(userId);
+    }
+
+    public boolean isActive() {
+        return status == FileStatus.ACTIVE;
+    }
+
+    /**
+     * 활성화되었고 아직 만료되지 않아 조회할 수 있는 파일인지 확인한다.
+     */
+    public boolean isAvailable() {
+        return isActive() && !isExpired(Instant.now());
+    }
 }
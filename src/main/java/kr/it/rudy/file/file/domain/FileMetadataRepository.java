@@ -1,7 +1,10 @@
 package kr.it.rudy.file.file.domain;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface FileMetadataRepository {
 
@@ -9,11 +12,52 @@ public interface FileMetadataRepository {
 
     Optional<FileMetadata> findById(FileId id);
 
-    List<FileMetadata> findByUploadedBy(String uploadedBy);
-
-    List<FileMetadata> findAll();
+    /**
+     * 한 번의 IN 조회로 여러 메타데이터를 가져온다. 없는 ID는 결과에서 빠지며 순서는 보장하지 않는다.
+     */
+    List<FileMetadata> findAllById(Collection<FileId> ids);
+
+    /**
+     * 최신순 키셋 페이지를 조회한다. {@code uploadedBy}가 null이면 전체, {@code cursor}가 null이면 첫 페이지다.
+     */
+    List<FileSummary> findPage(String uploadedBy, FileCursor cursor, int limit);
+
+    /**
+     * 최신순으로 전체 목록을 JDBC 커서로 흘려보낸다. 트랜잭션 안에서 호출하고 사용 후 닫아야 한다.
+     */
+    Stream<FileSummary> streamAll(String uploadedBy);
+
+    /**
+     * 조건에 맞는 ACTIVE 파일을 {@link FileSearchCondition#sort()} 순서의 키셋 페이지로 조회한다.
+     * {@code cursor}가 null이면 첫 페이지다.
+     */
+    List<FileSummary> search(FileSearchCondition condition, FileSearchCursor cursor, int limit);
+
+    /**
+     * {@code threshold} 이전에 만들어진 채 PENDING으로 남은 메타데이터를 오래된 순으로 조회한다.
+     */
+    List<FileMetadata> findPendingCreatedBefore(Instant threshold, int limit);
+
+    /**
+     * 버킷의 메타데이터를 (저장 이름의 UTF-8 바이트 순, id) 키셋 페이지로 조회한다. 저장소 목록과 같은 순서다.
+     * {@code after}가 null이면 첫 페이지이며, {@code createdBefore} 이전에 만들어진 행은 {@link StoredNameReference#settled()}가 true다.
+     */
+    List<StoredNameReference> findStoredNames(String bucket, StoredNameReference after, Instant createdBefore, int limit);
+
+    /**
+     * {@code threshold} 이전에 만료된 ACTIVE 메타데이터를 (expiresAt, id) 순으로 조회한다.
+     * {@code after}가 있으면 그 행 다음부터 읽는다.
+     */
+    List<FileMetadata> findExpiredBefore(Instant threshold, FileMetadata after, int limit);
+
+    long countExpiredBefore(Instant threshold);
 
     void delete(FileId id);
 
+    /**
+     * 한 번의 DELETE ... WHERE id IN (...)으로 여러 메타데이터를 지운다.
+     */
+    void deleteAllById(Collection<FileId> ids);
+
     boolean existsById(FileId id);
 }
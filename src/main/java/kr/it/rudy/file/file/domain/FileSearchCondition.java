@@ -0,0 +1,23 @@
+package kr.it.rudy.file.file.domain;
+
+import java.time.Instant;
+
+/**
+ * 메타데이터 검색 조건. null인 조건은 적용하지 않는다.
+ * {@code name}은 대소문자를 구분하지 않으며 {@code prefix}이면 접두 일치, 아니면 부분 일치다.
+ * {@code contentType}이 {@code image/*}처럼 끝나면 주 타입으로 찾는다.
+ * 크기와 생성 시각 범위는 하한을 포함하고, 생성 시각 상한은 포함하지 않는다.
+ */
+public record FileSearchCondition(
+        String uploadedBy,
+        String name,
+        boolean prefix,
+        String extension,
+        String contentType,
+        Long minSize,
+        Long maxSize,
+        Instant createdFrom,
+        Instant createdTo,
+        FileSearchSort sort
+) {
+}
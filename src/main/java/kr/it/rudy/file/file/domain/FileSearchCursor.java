@@ -0,0 +1,47 @@
+package kr.it.rudy.file.file.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * 검색 키셋 페이지네이션 커서. 정렬, 마지막 행의 정렬 키 값과 id를 담는다.
+ * 다른 정렬로 만든 커서는 받지 않는다.
+ */
+public record FileSearchCursor(FileSearchSort sort, String key, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static FileSearchCursor of(FileSearchSort sort, FileSummary last) {
+        return new FileSearchCursor(sort, sort.keyOf(last), last.id());
+    }
+
+    public static FileSearchCursor decode(String value, FileSearchSort sort) {
+        FileSearchCursor cursor;
+        try {
+            // 이름에는 구분자가 들어갈 수 있으므로 키를 맨 뒤에 둔다.
+            String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split("\\|", 3);
+            cursor = new FileSearchCursor(FileSearchSort.valueOf(parts[0]), parts[2], parts[1]);
+            validateKey(cursor.sort(), cursor.key());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + value);
+        }
+        if (cursor.sort() != sort) {
+            throw new IllegalArgumentException("커서의 정렬이 요청한 정렬과 다릅니다: " + value);
+        }
+        return cursor;
+    }
+
+    private static void validateKey(FileSearchSort sort, String key) {
+        if (sort == FileSearchSort.LATEST || sort == FileSearchSort.OLDEST) {
+            Instant.parse(key);
+        } else if (sort == FileSearchSort.LARGEST || sort == FileSearchSort.SMALLEST) {
+            Long.parseLong(key);
+        }
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + id + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
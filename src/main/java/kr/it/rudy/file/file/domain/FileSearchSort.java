@@ -0,0 +1,42 @@
+package kr.it.rudy.file.file.domain;
+
+import java.util.Locale;
+
+/**
+ * 검색 결과 정렬. 모든 정렬은 같은 키 안에서 id로 한 번 더 정렬해 키셋 페이지네이션의 순서를 고정한다.
+ * 이름순은 대소문자를 구분하지 않는다.
+ */
+public enum FileSearchSort {
+    LATEST,
+    OLDEST,
+    LARGEST,
+    SMALLEST,
+    NAME,
+    NAME_DESC;
+
+    public static FileSearchSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return LATEST;
+        }
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("지원하지 않는 정렬입니다: " + value);
+        }
+    }
+
+    public boolean isDescending() {
+        return this == LATEST || this == LARGEST || this == NAME_DESC;
+    }
+
+    /**
+     * 정렬 키 값을 커서에 담을 문자열로 꺼낸다.
+     */
+    public String keyOf(FileSummary summary) {
+        return switch (this) {
+            case LATEST, OLDEST -> summary.createdDt().toString();
+            case LARGEST, SMALLEST -> summary.size().toString();
+            case NAME, NAME_DESC -> summary.originalName();
+        };
+    }
+}
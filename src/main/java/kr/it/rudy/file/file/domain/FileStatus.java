@@ -0,0 +1,9 @@
+package kr.it.rudy.file.file.domain;
+
+public enum FileStatus {
+    /**
+     * 메타데이터만 기록되고 객체 전송이 아직 끝나지 않은 상태. 조회 대상에서 제외된다.
+     */
+    PENDING,
+    ACTIVE
+}
@@ -0,0 +1,18 @@
+package kr.it.rudy.file.file.domain;
+
+import java.time.Instant;
+
+/**
+ * 목록 조회용 메타데이터 프로젝션. 엔티티를 만들지 않고 필요한 컬럼만 읽는다.
+ */
+public record FileSummary(
+        String id,
+        String originalName,
+        String contentType,
+        Long size,
+        String extension,
+        String uploadedBy,
+        Instant createdDt,
+        Instant expiresAt
+) {
+}
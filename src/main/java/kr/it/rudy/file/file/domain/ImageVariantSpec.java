@@ -0,0 +1,41 @@
+package kr.it.rudy.file.file.domain;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 이미지 파생본 규격. 경로 표기는 {@code w{width}[-q{quality}].{jpg|png}}이며, 품질은 JPEG에만 의미가 있다.
+ */
+public record ImageVariantSpec(int width, int quality, String format) {
+
+    private static final Pattern PATTERN = Pattern.compile("^w(\\d{1,5})(?:-q(\\d{1,3}))?\\.(jpg|png)$");
+
+    public static ImageVariantSpec parse(String value, int defaultQuality) {
+        Matcher matcher = PATTERN.matcher(value == null ? "" : value);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("잘못된 이미지 규격입니다: " + value);
+        }
+        String format = matcher.group(3);
+        int quality = "jpg".equals(format) && matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : defaultQuality;
+        return new ImageVariantSpec(Integer.parseInt(matcher.group(1)), quality, format);
+    }
+
+    public boolean isJpeg() {
+        return "jpg".equals(format);
+    }
+
+    public String contentType() {
+        return isJpeg() ? "image/jpeg" : "image/png";
+    }
+
+    /**
+     * 같은 결과를 내는 표기가 같은 객체를 가리키도록 정규화한 이름. PNG는 품질을 붙이지 않는다.
+     */
+    public String canonical() {
+        return isJpeg() ? "w" + width + "-q" + quality + ".jpg" : "w" + width + ".png";
+    }
+
+    public String objectName(FileId fileId) {
+        return "variants/" + fileId.getValue() + "/" + canonical();
+    }
+}
@@ -0,0 +1,18 @@
+package kr.it.rudy.file.file.domain;
+
+/**
+ * 사용자별 저장 사용량. {@code bytes}는 ACTIVE 파일의 원본 크기 합이다.
+ */
+public record StorageUsage(
+        String uploadedBy,
+        long bytes,
+        long files
+) {
+    public static StorageUsage empty(String uploadedBy) {
+        return new StorageUsage(uploadedBy, 0, 0);
+    }
+
+    public StorageUsage plus(long bytes, long files) {
+        return new StorageUsage(uploadedBy, this.bytes + bytes, this.files + files);
+    }
+}
@@ -0,0 +1,30 @@
+package kr.it.rudy.file.file.domain;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface StorageUsageRepository {
+
+    Optional<StorageUsage> findByUploadedBy(String uploadedBy);
+
+    /**
+     * 사용량에 증감을 더한다. 행이 없으면 만든다.
+     */
+    void add(String uploadedBy, long bytes, long files);
+
+    /**
+     * DB 시각. 사용량 행의 갱신 시각과 같은 시계로 비교할 때 쓴다.
+     */
+    Instant currentTime();
+
+    /**
+     * 저장된 사용량이 file_metadata 집계와 다른 사용자를 찾아 집계 값으로 돌려준다.
+     */
+    List<StorageUsage> findDrifted();
+
+    /**
+     * {@code since} 이후 갱신되지 않은 행만 {@code usage}로 덮어쓰고(없으면 만들고), 덮어썼는지 돌려준다.
+     */
+    boolean overwriteIfUnchangedSince(StorageUsage usage, Instant since);
+}
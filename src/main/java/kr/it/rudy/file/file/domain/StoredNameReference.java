@@ -0,0 +1,13 @@
+package kr.it.rudy.file.file.domain;
+
+/**
+ * 저장소 정합성 검사용 프로젝션. 메타데이터가 가리키는 객체 이름과 상태만 읽는다.
+ * {@code settled}는 기준 시각 이전에 만들어져 유예 기간이 지난 행인지를 나타낸다.
+ */
+public record StoredNameReference(
+        FileId id,
+        String storedName,
+        FileStatus status,
+        boolean settled
+) {
+}
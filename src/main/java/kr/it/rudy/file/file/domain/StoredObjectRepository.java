@@ -0,0 +1,22 @@
+package kr.it.rudy.file.file.domain;
+
+import java.util.Optional;
+
+/**
+ * 내용 주소 방식으로 저장된 객체의 참조 수를 관리한다. 여러 메타데이터가 같은 객체를 가리킬 수 있다.
+ */
+public interface StoredObjectRepository {
+
+    /**
+     * 참조를 하나 늘리고 늘어난 참조 수를 돌려준다. 처음 참조하는 객체면 1이다.
+     */
+    long acquire(String bucket, String storedName, long size);
+
+    /**
+     * 참조를 {@code count}만큼 줄이고 남은 참조 수를 돌려준다. 추적하지 않는 객체면 비어 있다.
+     * 갱신한 행은 트랜잭션이 끝날 때까지 잠기므로, 같은 트랜잭션 안에서 객체를 지우는 동안 새 참조가 끼어들지 못한다.
+     */
+    Optional<Long> release(String bucket, String storedName, int count);
+
+    void deleteIfUnreferenced(String bucket, String storedName);
+}
@@ -0,0 +1,78 @@
+package kr.it.rudy.file.file.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 진행 중인 분할 업로드 세션. 파트 목록은 MinIO 멀티파트 업로드가 보관하므로
+ * 세션은 업로드 식별자와 완료 시 메타데이터를 만드는 데 필요한 정보만 가진다.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class UploadSession {
+
+    private UploadSessionId id;
+    private String uploadId;
+    private String bucket;
+    private String storedName;
+    private String originalName;
+    private String contentType;
+    private String extension;
+    private String uploadedBy;
+    private Instant createdDt;
+
+    public static UploadSession create(
+            String uploadId,
+            String bucket,
+            String storedName,
+            String originalName,
+            String contentType,
+            String extension,
+            String uploadedBy
+    ) {
+        return new UploadSession(
+                UploadSessionId.generate(),
+                uploadId,
+                bucket,
+                storedName,
+                originalName,
+                contentType,
+                extension,
+                uploadedBy,
+                null
+        );
+    }
+
+    public static UploadSession reconstitute(
+            UploadSessionId id,
+            String uploadId,
+            String bucket,
+            String storedName,
+            String originalName,
+            String contentType,
+            String extension,
+            String uploadedBy,
+            Instant createdDt
+    ) {
+        return new UploadSession(
+                id,
+                uploadId,
+                bucket,
+                storedName,
+                originalName,
+                contentType,
+                extension,
+                uploadedBy,
+                createdDt
+        );
+    }
+
+    public boolean isOwnedBy(String userId) {
+        return uploadedBy.equals(userId);
+    }
+}
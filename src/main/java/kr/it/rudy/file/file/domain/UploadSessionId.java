@@ -0,0 +1,18 @@
+package kr.it.rudy.file.file.domain;
+
+import java.util.UUID;
+
+public record UploadSessionId(String value) {
+
+    public static UploadSessionId generate() {
+        return new UploadSessionId(UUID.randomUUID().toString());
+    }
+
+    public static UploadSessionId of(String value) {
+        return new UploadSessionId(value);
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,22 @@
+package kr.it.rudy.file.file.domain;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface UploadSessionRepository {
+
+    UploadSession save(UploadSession uploadSession);
+
+    Optional<UploadSession> findById(UploadSessionId id);
+
+    List<UploadSession> findCreatedBefore(Instant threshold, int limit);
+
+    void delete(UploadSessionId id);
+
+    /**
+     * 세션을 지우고, 이 호출이 지웠으면 {@code true}를 돌려준다. 완료/중단/정리가 같은 세션을 동시에 처리하지 않도록
+     * 먼저 선점하는 데 쓴다.
+     */
+    boolean claim(UploadSessionId id);
+}
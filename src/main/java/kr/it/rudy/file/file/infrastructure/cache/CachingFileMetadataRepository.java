@@ -0,0 +1,179 @@
+package kr.it.rudy.file.file.infrastructure.cache;
+
+import kr.it.rudy.file.file.domain.FileCursor;
+import kr.it.rudy.file.file.domain.FileId;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileMetadataRepository;
+import kr.it.rudy.file.file.domain.FileSearchCondition;
+import kr.it.rudy.file.file.domain.FileSearchCursor;
+import kr.it.rudy.file.file.domain.FileSummary;
+import kr.it.rudy.file.file.domain.StoredNameReference;
+import kr.it.rudy.file.file.infrastructure.persistence.FileMetadataRepositoryImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link FileMetadataRepositoryImpl} 앞에 놓이는 read-through 캐시 데코레이터.
+ * 업로드 이후 메타데이터는 사실상 바뀌지 않으므로 단건 조회만 캐시하고, 쓰기/삭제 시 무효화한다.
+ * 아직 바뀔 수 있는 PENDING 행과 쓰기 트랜잭션 안에서 읽은 커밋 전 값은 캐시에 올리지 않는다.
+ */
+@Primary
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "file.metadata-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingFileMetadataRepository implements FileMetadataRepository {
+
+    private final FileMetadataRepositoryImpl delegate;
+    private final FileMetadataCache cache;
+    private final Map<FileId, CompletableFuture<Optional<FileMetadata>>> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public FileMetadata save(FileMetadata fileMetadata) {
+        FileMetadata saved = delegate.save(fileMetadata);
+        cache.evict(saved.getId());
+        return saved;
+    }
+
+    /**
+     * 캐시 미스일 때 같은 ID의 동시 조회는 DB 조회 하나를 함께 기다린다. 기다린 쪽은 각자 복사본을 받는다.
+     * 쓰기 트랜잭션 안에서는 아직 커밋되지 않은 자기 변경을 봐야 하므로 합치지도 채우지도 않는다.
+     */
+    @Override
+    public Optional<FileMetadata> findById(FileId id) {
+        Optional<FileMetadata> cached = cache.get(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return delegate.findById(id);
+        }
+
+        CompletableFuture<Optional<FileMetadata>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<FileMetadata>> existing = inFlight.putIfAbsent(id, created);
+        if (existing != null) {
+            return await(existing).map(FileMetadata::copy);
+        }
+
+        try {
+            Optional<FileMetadata> loaded = load(id);
+            created.complete(loaded);
+            return loaded.map(FileMetadata::copy);
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, created);
+        }
+    }
+
+    /**
+     * 로컬 캐시에 있는 항목은 그대로 쓰고, 나머지만 IN 조회 한 번으로 읽어 로컬 캐시에 채운다.
+     */
+    @Override
+    public List<FileMetadata> findAllById(Collection<FileId> ids) {
+        Map<FileId, FileMetadata> cached = cache.getAllLocal(ids);
+        List<FileMetadata> result = new ArrayList<>(cached.values());
+
+        List<FileId> misses = ids.stream()
+                .filter(id -> !cached.containsKey(id))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!misses.isEmpty()) {
+            Map<FileId, Long> tickets = misses.stream()
+                    .collect(Collectors.toMap(Function.identity(), cache::ticket));
+            List<FileMetadata> loaded = delegate.findAllById(misses);
+            loaded.stream()
+                    .filter(FileMetadata::isActive)
+                    .forEach(metadata -> cache.putLocal(metadata, tickets.get(metadata.getId())));
+            result.addAll(loaded);
+        }
+        return result;
+    }
+
+    private Optional<FileMetadata> load(FileId id) {
+        long ticket = cache.ticket(id);
+        Optional<FileMetadata> loaded = delegate.findById(id);
+        loaded.filter(FileMetadata::isActive).ifPresent(metadata -> cache.put(metadata, ticket));
+        return loaded;
+    }
+
+    private Optional<FileMetadata> await(CompletableFuture<Optional<FileMetadata>> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public List<FileSummary> findPage(String uploadedBy, FileCursor cursor, int limit) {
+        return delegate.findPage(uploadedBy, cursor, limit);
+    }
+
+    @Override
+    public Stream<FileSummary> streamAll(String uploadedBy) {
+        return delegate.streamAll(uploadedBy);
+    }
+
+    @Override
+    public List<StoredNameReference> findStoredNames(String bucket, StoredNameReference after, Instant createdBefore, int limit) {
+        return delegate.findStoredNames(bucket, after, createdBefore, limit);
+    }
+
+    @Override
+    public List<FileMetadata> findExpiredBefore(Instant threshold, FileMetadata after, int limit) {
+        return delegate.findExpiredBefore(threshold, after, limit);
+    }
+
+    @Override
+    public long countExpiredBefore(Instant threshold) {
+        return delegate.countExpiredBefore(threshold);
+    }
+
+    @Override
+    public List<FileSummary> search(FileSearchCondition condition, FileSearchCursor cursor, int limit) {
+        return delegate.search(condition, cursor, limit);
+    }
+
+    @Override
+    public List<FileMetadata> findPendingCreatedBefore(Instant threshold, int limit) {
+        return delegate.findPendingCreatedBefore(threshold, limit);
+    }
+
+    @Override
+    public void delete(FileId id) {
+        delegate.delete(id);
+        cache.evict(id);
+    }
+
+    @Override
+    public void deleteAllById(Collection<FileId> ids) {
+        delegate.deleteAllById(ids);
+        cache.evictAll(ids);
+    }
+
+    @Override
+    public boolean existsById(FileId id) {
+        return delegate.existsById(id);
+    }
+}
@@ -0,0 +1,301 @@
+package kr.it.rudy.file.file.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import kr.it.rudy.file.file.domain.FileId;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * 파일 메타데이터 2단계 캐시. 1단계는 노드 로컬 Caffeine 캐시(W-TinyLFU, 크기/TTL 제한),
+ * 2단계는 노드 간에 공유하는 Redis 해시다. 무효화는 Redis pub/sub으로 모든 노드의 로컬 캐시에 전파한다.
+ * Redis 장애는 캐시 미스로 취급해 DB 조회로 넘어간다.
+ * 도메인 객체는 바뀔 수 있으므로 넣고 꺼낼 때마다 복사해, 호출자가 고친 값이 커밋 전에 다른 요청에 보이지 않게 한다.
+ * 무효화 전에 DB에서 읽은 옛 값이 무효화 뒤에 다시 채워지지 않도록, 조회 전에 받은 세대({@link #ticket})가
+ * 그 사이 바뀌었으면 채우지 않는다. 세대는 ID 해시로 나눈 줄무늬 단위라 메모리가 늘지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "file.metadata-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class FileMetadataCache {
+
+    public static final String INVALIDATION_CHANNEL = "file:metadata:invalidate";
+    public static final String INVALIDATION_SEPARATOR = ",";
+    private static final String KEY_PREFIX = "file:metadata:";
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<FileId, FileMetadata> local;
+    private final StringRedisTemplate redisTemplate;
+    private final boolean redisEnabled;
+    private final Duration redisTtl;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public FileMetadataCache(
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${file.metadata-cache.local.maximum-size:100000}") long localMaximumSize,
+            @Value("${file.metadata-cache.local.ttl:10m}") Duration localTtl,
+            @Value("${file.metadata-cache.redis-enabled:true}") boolean redisEnabled,
+            @Value("${file.metadata-cache.redis.ttl:1h}") Duration redisTtl
+    ) {
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        this.redisTemplate = redisTemplate;
+        this.redisEnabled = redisEnabled;
+        this.redisTtl = redisTtl;
+        this.redisHits = Counter.builder("file.metadata.cache.redis")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.redisMisses = Counter.builder("file.metadata.cache.redis")
+                .tag("result", "miss")
+                .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "file.metadata.local");
+    }
+
+    public Optional<FileMetadata> get(FileId id) {
+        FileMetadata cached = local.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached.copy());
+        }
+        if (!redisEnabled) {
+            return Optional.empty();
+        }
+
+        long ticket = ticket(id);
+        Optional<FileMetadata> shared = readRedis(id);
+        if (shared.isPresent()) {
+            redisHits.increment();
+            putLocal(shared.get(), ticket);
+        } else {
+            redisMisses.increment();
+        }
+        return shared;
+    }
+
+    /**
+     * DB에서 읽기 전에 받아 두고 {@link #put(FileMetadata, long)}에 넘긴다.
+     */
+    public long ticket(FileId id) {
+        return generations.get(stripe(id));
+    }
+
+    /**
+     * {@code ticket}을 받은 뒤 이 항목이 무효화되었으면 채우지 않는다. 쓴 뒤에 한 번 더 확인해서,
+     * 확인과 쓰기 사이에 무효화가 끼어들었으면 방금 쓴 값을 지운다.
+     */
+    public void put(FileMetadata metadata, long ticket) {
+        FileId id = metadata.getId();
+        if (ticket(id) != ticket) {
+            return;
+        }
+        local.put(id, metadata.copy());
+        if (redisEnabled) {
+            writeRedis(metadata);
+        }
+        if (ticket(id) != ticket) {
+            local.invalidate(id);
+            deleteRedis(id);
+        }
+    }
+
+    /**
+     * 로컬/공유 캐시에서 항목을 지우고 다른 노드에 무효화를 전파한다.
+     * 트랜잭션 안에서 호출되면 커밋 직후 한 번 더 지워서, 커밋 전에 다른 요청이 옛 값을 다시 채우는 경우를 막는다.
+     */
+    public void evict(FileId id) {
+        evictEverywhere(id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictEverywhere(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * 일괄 조회용. 항목마다 Redis를 왕복하지 않도록 로컬 캐시만 확인한다.
+     */
+    public Map<FileId, FileMetadata> getAllLocal(Collection<FileId> ids) {
+        Map<FileId, FileMetadata> copies = new HashMap<>();
+        local.getAllPresent(ids).forEach((id, metadata) -> copies.put(id, metadata.copy()));
+        return copies;
+    }
+
+    public void putLocal(FileMetadata metadata, long ticket) {
+        FileId id = metadata.getId();
+        if (ticket(id) != ticket) {
+            return;
+        }
+        local.put(id, metadata.copy());
+        if (ticket(id) != ticket) {
+            local.invalidate(id);
+        }
+    }
+
+    /**
+     * {@link #evict(FileId)}의 일괄 버전. Redis 키는 한 번에 지우고 무효화 메시지도 하나로 묶어 보낸다.
+     */
+    public void evictAll(Collection<FileId> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        evictAllEverywhere(ids);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAllEverywhere(ids);
+                }
+            });
+        }
+    }
+
+    public void evictLocal(FileId id) {
+        generations.incrementAndGet(stripe(id));
+        local.invalidate(id);
+    }
+
+    private void evictEverywhere(FileId id) {
+        evictLocal(id);
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            redisTemplate.delete(KEY_PREFIX + id.getValue());
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, id.getValue());
+        } catch (Exception e) {
+            log.warn("Failed to invalidate cached metadata {}: {}", id.getValue(), e.getMessage());
+        }
+    }
+
+    private void evictAllEverywhere(Collection<FileId> ids) {
+        ids.forEach(id -> generations.incrementAndGet(stripe(id)));
+        local.invalidateAll(ids);
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            List<String> values = ids.stream().map(FileId::getValue).collect(Collectors.toList());
+            redisTemplate.delete(values.stream().map(value -> KEY_PREFIX + value).collect(Collectors.toList()));
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.join(INVALIDATION_SEPARATOR, values));
+        } catch (Exception e) {
+            log.warn("Failed to invalidate {} cached metadata entries: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    private int stripe(FileId id) {
+        return Math.floorMod(id.hashCode(), GENERATION_STRIPES);
+    }
+
+    private void deleteRedis(FileId id) {
+        try {
+            redisTemplate.delete(KEY_PREFIX + id.getValue());
+        } catch (Exception e) {
+            log.warn("Failed to delete cached metadata {}: {}", id.getValue(), e.getMessage());
+        }
+    }
+
+    private Optional<FileMetadata> readRedis(FileId id) {
+        try {
+            HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+            Map<String, String> entries = hash.entries(KEY_PREFIX + id.getValue());
+            return entries.isEmpty() ? Optional.empty() : Optional.of(decode(id, entries));
+        } catch (Exception e) {
+            log.warn("Failed to read cached metadata {}: {}", id.getValue(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void writeRedis(FileMetadata metadata) {
+        String key = KEY_PREFIX + metadata.getId().getValue();
+        try {
+            HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+            hash.putAll(key, encode(metadata));
+            redisTemplate.expire(key, redisTtl);
+        } catch (Exception e) {
+            log.warn("Failed to cache metadata {}: {}", metadata.getId().getValue(), e.getMessage());
+        }
+    }
+
+    private Map<String, String> encode(FileMetadata metadata) {
+        Map<String, String> fields = new HashMap<>();
+        putIfNotNull(fields, "originalName", metadata.getOriginalName());
+        putIfNotNull(fields, "storedName", metadata.getStoredName());
+        putIfNotNull(fields, "contentType", metadata.getContentType());
+        putIfNotNull(fields, "size", metadata.getSize());
+        putIfNotNull(fields, "extension", metadata.getExtension());
+        putIfNotNull(fields, "uploadedBy", metadata.getUploadedBy());
+        putIfNotNull(fields, "bucket", metadata.getBucket());
+        putIfNotNull(fields, "status", metadata.getStatus());
+        putIfNotNull(fields, "contentEncoding", metadata.getContentEncoding());
+        putIfNotNull(fields, "storedSize", metadata.getStoredSize());
+        putIfNotNull(fields, "expiresAt", metadata.getExpiresAt());
+        putIfNotNull(fields, "createdDt", metadata.getCreatedDt());
+        putIfNotNull(fields, "updatedDt", metadata.getUpdatedDt());
+        return fields;
+    }
+
+    private FileMetadata decode(FileId id, Map<String, String> fields) {
+        return FileMetadata.reconstitute(
+                id,
+                fields.get("originalName"),
+                fields.get("storedName"),
+                fields.get("contentType"),
+                parseLong(fields.get("size")),
+                fields.get("extension"),
+                fields.get("uploadedBy"),
+                fields.get("bucket"),
+                fields.containsKey("status") ? FileStatus.valueOf(fields.get("status")) : FileStatus.ACTIVE,
+                fields.get("contentEncoding"),
+                parseLong(fields.get("storedSize")),
+                parseInstant(fields.get("expiresAt")),
+                parseInstant(fields.get("createdDt")),
+                parseInstant(fields.get("updatedDt"))
+        );
+    }
+
+    private void putIfNotNull(Map<String, String> fields, String name, Object value) {
+        if (value != null) {
+            fields.put(name, value.toString());
+        }
+    }
+
+    private Long parseLong(String value) {
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    private Instant parseInstant(String value) {
+        return value != null ? Instant.parse(value) : null;
+    }
+}
@@ -0,0 +1,528 @@
+package kr.it.rudy.file.file.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import kr.it.rudy.file.common.io.BoundedInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 자주 읽히는 객체를 노드 로컬 디스크에 보관하는 캐시. 저장된 객체는 바뀌지 않으므로 일관성 문제 없이
+ * 키({@code bucket/storedName})만으로 재사용할 수 있다. 색인은 바이트 용량으로 제한한 Caffeine(W-TinyLFU)이며,
+ * 항목이 밀려나면 파일도 지운다. 적중 시에는 {@link FileChannel#transferTo}로 힙을 거치지 않고 내보낸다.
+ * 같은 객체의 콜드 읽기는 원본 스트림 하나로 합쳐진다({@link #openShared}). 캐시를 끈 상태에서는 두 번째 독자가
+ * 붙을 때만 임시 파일에 받아 두고, 혼자 읽는 동안에는 디스크를 거치지 않는다.
+ * 색인은 메모리에만 있으므로 캐시가 켜져 있으면 기동할 때 디렉터리를 비운다.
+ */
+@Slf4j
+@Component
+public class ObjectDiskCache {
+
+    private static final int PUMP_CHUNK_SIZE = 256 * 1024;
+
+    private record Entry(Path path, long size) {
+    }
+
+    /**
+     * 원본 객체의 구간을 연다. {@code length}가 음수면 끝까지 읽는다.
+     */
+    @FunctionalInterface
+    public interface Source {
+        InputStream open(long offset, long length);
+    }
+
+    private final Cache<String, Entry> entries;
+    private final Path directory;
+    private final boolean enabled;
+    private final long maxObjectSize;
+    private final Counter bytesServed;
+    private final Counter fillFailures;
+    private final Counter coalescedReads;
+    private final Map<String, Fill> inFlight = new ConcurrentHashMap<>();
+    private final Duration stallTimeout;
+
+    public ObjectDiskCache(
+            MeterRegistry meterRegistry,
+            @Value("${file.disk-cache.enabled:false}") boolean enabled,
+            @Value("${file.disk-cache.directory:${java.io.tmpdir}/rudy-file-cache}") Path directory,
+            @Value("${file.disk-cache.max-bytes:10737418240}") long maxBytes,
+            @Value("${file.disk-cache.max-object-size:104857600}") long maxObjectSize,
+            @Value("${file.disk-cache.fill-stall-timeout:30s}") Duration stallTimeout
+    ) throws IOException {
+        this.enabled = enabled;
+        this.stallTimeout = stallTimeout;
+        this.directory = directory;
+        this.maxObjectSize = maxObjectSize;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Entry entry) -> (int) Math.min(entry.size(), Integer.MAX_VALUE))
+                .removalListener((String key, Entry entry, RemovalCause cause) -> {
+                    if (entry != null) {
+                        deleteQuietly(entry.path());
+                    }
+                })
+                .recordStats()
+                .build();
+        this.bytesServed = Counter.builder("file.disk.cache.bytes.served")
+                .description("Bytes served from the local disk cache instead of MinIO")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.fillFailures = Counter.builder("file.disk.cache.fill.failures")
+                .register(meterRegistry);
+        this.coalescedReads = Counter.builder("file.disk.cache.coalesced.reads")
+                .description("Cold reads that joined an in-flight fill instead of opening their own MinIO stream")
+                .register(meterRegistry);
+        Gauge.builder("file.disk.cache.size", entries, cache -> cache.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L))
+                        .orElse(0L))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "file.disk.cache");
+
+        if (enabled) {
+            prepareDirectory();
+        }
+    }
+
+    /**
+     * {@link #openShared}로 콜드 읽기를 합칠 수 있는 크기인지. 캐시 사용 여부와 무관하다.
+     */
+    public boolean isShareable(long size) {
+        return size > 0 && size <= maxObjectSize;
+    }
+
+    public Optional<Path> get(String bucket, String storedName) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entries.getIfPresent(key(bucket, storedName))).map(Entry::path);
+    }
+
+    /**
+     * 객체 전체를 읽는 스트림을 연다. 같은 객체를 읽는 중인 독자가 있으면 그 원본 스트림을 함께 쓴다.
+     * 원본에서 다음 바이트가 필요한 독자가 직접 받아 오고, 다른 독자를 위해 임시 파일에도 남긴다.
+     * 느린 독자는 파일에서 자기 속도로 읽으므로 빠른 독자를 막지 않는다. 늦게 붙은 독자는 임시 파일에 없는
+     * 앞부분을 구간 요청으로 따로 읽는다. 캐시가 켜져 있으면 처음부터 임시 파일에 받아 끝나면 캐시 항목으로 올린다.
+     * 마지막 독자가 닫으면 원본 스트림도 닫아 더 받지 않는다.
+     * 임시 파일을 만들지 못하면 {@link IOException}을 던지므로 호출자가 원본에서 직접 읽는다.
+     */
+    public InputStream openShared(String bucket, String storedName, long size, Source source) throws IOException {
+        String key = key(bucket, storedName);
+        while (true) {
+            Optional<Path> cached = get(bucket, storedName);
+            if (cached.isPresent()) {
+                try {
+                    return open(cached.get(), 0, -1);
+                } catch (NoSuchFileException e) {
+                    entries.invalidate(key);
+                }
+            }
+
+            Fill fill = inFlight.get(key);
+            if (fill == null) {
+                Fill created = new Fill(key, size, source);
+                if (enabled) {
+                    created.startSpool();
+                }
+                fill = inFlight.putIfAbsent(key, created);
+                if (fill == null) {
+                    return new TailingInputStream(created, 0);
+                }
+                created.discard();
+            }
+
+            InputStream joined = fill.join();
+            if (joined != null) {
+                coalescedReads.increment();
+                return joined;
+            }
+            // 방금 끝났거나 모든 독자가 떠난 채우기다. 목록에서 빼고 다시 시도한다.
+            inFlight.remove(key, fill);
+        }
+    }
+
+    /**
+     * 캐시된 파일의 구간을 커널 수준 복사로 내보낸다. {@code length}가 음수면 끝까지 보낸다.
+     * 파일이 그 사이 밀려났으면 {@link java.nio.file.NoSuchFileException}이 발생하므로 호출자가 원본으로 대신 읽는다.
+     */
+    public long transferTo(Path path, OutputStream out, long offset, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long end = length < 0 ? channel.size() : Math.min(channel.size(), offset + length);
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = offset;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, target);
+            }
+            long transferred = end - offset;
+            bytesServed.increment(transferred);
+            return transferred;
+        }
+    }
+
+    /**
+     * 캐시된 파일의 구간을 스트림으로 연다. multipart/byteranges나 압축 해제처럼 스트림이 필요한 경로에서 쓴다.
+     */
+    public InputStream open(Path path, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        long end = length < 0 ? channel.size() : Math.min(channel.size(), offset + length);
+        channel.position(offset);
+        bytesServed.increment(end - offset);
+        return new BoundedInputStream(Channels.newInputStream(channel), end - offset);
+    }
+
+    public void evict(String bucket, String storedName) {
+        entries.invalidate(key(bucket, storedName));
+    }
+
+    private String key(String bucket, String storedName) {
+        return bucket + "/" + storedName;
+    }
+
+    private void prepareDirectory() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(this::deleteQuietly);
+        }
+    }
+
+    private void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.warn("Failed to close cache stream: {}", e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached file {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * 진행 중인 콜드 읽기 하나. 원본 스트림은 한 번에 한 독자만 읽으며({@code pumpLock}),
+     * 임시 파일이 있으면 받은 바이트를 {@code written} 위치에 이어 쓴다. 임시 파일은 {@code spoolStart}부터의 바이트만 가진다.
+     * 원본을 읽는 독자를 {@code stallTimeout}보다 오래 기다리면 실패한다.
+     * 가상 스레드를 고정하지 않도록 {@code synchronized} 대신 {@link ReentrantLock}을 쓴다.
+     */
+    private class Fill {
+
+        private final String key;
+        private final long size;
+        private final Source source;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ReentrantLock pumpLock = new ReentrantLock();
+        private InputStream input;
+        private Path spool;
+        private FileChannel channel;
+        private long spoolStart;
+        private long written;
+        private int readers = 1;
+        private boolean closed;
+        private boolean published;
+        private IOException failure;
+
+        Fill(String key, long size, Source source) {
+            this.key = key;
+            this.size = size;
+            this.source = source;
+        }
+
+        /**
+         * 지금까지 받은 바이트 뒤부터 임시 파일에 남기기 시작한다. 호출자가 {@code lock}을 잡고 있거나 아직 공유되기 전이어야 한다.
+         */
+        void startSpool() throws IOException {
+            if (!enabled) {
+                Files.createDirectories(directory);
+            }
+            Path path = directory.resolve(UUID.randomUUID() + ".tmp");
+            channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            spool = path;
+            spoolStart = written;
+        }
+
+        /**
+         * 목록에 올리지 못한 채우기의 임시 파일을 지운다.
+         */
+        void discard() {
+            closeQuietly(channel);
+            if (spool != null) {
+                deleteQuietly(spool);
+            }
+        }
+
+        /**
+         * 독자로 붙는다. 이미 끝났거나 모든 독자가 떠났으면 null이다.
+         */
+        InputStream join() throws IOException {
+            lock.lock();
+            try {
+                if (closed) {
+                    return null;
+                }
+                if (spool == null) {
+                    startSpool();
+                }
+                readers++;
+                return new TailingInputStream(this, spoolStart);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * {@code position}부터 읽는다. 다른 독자가 이미 받아 둔 바이트는 임시 파일에서, 아니면 원본에서 직접 받는다.
+         */
+        int read(long position, byte[] b, int off, int len) throws IOException {
+            while (true) {
+                long available;
+                lock.lock();
+                try {
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    available = written;
+                } finally {
+                    lock.unlock();
+                }
+                if (position < available) {
+                    int n = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, available - position)), position);
+                    if (n > 0) {
+                        return n;
+                    }
+                }
+                int n = pump(position, b, off, len);
+                if (n > 0) {
+                    return n;
+                }
+            }
+        }
+
+        /**
+         * 원본에서 다음 덩어리를 받아 호출자의 버퍼에 바로 채우고, 임시 파일이 있으면 거기에도 쓴다.
+         * 그 사이 다른 독자가 이미 받아 왔으면 0을 돌려 파일에서 읽게 한다.
+         */
+        private int pump(long position, byte[] b, int off, int len) throws IOException {
+            try {
+                if (!pumpLock.tryLock(stallTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw new IOException("Cache fill of " + key + " made no progress for " + stallTimeout);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for cache fill of " + key);
+            }
+            try {
+                lock.lock();
+                try {
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    if (written > position) {
+                        return 0;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                int n;
+                try {
+                    if (input == null) {
+                        input = source.open(0, -1);
+                    }
+                    n = input.read(b, off, (int) Math.min(Math.min(len, PUMP_CHUNK_SIZE), size - position));
+                    if (n == -1) {
+                        throw new IOException("Expected " + size + " bytes but read " + position);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    throw fail(e instanceof IOException io ? io : new IOException(e));
+                }
+
+                lock.lock();
+                try {
+                    if (spool != null) {
+                        ByteBuffer buffer = ByteBuffer.wrap(b, off, n);
+                        long at = written;
+                        while (buffer.hasRemaining()) {
+                            at += channel.write(buffer, at);
+                        }
+                    }
+                    written += n;
+                    if (written == size) {
+                        complete();
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                    closed = true;
+                    inFlight.remove(key, this);
+                    fillFailures.increment();
+                    throw e;
+                } finally {
+                    lock.unlock();
+                }
+                return n;
+            } finally {
+                pumpLock.unlock();
+            }
+        }
+
+        /**
+         * 원본을 끝까지 받았다. 캐시가 켜져 있고 처음부터 남겼으면 임시 파일을 캐시 항목으로 옮긴다.
+         * 이미 연 채널은 이름이 바뀌어도 그대로 읽힌다. {@code lock}을 잡은 채로 호출한다.
+         */
+        private void complete() {
+            closed = true;
+            inFlight.remove(key, this);
+            closeQuietly(input);
+            if (!enabled || spool == null || spoolStart != 0) {
+                return;
+            }
+            try {
+                Path target = directory.resolve(UUID.randomUUID() + ".obj");
+                Files.move(spool, target, StandardCopyOption.ATOMIC_MOVE);
+                spool = target;
+                published = true;
+                entries.put(key, new Entry(target, size));
+            } catch (IOException e) {
+                fillFailures.increment();
+                log.warn("Failed to publish cache file for {}: {}", key, e.getMessage());
+            }
+        }
+
+        private IOException fail(IOException e) {
+            lock.lock();
+            try {
+                if (failure == null) {
+                    failure = e;
+                    fillFailures.increment();
+                    log.warn("Failed to fill cache for {}: {}", key, e.getMessage());
+                }
+                closed = true;
+                inFlight.remove(key, this);
+            } finally {
+                lock.unlock();
+            }
+            closeQuietly(input);
+            return failure;
+        }
+
+        /**
+         * 독자 하나가 떠났다. 마지막 독자면 원본 스트림을 닫아 더 받지 않고, 캐시에 올리지 않은 임시 파일을 지운다.
+         */
+        void leave() {
+            lock.lock();
+            try {
+                if (--readers > 0) {
+                    return;
+                }
+                closed = true;
+                inFlight.remove(key, this);
+            } finally {
+                lock.unlock();
+            }
+            closeQuietly(input);
+            closeQuietly(channel);
+            if (spool != null && !published) {
+                deleteQuietly(spool);
+            }
+        }
+    }
+
+    private class TailingInputStream extends InputStream {
+
+        private final Fill fill;
+        private final long prefixEnd;
+        private InputStream prefix;
+        private long position;
+        private boolean closed;
+
+        /**
+         * {@code prefixEnd} 앞의 바이트는 임시 파일에 없으므로 원본에 구간 요청을 따로 보내 읽는다.
+         */
+        TailingInputStream(Fill fill, long prefixEnd) {
+            this.fill = fill;
+            this.prefixEnd = prefixEnd;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int n = read(single, 0, 1);
+            return n == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= fill.size) {
+                return -1;
+            }
+            int n = position < prefixEnd ? readPrefix(b, off, len) : fill.read(position, b, off, len);
+            position += n;
+            return n;
+        }
+
+        private int readPrefix(byte[] b, int off, int len) throws IOException {
+            try {
+                if (prefix == null) {
+                    prefix = fill.source.open(0, prefixEnd);
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Failed to open " + fill.key, e);
+            }
+            int n = prefix.read(b, off, (int) Math.min(len, prefixEnd - position));
+            if (n == -1) {
+                throw new IOException("Expected " + prefixEnd + " bytes but read " + position);
+            }
+            if (position + n == prefixEnd) {
+                closeQuietly(prefix);
+            }
+            return n;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            closeQuietly(prefix);
+            fill.leave();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package kr.it.rudy.file.file.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import kr.it.rudy.file.file.application.dto.PresignedUrlResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * 서명된 다운로드 URL을 파일 ID와 만료 구간별로 재사용한다. 같은 구간 안의 요청은 같은 URL을 받으므로
+ * 브라우저와 CDN 캐시가 적중하고, 서명 계산도 생략된다. 캐시는 노드 로컬이므로 {@link #evict}는 이 노드에만
+ * 적용된다. 삭제된 파일의 URL을 돌려주지 않도록 호출자가 적중 여부와 관계없이 파일이 살아 있는지 확인해야 한다.
+ * 요청한 만료 시간은 그 이하의 가장 큰 구간으로 내려 맞추고, 수명의 {@code reuse-fraction}이 지나면 새로 서명한다.
+ */
+@Component
+public class PresignedUrlCache {
+
+    private record Key(String id, int expiryMinutes) {
+    }
+
+    private final Cache<Key, PresignedUrlResponse> cache;
+    private final List<Integer> expiryBuckets;
+    private final boolean enabled;
+
+    public PresignedUrlCache(
+            MeterRegistry meterRegistry,
+            @Value("${file.presigned-cache.enabled:true}") boolean enabled,
+            @Value("${file.presigned-cache.maximum-size:100000}") long maximumSize,
+            @Value("${file.presigned-cache.reuse-fraction:0.5}") double reuseFraction,
+            @Value("${file.presigned-cache.expiry-buckets:5,15,60,360,1440,10080}") List<Integer> expiryBuckets
+    ) {
+        this.enabled = enabled;
+        this.expiryBuckets = expiryBuckets.stream().sorted().collect(Collectors.toList());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Key, PresignedUrlResponse>() {
+                    @Override
+                    public long expireAfterCreate(Key key, PresignedUrlResponse value, long currentTime) {
+                        return (long) (TimeUnit.MINUTES.toNanos(key.expiryMinutes()) * reuseFraction);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, PresignedUrlResponse value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, PresignedUrlResponse value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "file.presigned.url");
+    }
+
+    /**
+     * 캐시된 URL이 있으면 돌려주고, 없으면 구간에 맞춘 만료 시간으로 {@code signer}를 호출해 채운다.
+     * 가장 짧은 구간보다 짧은 만료 시간은 캐시하지 않는다.
+     */
+    public PresignedUrlResponse get(String id, int expiryMinutes, IntFunction<PresignedUrlResponse> signer) {
+        int bucket = bucketOf(expiryMinutes);
+        if (!enabled || bucket <= 0) {
+            return signer.apply(expiryMinutes);
+        }
+        return cache.get(new Key(id, bucket), key -> signer.apply(key.expiryMinutes()));
+    }
+
+    public void evict(String id) {
+        cache.invalidateAll(expiryBuckets.stream().map(bucket -> new Key(id, bucket)).toList());
+    }
+
+    private int bucketOf(int expiryMinutes) {
+        int selected = 0;
+        for (int bucket : expiryBuckets) {
+            if (bucket > expiryMinutes) {
+                break;
+            }
+            selected = bucket;
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,209 @@
+package kr.it.rudy.file.file.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 저장소 연산 지연, 전송량, 진행 중인 전송 수, 다운로드 첫 바이트 시간과 처리량, 확장자별 업로드 크기,
+ * 메타데이터 조회 지연을 기록한다. 태그는 모두 값의 종류가 제한된 것(연산, 결과, 방향, 허용 확장자)만 쓴다.
+ * MinIO로 나가는 HTTP 요청은 {@link kr.it.rudy.file.file.infrastructure.storage.StorageMetricsInterceptor}가
+ * 이 클래스로 기록한다.
+ */
+@Component
+public class FileMetrics {
+
+    private static final String NO_EXTENSION = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter bytesIn;
+    private final Counter bytesOut;
+    private final AtomicInteger activeUploads = new AtomicInteger();
+    private final AtomicInteger activeDownloads = new AtomicInteger();
+    private final Timer timeToFirstByte;
+    private final DistributionSummary downloadThroughput;
+    private final Map<String, DistributionSummary> uploadSizes = new ConcurrentHashMap<>();
+    private final Map<String, Timer> queryTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> storageTimers = new ConcurrentHashMap<>();
+
+    public FileMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.bytesIn = Counter.builder("file.transfer.bytes")
+                .tag("direction", "in")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.bytesOut = Counter.builder("file.transfer.bytes")
+                .tag("direction", "out")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("file.transfer.active", activeUploads, AtomicInteger::get)
+                .tag("direction", "in")
+                .register(meterRegistry);
+        Gauge.builder("file.transfer.active", activeDownloads, AtomicInteger::get)
+                .tag("direction", "out")
+                .register(meterRegistry);
+        this.timeToFirstByte = Timer.builder("file.download.ttfb")
+                .description("요청 수신부터 응답 본문 첫 바이트를 쓸 때까지의 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.downloadThroughput = DistributionSummary.builder("file.download.throughput")
+                .baseUnit("bytes.per.second")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public void recordStorage(String operation, String outcome, long nanos) {
+        storageTimers.computeIfAbsent(operation + ':' + outcome, key -> Timer.builder("file.storage.requests")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 네트워크 요청 없이 클라이언트에서 끝나는 저장소 연산(presigned URL 서명 등)을 같은 지표로 기록한다.
+     */
+    public <T> T storage(String operation, Callable<T> call) throws Exception {
+        long start = System.nanoTime();
+        try {
+            T result = call.call();
+            recordStorage(operation, "success", System.nanoTime() - start);
+            return result;
+        } catch (Exception e) {
+            recordStorage(operation, "error", System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * 업로드 전송 구간을 연다. 반환된 핸들을 닫을 때 진행 중 업로드 수가 줄어든다.
+     */
+    public Transfer startUpload() {
+        activeUploads.incrementAndGet();
+        return activeUploads::decrementAndGet;
+    }
+
+    /**
+     * 클라이언트로부터 받아 저장소로 넘긴 바이트 수를 기록한다.
+     */
+    public void recordBytesIn(long bytes) {
+        bytesIn.increment(bytes);
+    }
+
+    /**
+     * 저장이 끝난 파일의 원본 크기를 확장자별로 기록한다. 확장자는 허용 목록을 통과한 값이어야 한다.
+     */
+    public void recordUploadSize(String extension, long size) {
+        String tag = extension == null || extension.isEmpty() ? NO_EXTENSION : extension.toLowerCase(Locale.ROOT);
+        uploadSizes.computeIfAbsent(tag, key -> DistributionSummary.builder("file.upload.size")
+                        .tag("extension", key)
+                        .baseUnit("bytes")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(size);
+    }
+
+    /**
+     * 다운로드 요청을 받은 시점을 기준으로 관측을 시작한다. 첫 바이트 시간은 이 시점부터 잰다.
+     */
+    public DownloadObservation startDownload() {
+        return new DownloadObservation(System.nanoTime());
+    }
+
+    /**
+     * 메타데이터 저장소 조회 한 번의 지연을 기록한다.
+     */
+    public <T> T query(String operation, Supplier<T> query) {
+        return queryTimers.computeIfAbsent(operation, key -> Timer.builder("file.metadata.query")
+                        .tag("operation", key)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(query);
+    }
+
+    public void query(String operation, Runnable command) {
+        query(operation, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    @FunctionalInterface
+    public interface Transfer extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * 다운로드 한 건의 관측. 본문 전송을 시작할 때 {@link #begin(OutputStream)}으로 출력 스트림을 감싸고,
+     * 전송이 끝나면 닫는다. 본문 전송이 시작되지 않았으면 아무것도 기록하지 않는다.
+     */
+    public final class DownloadObservation implements AutoCloseable {
+
+        private final long requestNanos;
+        private long beginNanos;
+        private long bytes;
+        private boolean started;
+        private boolean firstByteWritten;
+
+        private DownloadObservation(long requestNanos) {
+            this.requestNanos = requestNanos;
+        }
+
+        public OutputStream begin(OutputStream out) {
+            started = true;
+            beginNanos = System.nanoTime();
+            activeDownloads.incrementAndGet();
+            return new FilterOutputStream(out) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    written(1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    written(len);
+                }
+            };
+        }
+
+        private void written(int n) {
+            if (!firstByteWritten && n > 0) {
+                firstByteWritten = true;
+                timeToFirstByte.record(System.nanoTime() - requestNanos, TimeUnit.NANOSECONDS);
+            }
+            bytes += n;
+        }
+
+        @Override
+        public void close() {
+            if (!started) {
+                return;
+            }
+            started = false;
+            activeDownloads.decrementAndGet();
+            bytesOut.increment(bytes);
+            long elapsedNanos = System.nanoTime() - beginNanos;
+            if (bytes > 0 && elapsedNanos > 0) {
+                downloadThroughput.record(bytes * 1e9 / elapsedNanos);
+            }
+        }
+    }
+}
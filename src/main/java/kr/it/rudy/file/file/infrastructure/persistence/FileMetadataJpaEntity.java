@@ -2,17 +2,21 @@ package kr.it.rudy.file.file.infrastructure.persistence;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import kr.it.rudy.file.common.persistence.BaseEntity;
 import kr.it.rudy.file.file.domain.FileId;
 import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileStatus;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.time.Instant;
 
+// 스키마와 인덱스는 db/migration 스크립트에만 정의한다 (ddl-auto: none).
 @Entity
 @Table(name = "file_metadata")
 @Getter
@@ -44,7 +48,18 @@ public class FileMetadataJpaEntity extends BaseEntity {
     @Column(nullable = false)
     private String bucket;
 
-    private FileMetadataJpaEntity(String id, String originalName, String storedName, String contentType, Long size, String extension, String uploadedBy, String bucket, Instant createdDt) {
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private FileStatus status;
+
+    @Column(length = 20)
+    private String contentEncoding;
+
+    private Long storedSize;
+
+    private Instant expiresAt;
+
+    private FileMetadataJpaEntity(String id, String originalName, String storedName, String contentType, Long size, String extension, String uploadedBy, String bucket, FileStatus status, String contentEncoding, Long storedSize, Instant expiresAt, Instant createdDt) {
         this.id = id;
         this.originalName = originalName;
         this.storedName = storedName;
@@ -53,6 +68,10 @@ public class FileMetadataJpaEntity extends BaseEntity {
         this.extension = extension;
         this.uploadedBy = uploadedBy;
         this.bucket = bucket;
+        this.status = status;
+        this.contentEncoding = contentEncoding;
+        this.storedSize = storedSize;
+        this.expiresAt = expiresAt;
         if (createdDt != null) {
             this.setCreatedDt(createdDt);
         }
@@ -68,6 +87,10 @@ public class FileMetadataJpaEntity extends BaseEntity {
                 fileMetadata.getExtension(),
                 fileMetadata.getUploadedBy(),
                 fileMetadata.getBucket(),
+                fileMetadata.getStatus(),
+                fileMetadata.getContentEncoding(),
+                fileMetadata.getStoredSize(),
+                fileMetadata.getExpiresAt(),
                 fileMetadata.getCreatedDt()
         );
     }
@@ -82,6 +105,10 @@ public class FileMetadataJpaEntity extends BaseEntity {
                 extension,
                 uploadedBy,
                 bucket,
+                status,
+                contentEncoding,
+                storedSize,
+                expiresAt,
                 getCreatedDt(),
                 getUpdatedDt()
         );
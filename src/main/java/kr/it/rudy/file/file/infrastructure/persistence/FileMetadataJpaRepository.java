@@ -1,10 +1,81 @@
 package kr.it.rudy.file.file.infrastructure.persistence;
 
+import jakarta.persistence.QueryHint;
+import kr.it.rudy.file.file.domain.FileStatus;
+import kr.it.rudy.file.file.domain.FileSummary;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface FileMetadataJpaRepository extends JpaRepository<FileMetadataJpaEntity, String> {
 
-    List<FileMetadataJpaEntity> findByUploadedBy(String uploadedBy);
+    String SUMMARY = "select new kr.it.rudy.file.file.domain.FileSummary("
+            + "e.id, e.originalName, e.contentType, e.size, e.extension, e.uploadedBy, e.createdDt, e.expiresAt) "
+            + "from FileMetadataJpaEntity e where e.status = kr.it.rudy.file.file.domain.FileStatus.ACTIVE ";
+    String LATEST_FIRST = " order by e.createdDt desc, e.id desc";
+    String AFTER_CURSOR = "and (e.createdDt < :createdDt or (e.createdDt = :createdDt and e.id < :id))";
+    String EXPIRED = "from FileMetadataJpaEntity e where e.status = kr.it.rudy.file.file.domain.FileStatus.ACTIVE "
+            + "and e.expiresAt <= :threshold ";
+    String EXPIRES_FIRST = " order by e.expiresAt, e.id";
+
+    @Query(SUMMARY + LATEST_FIRST)
+    List<FileSummary> findSummaries(Limit limit);
+
+    @Query(SUMMARY + AFTER_CURSOR + LATEST_FIRST)
+    List<FileSummary> findSummariesAfter(@Param("createdDt") Instant createdDt, @Param("id") String id, Limit limit);
+
+    @Query(SUMMARY + "and e.uploadedBy = :uploadedBy" + LATEST_FIRST)
+    List<FileSummary> findSummariesByUploadedBy(@Param("uploadedBy") String uploadedBy, Limit limit);
+
+    @Query(SUMMARY + "and e.uploadedBy = :uploadedBy " + AFTER_CURSOR + LATEST_FIRST)
+    List<FileSummary> findSummariesByUploadedByAfter(@Param("uploadedBy") String uploadedBy, @Param("createdDt") Instant createdDt, @Param("id") String id, Limit limit);
+
+    @Query("select e " + EXPIRED + EXPIRES_FIRST)
+    List<FileMetadataJpaEntity> findExpired(@Param("threshold") Instant threshold, Limit limit);
+
+    @Query("select e " + EXPIRED + "and (e.expiresAt > :expiresAt or (e.expiresAt = :expiresAt and e.id > :id))" + EXPIRES_FIRST)
+    List<FileMetadataJpaEntity> findExpiredAfter(@Param("threshold") Instant threshold, @Param("expiresAt") Instant expiresAt, @Param("id") String id, Limit limit);
+
+    @Query("select count(e) " + EXPIRED)
+    long countExpired(@Param("threshold") Instant threshold);
+
+    List<FileMetadataJpaEntity> findByStatusAndCreatedDtBeforeOrderByCreatedDt(FileStatus status, Instant threshold, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY + LATEST_FIRST)
+    Stream<FileSummary> streamSummaries();
+
+    /**
+     * 저장소 목록과 같은 바이트 순으로 읽어야 병합할 수 있으므로 DB 기본 콜레이션 대신 {@code "C"}로 정렬한다.
+     */
+    @Query(value = """
+            select id, stored_name, status, created_dt < :createdBefore
+            from file_metadata
+            where bucket = :bucket
+            order by stored_name collate "C", id
+            limit :limit
+            """, nativeQuery = true)
+    List<Object[]> findStoredNames(@Param("bucket") String bucket, @Param("createdBefore") Instant createdBefore, @Param("limit") int limit);
+
+    @Query(value = """
+            select id, stored_name, status, created_dt < :createdBefore
+            from file_metadata
+            where bucket = :bucket
+              and (stored_name collate "C", id) > (cast(:storedName as varchar) collate "C", cast(:id as varchar))
+            order by stored_name collate "C", id
+            limit :limit
+            """, nativeQuery = true)
+    List<Object[]> findStoredNamesAfter(@Param("bucket") String bucket, @Param("storedName") String storedName, @Param("id") String id,
+                                        @Param("createdBefore") Instant createdBefore, @Param("limit") int limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SUMMARY + "and e.uploadedBy = :uploadedBy" + LATEST_FIRST)
+    Stream<FileSummary> streamSummariesByUploadedBy(@Param("uploadedBy") String uploadedBy);
 }
@@ -1,55 +1,239 @@
 package kr.it.rudy.file.file.infrastructure.persistence;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import kr.it.rudy.file.file.domain.FileCursor;
 import kr.it.rudy.file.file.domain.FileId;
 import kr.it.rudy.file.file.domain.FileMetadata;
 import kr.it.rudy.file.file.domain.FileMetadataRepository;
+import kr.it.rudy.file.file.domain.FileSearchCondition;
+import kr.it.rudy.file.file.domain.FileSearchCursor;
+import kr.it.rudy.file.file.domain.FileSearchSort;
+import kr.it.rudy.file.file.domain.FileStatus;
+import kr.it.rudy.file.file.domain.FileSummary;
+import kr.it.rudy.file.file.domain.StoredNameReference;
+import kr.it.rudy.file.file.infrastructure.metrics.FileMetrics;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Repository
 @RequiredArgsConstructor
 public class FileMetadataRepositoryImpl implements FileMetadataRepository {
 
     private final FileMetadataJpaRepository jpaRepository;
+    private final FileMetrics fileMetrics;
+    private final EntityManager entityManager;
+
+    @Value("${file.search.timeout:2s}")
+    private Duration searchTimeout;
 
     @Override
     public FileMetadata save(FileMetadata fileMetadata) {
         FileMetadataJpaEntity entity = FileMetadataJpaEntity.fromDomain(fileMetadata);
-        FileMetadataJpaEntity saved = jpaRepository.save(entity);
+        FileMetadataJpaEntity saved = fileMetrics.query("save", () -> jpaRepository.save(entity));
         return saved.toDomain();
     }
 
     @Override
     public Optional<FileMetadata> findById(FileId id) {
-        return jpaRepository.findById(id.getValue())
+        return fileMetrics.query("findById", () -> jpaRepository.findById(id.getValue()))
                 .map(FileMetadataJpaEntity::toDomain);
     }
 
     @Override
-    public List<FileMetadata> findByUploadedBy(String uploadedBy) {
-        return jpaRepository.findByUploadedBy(uploadedBy).stream()
+    public List<FileSummary> findPage(String uploadedBy, FileCursor cursor, int limit) {
+        return fileMetrics.query("findPage", () -> queryPage(uploadedBy, cursor, limit));
+    }
+
+    private List<FileSummary> queryPage(String uploadedBy, FileCursor cursor, int limit) {
+        if (uploadedBy == null) {
+            return cursor == null
+                    ? jpaRepository.findSummaries(Limit.of(limit))
+                    : jpaRepository.findSummariesAfter(cursor.createdDt(), cursor.id(), Limit.of(limit));
+        }
+        return cursor == null
+                ? jpaRepository.findSummariesByUploadedBy(uploadedBy, Limit.of(limit))
+                : jpaRepository.findSummariesByUploadedByAfter(uploadedBy, cursor.createdDt(), cursor.id(), Limit.of(limit));
+    }
+
+    @Override
+    public Stream<FileSummary> streamAll(String uploadedBy) {
+        return uploadedBy == null
+                ? jpaRepository.streamSummaries()
+                : jpaRepository.streamSummariesByUploadedBy(uploadedBy);
+    }
+
+    @Override
+    public List<FileSummary> search(FileSearchCondition condition, FileSearchCursor cursor, int limit) {
+        return fileMetrics.query("search", () -> querySearch(condition, cursor, limit));
+    }
+
+    /**
+     * 조건이 매번 달라 Criteria API로 조립한다. 엔티티 대신 {@link FileSummary}로 프로젝션하며,
+     * 이름 조건은 {@code lower(original_name)} 트라이그램 인덱스를, 나머지는 소유자 선두 복합 인덱스를 쓰도록 작성한다.
+     */
+    private List<FileSummary> querySearch(FileSearchCondition condition, FileSearchCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FileSummary> query = cb.createQuery(FileSummary.class);
+        Root<FileMetadataJpaEntity> e = query.from(FileMetadataJpaEntity.class);
+        Path<String> id = e.get("id");
+        Path<Instant> createdDt = e.get("createdDt");
+        Path<Long> size = e.get("size");
+        Expression<String> lowerName = cb.lower(e.get("originalName"));
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(e.get("status"), FileStatus.ACTIVE));
+        if (condition.uploadedBy() != null) {
+            where.add(cb.equal(e.get("uploadedBy"), condition.uploadedBy()));
+        }
+        if (condition.name() != null) {
+            String escaped = escapeLike(condition.name().toLowerCase(Locale.ROOT));
+            where.add(cb.like(lowerName, (condition.prefix() ? "" : "%") + escaped + "%", '\\'));
+        }
+        if (condition.extension() != null) {
+            where.add(cb.equal(cb.lower(e.get("extension")), condition.extension().toLowerCase(Locale.ROOT)));
+        }
+        if (condition.contentType() != null) {
+            String contentType = condition.contentType().toLowerCase(Locale.ROOT);
+            where.add(contentType.endsWith("/*")
+                    ? cb.like(cb.lower(e.get("contentType")), escapeLike(contentType.substring(0, contentType.length() - 1)) + "%", '\\')
+                    : cb.equal(cb.lower(e.get("contentType")), contentType));
+        }
+        if (condition.minSize() != null) {
+            where.add(cb.greaterThanOrEqualTo(size, condition.minSize()));
+        }
+        if (condition.maxSize() != null) {
+            where.add(cb.lessThanOrEqualTo(size, condition.maxSize()));
+        }
+        if (condition.createdFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(createdDt, condition.createdFrom()));
+        }
+        if (condition.createdTo() != null) {
+            where.add(cb.lessThan(createdDt, condition.createdTo()));
+        }
+
+        FileSearchSort sort = condition.sort();
+        boolean descending = sort.isDescending();
+        if (cursor != null) {
+            where.add(switch (sort) {
+                case LATEST, OLDEST -> after(cb, createdDt, Instant.parse(cursor.key()), id, cursor.id(), descending);
+                case LARGEST, SMALLEST -> after(cb, size, Long.valueOf(cursor.key()), id, cursor.id(), descending);
+                // 커서 값도 DB의 lower()로 낮춰 정렬 키와 같은 규칙으로 비교한다.
+                case NAME, NAME_DESC -> after(cb, lowerName, cb.lower(cb.literal(cursor.key())), id, cursor.id(), descending);
+            });
+        }
+
+        Expression<?> key = switch (sort) {
+            case LATEST, OLDEST -> createdDt;
+            case LARGEST, SMALLEST -> size;
+            case NAME, NAME_DESC -> lowerName;
+        };
+
+        query.select(cb.construct(FileSummary.class,
+                        id, e.get("originalName"), e.get("contentType"), size, e.get("extension"), e.get("uploadedBy"), createdDt, e.get("expiresAt")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(descending ? cb.desc(key) : cb.asc(key), descending ? cb.desc(id) : cb.asc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, searchTimeout.toMillis())
+                .getResultList();
+    }
+
+    private <Y extends Comparable<? super Y>> Predicate after(CriteriaBuilder cb, Expression<? extends Y> key, Y value,
+                                                              Path<String> id, String lastId, boolean descending) {
+        return after(cb, key, cb.literal(value), id, lastId, descending);
+    }
+
+    private <Y extends Comparable<? super Y>> Predicate after(CriteriaBuilder cb, Expression<? extends Y> key, Expression<? extends Y> value,
+                                                              Path<String> id, String lastId, boolean descending) {
+        return descending
+                ? cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, lastId)))
+                : cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, lastId)));
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Override
+    public List<FileMetadata> findPendingCreatedBefore(Instant threshold, int limit) {
+        return fileMetrics.query("findPending", () -> jpaRepository.findByStatusAndCreatedDtBeforeOrderByCreatedDt(FileStatus.PENDING, threshold, Limit.of(limit))).stream()
                 .map(FileMetadataJpaEntity::toDomain)
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<FileMetadata> findAll() {
-        return jpaRepository.findAll().stream()
+    public List<StoredNameReference> findStoredNames(String bucket, StoredNameReference after, Instant createdBefore, int limit) {
+        List<Object[]> rows = fileMetrics.query("findStoredNames", () -> after == null
+                ? jpaRepository.findStoredNames(bucket, createdBefore, limit)
+                : jpaRepository.findStoredNamesAfter(bucket, after.storedName(), after.id().getValue(), createdBefore, limit));
+        return rows.stream()
+                .map(row -> new StoredNameReference(
+                        FileId.of((String) row[0]),
+                        (String) row[1],
+                        FileStatus.valueOf((String) row[2]),
+                        Boolean.TRUE.equals(row[3])
+                ))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<FileMetadata> findExpiredBefore(Instant threshold, FileMetadata after, int limit) {
+        return fileMetrics.query("findExpired", () -> after == null
+                        ? jpaRepository.findExpired(threshold, Limit.of(limit))
+                        : jpaRepository.findExpiredAfter(threshold, after.getExpiresAt(), after.getId().getValue(), Limit.of(limit))).stream()
+                .map(FileMetadataJpaEntity::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long countExpiredBefore(Instant threshold) {
+        return fileMetrics.query("countExpired", () -> jpaRepository.countExpired(threshold));
+    }
+
+    @Override
+    public List<FileMetadata> findAllById(Collection<FileId> ids) {
+        return fileMetrics.query("findAllById", () -> jpaRepository.findAllById(toValues(ids))).stream()
                 .map(FileMetadataJpaEntity::toDomain)
                 .collect(Collectors.toList());
     }
 
     @Override
     public void delete(FileId id) {
-        jpaRepository.deleteById(id.getValue());
+        fileMetrics.query("delete", () -> jpaRepository.deleteById(id.getValue()));
+    }
+
+    @Override
+    public void deleteAllById(Collection<FileId> ids) {
+        // deleteAllById는 ID마다 조회 후 삭제하므로, 벌크 DELETE 한 번으로 끝나는 InBatch 버전을 쓴다.
+        fileMetrics.query("deleteAllById", () -> jpaRepository.deleteAllByIdInBatch(toValues(ids)));
     }
 
     @Override
     public boolean existsById(FileId id) {
-        return jpaRepository.existsById(id.getValue());
+        return fileMetrics.query("existsById", () -> jpaRepository.existsById(id.getValue()));
+    }
+
+    private List<String> toValues(Collection<FileId> ids) {
+        return ids.stream().map(FileId::getValue).collect(Collectors.toList());
     }
 }
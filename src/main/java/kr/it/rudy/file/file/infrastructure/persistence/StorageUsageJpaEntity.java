@@ -0,0 +1,32 @@
+package kr.it.rudy.file.file.infrastructure.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import kr.it.rudy.file.common.persistence.BaseEntity;
+import kr.it.rudy.file.file.domain.StorageUsage;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "user_storage_usage")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StorageUsageJpaEntity extends BaseEntity {
+
+    @Id
+    @Column(nullable = false)
+    private String uploadedBy;
+
+    @Column(nullable = false)
+    private Long bytes;
+
+    @Column(nullable = false)
+    private Long files;
+
+    public StorageUsage toDomain() {
+        return new StorageUsage(uploadedBy, bytes, files);
+    }
+}
@@ -0,0 +1,54 @@
+package kr.it.rudy.file.file.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StorageUsageJpaRepository extends JpaRepository<StorageUsageJpaEntity, String> {
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            insert into user_storage_usage (uploaded_by, bytes, files, created_dt, updated_dt)
+            values (:uploadedBy, :bytes, :files, now(), now())
+            on conflict (uploaded_by)
+            do update set bytes = user_storage_usage.bytes + excluded.bytes,
+                          files = user_storage_usage.files + excluded.files,
+                          updated_dt = now()
+            """, nativeQuery = true)
+    int add(@Param("uploadedBy") String uploadedBy, @Param("bytes") long bytes, @Param("files") long files);
+
+    /**
+     * 드라이버마다 timestamptz를 돌려주는 타입이 달라 마이크로초 정수로 읽는다.
+     */
+    @Query(value = "select cast(extract(epoch from now()) * 1000000 as bigint)", nativeQuery = true)
+    long currentTimeMicros();
+
+    @Query(value = """
+            select coalesce(a.uploaded_by, u.uploaded_by), coalesce(a.bytes, 0), coalesce(a.files, 0)
+            from (select uploaded_by, sum(size) as bytes, count(*) as files
+                  from file_metadata
+                  where status = 'ACTIVE' and uploaded_by is not null
+                  group by uploaded_by) a
+            full join user_storage_usage u on u.uploaded_by = a.uploaded_by
+            where coalesce(a.bytes, 0) <> coalesce(u.bytes, 0) or coalesce(a.files, 0) <> coalesce(u.files, 0)
+            """, nativeQuery = true)
+    List<Object[]> findDrifted();
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            insert into user_storage_usage (uploaded_by, bytes, files, created_dt, updated_dt)
+            values (:uploadedBy, :bytes, :files, now(), now())
+            on conflict (uploaded_by)
+            do update set bytes = excluded.bytes, files = excluded.files, updated_dt = now()
+            where user_storage_usage.updated_dt is null or user_storage_usage.updated_dt < :since
+            """, nativeQuery = true)
+    int overwriteUnchangedSince(@Param("uploadedBy") String uploadedBy, @Param("bytes") long bytes, @Param("files") long files,
+                                @Param("since") Instant since);
+}
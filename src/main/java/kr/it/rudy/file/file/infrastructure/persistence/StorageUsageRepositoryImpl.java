@@ -0,0 +1,51 @@
+package kr.it.rudy.file.file.infrastructure.persistence;
+
+import kr.it.rudy.file.file.domain.StorageUsage;
+import kr.it.rudy.file.file.domain.StorageUsageRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class StorageUsageRepositoryImpl implements StorageUsageRepository {
+
+    private final StorageUsageJpaRepository jpaRepository;
+
+    @Override
+    public Optional<StorageUsage> findByUploadedBy(String uploadedBy) {
+        return jpaRepository.findById(uploadedBy)
+                .map(StorageUsageJpaEntity::toDomain);
+    }
+
+    @Override
+    public void add(String uploadedBy, long bytes, long files) {
+        jpaRepository.add(uploadedBy, bytes, files);
+    }
+
+    @Override
+    public Instant currentTime() {
+        return Instant.EPOCH.plus(jpaRepository.currentTimeMicros(), ChronoUnit.MICROS);
+    }
+
+    @Override
+    public List<StorageUsage> findDrifted() {
+        return jpaRepository.findDrifted().stream()
+                .map(row -> new StorageUsage(
+                        (String) row[0],
+                        ((Number) row[1]).longValue(),
+                        ((Number) row[2]).longValue()
+                ))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean overwriteIfUnchangedSince(StorageUsage usage, Instant since) {
+        return jpaRepository.overwriteUnchangedSince(usage.uploadedBy(), usage.bytes(), usage.files(), since) > 0;
+    }
+}
@@ -0,0 +1,45 @@
+package kr.it.rudy.file.file.infrastructure.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import kr.it.rudy.file.common.persistence.BaseEntity;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Entity
+@Table(name = "stored_object")
+@IdClass(StoredObjectJpaEntity.Key.class)
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class StoredObjectJpaEntity extends BaseEntity {
+
+    @Id
+    @Column(nullable = false)
+    private String bucket;
+
+    @Id
+    @Column(nullable = false)
+    private String storedName;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(nullable = false)
+    private Long refCount;
+
+    @Getter
+    @EqualsAndHashCode
+    @NoArgsConstructor(access = AccessLevel.PROTECTED)
+    public static class Key implements Serializable {
+
+        private String bucket;
+        private String storedName;
+    }
+}
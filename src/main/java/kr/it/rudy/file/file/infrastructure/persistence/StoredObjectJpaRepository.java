@@ -0,0 +1,36 @@
+package kr.it.rudy.file.file.infrastructure.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface StoredObjectJpaRepository extends JpaRepository<StoredObjectJpaEntity, StoredObjectJpaEntity.Key> {
+
+    @Transactional
+    @Query(value = """
+            insert into stored_object (bucket, stored_name, size, ref_count, created_dt, updated_dt)
+            values (:bucket, :storedName, :size, 1, now(), now())
+            on conflict (bucket, stored_name)
+            do update set ref_count = stored_object.ref_count + 1, updated_dt = now()
+            returning ref_count
+            """, nativeQuery = true)
+    long increment(@Param("bucket") String bucket, @Param("storedName") String storedName, @Param("size") long size);
+
+    @Transactional
+    @Query(value = """
+            update stored_object
+            set ref_count = ref_count - :count, updated_dt = now()
+            where bucket = :bucket and stored_name = :storedName
+            returning ref_count
+            """, nativeQuery = true)
+    Optional<Long> decrement(@Param("bucket") String bucket, @Param("storedName") String storedName, @Param("count") int count);
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from stored_object where bucket = :bucket and stored_name = :storedName and ref_count <= 0", nativeQuery = true)
+    int deleteUnreferenced(@Param("bucket") String bucket, @Param("storedName") String storedName);
+}
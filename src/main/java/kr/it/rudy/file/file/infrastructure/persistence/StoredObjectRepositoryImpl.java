@@ -0,0 +1,29 @@
+package kr.it.rudy.file.file.infrastructure.persistence;
+
+import kr.it.rudy.file.file.domain.StoredObjectRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class StoredObjectRepositoryImpl implements StoredObjectRepository {
+
+    private final StoredObjectJpaRepository jpaRepository;
+
+    @Override
+    public long acquire(String bucket, String storedName, long size) {
+        return jpaRepository.increment(bucket, storedName, size);
+    }
+
+    @Override
+    public Optional<Long> release(String bucket, String storedName, int count) {
+        return jpaRepository.decrement(bucket, storedName, count);
+    }
+
+    @Override
+    public void deleteIfUnreferenced(String bucket, String storedName) {
+        jpaRepository.deleteUnreferenced(bucket, storedName);
+    }
+}
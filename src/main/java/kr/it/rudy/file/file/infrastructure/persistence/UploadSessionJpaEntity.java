@@ -0,0 +1,82 @@
+package kr.it.rudy.file.file.infrastructure.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import kr.it.rudy.file.common.persistence.BaseEntity;
+import kr.it.rudy.file.file.domain.UploadSession;
+import kr.it.rudy.file.file.domain.UploadSessionId;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "upload_session")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class UploadSessionJpaEntity extends BaseEntity {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private String uploadId;
+
+    @Column(nullable = false)
+    private String bucket;
+
+    @Column(nullable = false)
+    private String storedName;
+
+    @Column(nullable = false)
+    private String originalName;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @Column(length = 20)
+    private String extension;
+
+    @Column(nullable = false)
+    private String uploadedBy;
+
+    private UploadSessionJpaEntity(String id, String uploadId, String bucket, String storedName, String originalName, String contentType, String extension, String uploadedBy) {
+        this.id = id;
+        this.uploadId = uploadId;
+        this.bucket = bucket;
+        this.storedName = storedName;
+        this.originalName = originalName;
+        this.contentType = contentType;
+        this.extension = extension;
+        this.uploadedBy = uploadedBy;
+    }
+
+    public static UploadSessionJpaEntity fromDomain(UploadSession uploadSession) {
+        return new UploadSessionJpaEntity(
+                uploadSession.getId().getValue(),
+                uploadSession.getUploadId(),
+                uploadSession.getBucket(),
+                uploadSession.getStoredName(),
+                uploadSession.getOriginalName(),
+                uploadSession.getContentType(),
+                uploadSession.getExtension(),
+                uploadSession.getUploadedBy()
+        );
+    }
+
+    public UploadSession toDomain() {
+        return UploadSession.reconstitute(
+                UploadSessionId.of(id),
+                uploadId,
+                bucket,
+                storedName,
+                originalName,
+                contentType,
+                extension,
+                uploadedBy,
+                getCreatedDt()
+        );
+    }
+}
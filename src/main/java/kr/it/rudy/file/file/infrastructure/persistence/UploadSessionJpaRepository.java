@@ -0,0 +1,21 @@
+package kr.it.rudy.file.file.infrastructure.persistence;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface UploadSessionJpaRepository extends JpaRepository<UploadSessionJpaEntity, String> {
+
+    List<UploadSessionJpaEntity> findByCreatedDtBeforeOrderByCreatedDt(Instant threshold, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from upload_session where id = :id", nativeQuery = true)
+    int deleteAndCount(@Param("id") String id);
+}
@@ -0,0 +1,50 @@
+package kr.it.rudy.file.file.infrastructure.persistence;
+
+import kr.it.rudy.file.file.domain.UploadSession;
+import kr.it.rudy.file.file.domain.UploadSessionId;
+import kr.it.rudy.file.file.domain.UploadSessionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class UploadSessionRepositoryImpl implements UploadSessionRepository {
+
+    private final UploadSessionJpaRepository jpaRepository;
+
+    @Override
+    public UploadSession save(UploadSession uploadSession) {
+        UploadSessionJpaEntity entity = UploadSessionJpaEntity.fromDomain(uploadSession);
+        UploadSessionJpaEntity saved = jpaRepository.save(entity);
+        return saved.toDomain();
+    }
+
+    @Override
+    public Optional<UploadSession> findById(UploadSessionId id) {
+        return jpaRepository.findById(id.getValue())
+                .map(UploadSessionJpaEntity::toDomain);
+    }
+
+    @Override
+    public List<UploadSession> findCreatedBefore(Instant threshold, int limit) {
+        return jpaRepository.findByCreatedDtBeforeOrderByCreatedDt(threshold, Limit.of(limit)).stream()
+                .map(UploadSessionJpaEntity::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void delete(UploadSessionId id) {
+        jpaRepository.deleteById(id.getValue());
+    }
+
+    @Override
+    public boolean claim(UploadSessionId id) {
+        return jpaRepository.deleteAndCount(id.getValue()) > 0;
+    }
+}
@@ -0,0 +1,273 @@
+package kr.it.rudy.file.file.infrastructure.storage;
+
+import kr.it.rudy.file.common.io.BoundedInputStream;
+import kr.it.rudy.file.file.application.storage.ObjectEntry;
+import kr.it.rudy.file.file.application.storage.ObjectStat;
+import kr.it.rudy.file.file.application.storage.ObjectStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 로컬 파일 시스템 저장소. 단일 노드 설치나 외부 서비스 없이 처리량을 시험할 때 쓴다.
+ * 객체는 {@code root/bucket/name}에 두고, 쓰기는 같은 파일 시스템의 임시 파일에 끝까지 쓴 뒤 원자적 이름 변경으로
+ * 공개하므로 읽는 쪽은 완성된 객체만 본다. 읽기는 {@link FileChannel}의 위치 지정 읽기와 {@code transferTo}를 쓴다.
+ * 콘텐츠 타입은 지원되는 파일 시스템이면 사용자 정의 속성에 기록한다.
+ * presigned URL은 지원하지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "filesystem")
+public class FileSystemObjectStorage implements ObjectStorage {
+
+    private static final String TEMP_DIRECTORY = ".tmp";
+    private static final String CONTENT_TYPE_ATTRIBUTE = "content-type";
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path tempDirectory;
+
+    public FileSystemObjectStorage(@Value("${file.storage.filesystem.root:./data/objects}") Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.tempDirectory = this.root.resolve(TEMP_DIRECTORY);
+        Files.createDirectories(tempDirectory);
+        log.info("Filesystem object storage at {}", this.root);
+    }
+
+    @Override
+    public void createBucketIfAbsent(String bucket) throws IOException {
+        Files.createDirectories(bucketDirectory(bucket));
+    }
+
+    @Override
+    public void put(String bucket, String name, InputStream inputStream, long size, String contentType, String contentEncoding) throws IOException {
+        Path target = resolve(bucket, name);
+        Path temp = tempDirectory.resolve(UUID.randomUUID() + ".part");
+        try {
+            long written = 0;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[WRITE_BUFFER_SIZE];
+                int n;
+                while ((n = inputStream.read(buffer)) != -1) {
+                    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, n);
+                    while (byteBuffer.hasRemaining()) {
+                        channel.write(byteBuffer);
+                    }
+                    written += n;
+                }
+                channel.force(false);
+            }
+            if (size >= 0 && written != size) {
+                throw new IOException("Expected " + size + " bytes but read " + written);
+            }
+            writeContentType(temp, contentType);
+
+            Files.createDirectories(target.getParent());
+            move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream get(String bucket, String name, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(bucket, name), StandardOpenOption.READ);
+        try {
+            long end = length < 0 ? channel.size() : Math.min(channel.size(), offset + length);
+            channel.position(Math.max(offset, 0));
+            return new BoundedInputStream(Channels.newInputStream(channel), Math.max(end - offset, 0));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public long transferTo(String bucket, String name, OutputStream out, long offset, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(bucket, name), StandardOpenOption.READ)) {
+            long end = length < 0 ? channel.size() : Math.min(channel.size(), offset + length);
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = Math.max(offset, 0);
+            while (position < end) {
+                position += channel.transferTo(position, end - position, target);
+            }
+            return Math.max(end - offset, 0);
+        }
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public Optional<ObjectStat> stat(String bucket, String name) throws IOException {
+        Path path = resolve(bucket, name);
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(new ObjectStat(Files.size(path), readContentType(path)));
+    }
+
+    /**
+     * 임시 파일로 복사한 뒤 이름을 바꾸므로 대상은 완성된 상태로만 보인다.
+     */
+    @Override
+    public void copy(String bucket, String source, String target) throws IOException {
+        Path sourcePath = resolve(bucket, source);
+        Path targetPath = resolve(bucket, target);
+        Path temp = tempDirectory.resolve(UUID.randomUUID() + ".part");
+        try {
+            Files.copy(sourcePath, temp, StandardCopyOption.COPY_ATTRIBUTES);
+            Files.createDirectories(targetPath.getParent());
+            move(temp, targetPath);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void remove(String bucket, String name) throws IOException {
+        Files.deleteIfExists(resolve(bucket, name));
+    }
+
+    /**
+     * 디렉터리를 깊이 우선으로 내려가며, 하위 디렉터리는 이름 뒤에 {@code /}를 붙인 키로 정렬해 S3와 같은 순서를 만든다.
+     * 디렉터리마다 항목 이름을 메모리에 올려 정렬하므로, 항목이 아주 많은 디렉터리는 그만큼 메모리를 쓴다.
+     */
+    @Override
+    public Stream<ObjectEntry> list(String bucket) {
+        Path directory = bucketDirectory(bucket);
+        return Files.isDirectory(directory) ? walk(directory, "") : Stream.empty();
+    }
+
+    private Stream<ObjectEntry> walk(Path directory, String prefix) {
+        List<Map.Entry<String, Path>> children;
+        try (Stream<Path> entries = Files.list(directory)) {
+            children = entries
+                    .map(child -> Map.entry(Files.isDirectory(child) ? child.getFileName() + "/" : child.getFileName().toString(), child))
+                    .sorted(Map.Entry.comparingByKey())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return children.stream().flatMap(child -> {
+            String name = prefix + child.getKey();
+            if (name.endsWith("/")) {
+                return walk(child.getValue(), name);
+            }
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(child.getValue(), BasicFileAttributes.class);
+                return Stream.of(new ObjectEntry(name, attributes.size(), attributes.lastModifiedTime().toInstant()));
+            } catch (NoSuchFileException e) {
+                // 목록을 읽은 뒤 지워진 객체
+                return Stream.empty();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public Map<String, String> removeAll(String bucket, Collection<String> names) throws IOException {
+        Map<String, String> errors = new HashMap<>();
+        for (String name : names) {
+            try {
+                remove(bucket, name);
+            } catch (IOException | IllegalArgumentException e) {
+                errors.put(name, e.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    @Override
+    public String presign(String bucket, String name, PresignMethod method, Duration expiry) {
+        throw new UnsupportedOperationException("파일 시스템 저장소는 presigned URL을 지원하지 않습니다.");
+    }
+
+    private Path bucketDirectory(String bucket) {
+        Path directory = root.resolve(bucket).normalize();
+        if (!directory.getParent().equals(root) || directory.equals(tempDirectory)) {
+            throw new IllegalArgumentException("잘못된 버킷 이름입니다: " + bucket);
+        }
+        return directory;
+    }
+
+    /**
+     * 객체 이름의 {@code /}는 하위 디렉터리가 된다. 정규화한 경로가 버킷 디렉터리를 벗어나면 거부한다.
+     */
+    private Path resolve(String bucket, String name) {
+        Path directory = bucketDirectory(bucket);
+        Path path = directory.resolve(name).normalize();
+        if (!path.startsWith(directory) || path.equals(directory)) {
+            throw new IllegalArgumentException("잘못된 객체 이름입니다: " + name);
+        }
+        return path;
+    }
+
+    private void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void writeContentType(Path path, String contentType) {
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(path, UserDefinedFileAttributeView.class);
+        if (view == null || contentType == null) {
+            return;
+        }
+        try {
+            view.write(CONTENT_TYPE_ATTRIBUTE, StandardCharsets.UTF_8.encode(contentType));
+        } catch (IOException | UnsupportedOperationException e) {
+            log.debug("User-defined attributes are not supported for {}: {}", path, e.getMessage());
+        }
+    }
+
+    private String readContentType(Path path) throws IOException {
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(path, UserDefinedFileAttributeView.class);
+        if (view != null) {
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(view.size(CONTENT_TYPE_ATTRIBUTE));
+                view.read(CONTENT_TYPE_ATTRIBUTE, buffer);
+                buffer.flip();
+                return StandardCharsets.UTF_8.decode(buffer).toString();
+            } catch (IOException | UnsupportedOperationException e) {
+                // 속성이 없거나 지원되지 않으면 확장자로 추정한다.
+            }
+        }
+        String probed = Files.probeContentType(path);
+        return probed != null ? probed : DEFAULT_CONTENT_TYPE;
+    }
+}
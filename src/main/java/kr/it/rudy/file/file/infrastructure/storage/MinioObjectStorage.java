@@ -0,0 +1,218 @@
+package kr.it.rudy.file.file.infrastructure.storage;
+
+import io.minio.BucketExistsArgs;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
+import io.minio.GetObjectArgs;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.ListObjectsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import kr.it.rudy.file.file.application.storage.ObjectEntry;
+import kr.it.rudy.file.file.application.storage.ObjectStat;
+import kr.it.rudy.file.file.application.storage.ObjectStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * MinIO(S3) 저장소. SDK 예외는 {@link IOException}으로 바꾸고, 없는 객체는 {@link NoSuchFileException}으로 알린다.
+ */
+@Component
+@ConditionalOnProperty(name = "file.storage.type", havingValue = "minio", matchIfMissing = true)
+public class MinioObjectStorage implements ObjectStorage {
+
+    private static final String NO_SUCH_KEY = "NoSuchKey";
+
+    private final MinioClient minioClient;
+    private final long partSize;
+
+    public MinioObjectStorage(MinioClient minioClient, @Value("${file.upload.part-size:10485760}") long partSize) {
+        this.minioClient = minioClient;
+        this.partSize = partSize;
+    }
+
+    @Override
+    public void createBucketIfAbsent(String bucket) throws IOException {
+        call(bucket, () -> {
+            if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucket).build())) {
+                minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 크기를 모르면 {@code partSize} 단위의 멀티파트 업로드로 전송한다.
+     */
+    @Override
+    public void put(String bucket, String name, InputStream inputStream, long size, String contentType, String contentEncoding) throws IOException {
+        call(name, () -> minioClient.putObject(
+                PutObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(name)
+                        .stream(inputStream, size, size < 0 ? partSize : -1)
+                        .contentType(contentType)
+                        .headers(contentEncoding != null ? Map.of(HttpHeaders.CONTENT_ENCODING, contentEncoding) : Map.of())
+                        .build()
+        ));
+    }
+
+    @Override
+    public InputStream get(String bucket, String name, long offset, long length) throws IOException {
+        return call(name, () -> {
+            GetObjectArgs.Builder args = GetObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(name);
+            if (offset > 0) {
+                args.offset(offset);
+            }
+            if (length >= 0) {
+                args.length(length);
+            }
+            return minioClient.getObject(args.build());
+        });
+    }
+
+    @Override
+    public Optional<ObjectStat> stat(String bucket, String name) throws IOException {
+        try {
+            StatObjectResponse stat = call(name, () -> minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucket)
+                            .object(name)
+                            .build()
+            ));
+            return Optional.of(new ObjectStat(stat.size(), stat.contentType()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void copy(String bucket, String source, String target) throws IOException {
+        call(source, () -> minioClient.copyObject(
+                CopyObjectArgs.builder()
+                        .bucket(bucket)
+                        .object(target)
+                        .source(CopySource.builder().bucket(bucket).object(source).build())
+                        .build()
+        ));
+    }
+
+    @Override
+    public void remove(String bucket, String name) throws IOException {
+        call(name, () -> {
+            minioClient.removeObject(
+                    RemoveObjectArgs.builder()
+                            .bucket(bucket)
+                            .object(name)
+                            .build()
+            );
+            return null;
+        });
+    }
+
+    /**
+     * ListObjectsV2 응답을 한 페이지(최대 1,000개)씩 넘기며 읽으므로 목록 전체를 메모리에 두지 않는다.
+     */
+    @Override
+    public Stream<ObjectEntry> list(String bucket) {
+        Iterable<Result<Item>> results = minioClient.listObjects(
+                ListObjectsArgs.builder()
+                        .bucket(bucket)
+                        .recursive(true)
+                        .build()
+        );
+        return StreamSupport.stream(results.spliterator(), false)
+                .map(result -> {
+                    try {
+                        Item item = result.get();
+                        return new ObjectEntry(item.objectName(), item.size(), item.lastModified().toInstant());
+                    } catch (Exception e) {
+                        throw new UncheckedIOException(new IOException("Failed to list objects in " + bucket + ": " + e.getMessage(), e));
+                    }
+                });
+    }
+
+    /**
+     * 멀티 오브젝트 삭제로 지운다. 결과를 순회해야 실제 삭제 요청이 전송되며, SDK가 1000개 단위로 나누어 보낸다.
+     */
+    @Override
+    public Map<String, String> removeAll(String bucket, Collection<String> names) throws IOException {
+        return call(bucket, () -> {
+            Map<String, String> errors = new HashMap<>();
+            Iterable<Result<DeleteError>> results = minioClient.removeObjects(
+                    RemoveObjectsArgs.builder()
+                            .bucket(bucket)
+                            .objects(names.stream().map(DeleteObject::new).collect(Collectors.toList()))
+                            .build()
+            );
+            for (Result<DeleteError> result : results) {
+                DeleteError error = result.get();
+                errors.put(error.objectName(), error.message());
+            }
+            return errors;
+        });
+    }
+
+    @Override
+    public String presign(String bucket, String name, PresignMethod method, Duration expiry) throws IOException {
+        return call(name, () -> minioClient.getPresignedObjectUrl(
+                GetPresignedObjectUrlArgs.builder()
+                        .bucket(bucket)
+                        .object(name)
+                        .method(method == PresignMethod.PUT ? Method.PUT : Method.GET)
+                        .expiry((int) Math.max(1, expiry.toSeconds()), TimeUnit.SECONDS)
+                        .build()
+        ));
+    }
+
+    private <T> T call(String name, MinioCall<T> call) throws IOException {
+        try {
+            return call.execute();
+        } catch (ErrorResponseException e) {
+            if (NO_SUCH_KEY.equals(e.errorResponse().code())) {
+                NoSuchFileException notFound = new NoSuchFileException(name);
+                notFound.initCause(e);
+                throw notFound;
+            }
+            throw new IOException(e.getMessage(), e);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface MinioCall<T> {
+        T execute() throws Exception;
+    }
+}
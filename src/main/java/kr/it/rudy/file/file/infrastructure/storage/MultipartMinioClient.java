@@ -0,0 +1,70 @@
+package kr.it.rudy.file.file.infrastructure.storage;
+
+import com.google.common.collect.ImmutableMultimap;
+import io.minio.ListPartsResponse;
+import io.minio.MinioAsyncClient;
+import io.minio.messages.Part;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * {@link MinioAsyncClient}가 protected로 감춰 둔 저수준 S3 멀티파트 업로드 API를 동기 호출로 노출한다.
+ * 파트는 MinIO에서 조립되므로 애플리케이션 노드는 각 파트를 그대로 흘려보내기만 한다.
+ */
+public class MultipartMinioClient extends MinioAsyncClient {
+
+    private static final int LIST_PARTS_PAGE_SIZE = 1000;
+
+    public MultipartMinioClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    public String createMultipartUpload(String bucket, String object, String contentType) throws Exception {
+        return await(createMultipartUploadAsync(
+                bucket, null, object, ImmutableMultimap.of("Content-Type", contentType), null
+        )).result().uploadId();
+    }
+
+    public String uploadPart(String bucket, String object, String uploadId, int partNumber, Object data, long length) throws Exception {
+        return await(uploadPartAsync(
+                bucket, null, object, data, length, uploadId, partNumber, null, null
+        )).etag();
+    }
+
+    public List<Part> listParts(String bucket, String object, String uploadId) throws Exception {
+        List<Part> parts = new ArrayList<>();
+        Integer marker = null;
+        while (true) {
+            ListPartsResponse response = await(listPartsAsync(
+                    bucket, null, object, LIST_PARTS_PAGE_SIZE, marker, uploadId, null, null
+            ));
+            parts.addAll(response.result().partList());
+            if (!response.result().isTruncated()) {
+                return parts;
+            }
+            marker = response.result().nextPartNumberMarker();
+        }
+    }
+
+    public void completeMultipartUpload(String bucket, String object, String uploadId, Part[] parts) throws Exception {
+        await(completeMultipartUploadAsync(bucket, null, object, uploadId, parts, null, null));
+    }
+
+    public void abortMultipartUpload(String bucket, String object, String uploadId) throws Exception {
+        await(abortMultipartUploadAsync(bucket, null, object, uploadId, null, null));
+    }
+
+    private <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package kr.it.rudy.file.file.infrastructure.storage;
+
+import kr.it.rudy.file.file.infrastructure.metrics.FileMetrics;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * MinIO로 나가는 S3 요청마다 지연을 연산 종류와 결과별로 기록한다.
+ * 동기/비동기 클라이언트가 같은 OkHttp 클라이언트를 쓰므로 여기 한 곳에서 모든 호출이 잡힌다.
+ * GET은 응답 헤더를 받을 때까지만 재므로 본문 전송 시간이 아닌 MinIO의 첫 바이트 시간이 되고,
+ * PUT은 요청 본문 전송을 포함한다.
+ * 태그는 연산 종류와 결과 분류뿐이며 버킷이나 객체 이름은 넣지 않는다.
+ */
+public class StorageMetricsInterceptor implements Interceptor {
+
+    private final FileMetrics fileMetrics;
+
+    public StorageMetricsInterceptor(FileMetrics fileMetrics) {
+        this.fileMetrics = fileMetrics;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String operation = operation(request);
+        long start = System.nanoTime();
+        try {
+            Response response = chain.proceed(request);
+            fileMetrics.recordStorage(operation, outcome(response.code()), System.nanoTime() - start);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            fileMetrics.recordStorage(operation, "io_error", System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    /**
+     * 요청 메서드와 S3 하위 리소스 쿼리로 연산을 분류한다. 경로 방식 주소({@code /bucket/key})를 전제로 한다.
+     */
+    static String operation(Request request) {
+        List<String> segments = request.url().pathSegments();
+        boolean hasObject = segments.size() > 1 && !segments.get(1).isEmpty();
+        String method = request.method();
+
+        return switch (method) {
+            case "HEAD" -> hasObject ? "stat" : "bucket";
+            case "GET" -> hasObject ? "get" : "list";
+            case "PUT" -> {
+                if (!hasObject) {
+                    yield "bucket";
+                }
+                if (request.header("x-amz-copy-source") != null) {
+                    yield "copy";
+                }
+                yield request.url().queryParameter("partNumber") != null ? "upload_part" : "put";
+            }
+            case "DELETE" -> {
+                if (!hasObject) {
+                    yield "bucket";
+                }
+                yield request.url().queryParameter("uploadId") != null ? "abort_multipart" : "remove";
+            }
+            case "POST" -> {
+                if (request.url().queryParameterNames().contains("delete")) {
+                    yield "remove_batch";
+                }
+                if (request.url().queryParameterNames().contains("uploads")) {
+                    yield "create_multipart";
+                }
+                yield request.url().queryParameter("uploadId") != null ? "complete_multipart" : "other";
+            }
+            default -> "other";
+        };
+    }
+
+    private static String outcome(int status) {
+        if (status < 400) {
+            return "success";
+        }
+        if (status == 404) {
+            return "not_found";
+        }
+        return status < 500 ? "client_error" : "server_error";
+    }
+}
@@ -1,79 +1,422 @@
 package kr.it.rudy.file.file.presentation.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import kr.it.rudy.file.common.concurrency.Bulkhead;
+import kr.it.rudy.file.common.io.BufferPool;
+import kr.it.rudy.file.common.io.LazySequenceInputStream;
+import kr.it.rudy.file.file.application.dto.BulkDeleteResponse;
+import kr.it.rudy.file.file.application.dto.BulkFileInfoResponse;
+import kr.it.rudy.file.file.application.dto.FileDownload;
+import kr.it.rudy.file.file.application.dto.FileIdsRequest;
+import kr.it.rudy.file.file.application.dto.FilePageResponse;
+import kr.it.rudy.file.file.application.dto.FileSearchRequest;
 import kr.it.rudy.file.file.application.dto.FileResponse;
+import kr.it.rudy.file.file.application.dto.ImageVariant;
+import kr.it.rudy.file.file.application.dto.PresignedUploadResponse;
 import kr.it.rudy.file.file.application.dto.PresignedUrlResponse;
+import kr.it.rudy.file.file.application.dto.StorageUsageResponse;
+import kr.it.rudy.file.file.application.dto.UploadPartResponse;
+import kr.it.rudy.file.file.application.dto.UploadSessionResponse;
+import kr.it.rudy.file.file.application.service.FileArchiveService;
 import kr.it.rudy.file.file.application.service.FileService;
+import kr.it.rudy.file.file.application.service.ImageVariantService;
+import kr.it.rudy.file.file.application.service.StorageUsageService;
+import kr.it.rudy.file.file.application.service.UploadSessionService;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.infrastructure.metrics.FileMetrics;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
+import org.apache.commons.fileupload2.core.DiskFileItem;
+import org.apache.commons.fileupload2.core.DiskFileItemFactory;
+import org.apache.commons.fileupload2.core.FileItemInput;
+import org.apache.commons.fileupload2.core.FileItemInputIterator;
+import org.apache.commons.fileupload2.jakarta.servlet6.JakartaServletFileUpload;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/files")
 public class FileController {
 
+    private static final int JSON_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_FORM_FIELD_LENGTH = 64;
+
     private final FileService fileService;
+    private final UploadSessionService uploadSessionService;
+    private final ImageVariantService imageVariantService;
+    private final FileArchiveService fileArchiveService;
+    private final StorageUsageService storageUsageService;
+    private final Bulkhead uploadBulkhead;
+    private final Bulkhead downloadBulkhead;
+    private final Bulkhead metadataBulkhead;
+    private final Bulkhead listStreamBulkhead;
+    private final BufferPool transferBufferPool;
+    private final ObjectMapper objectMapper;
+    private final FileMetrics fileMetrics;
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<FileResponse> upload(
             @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) Instant expiresAt,
             @AuthenticationPrincipal Jwt jwt
     ) {
         String uploadedBy = jwt.getSubject();
-        FileResponse response = fileService.upload(file, uploadedBy);
+        FileResponse response = uploadBulkhead.call(() -> fileService.upload(file, uploadedBy, expiresAt));
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    /**
+     * 멀티파트 리졸버를 거치지 않고 요청 본문을 직접 파싱해 {@code file} 파트를 곧바로 스토리지로 흘려보낸다.
+     * {@code spring.servlet.multipart.resolve-lazily}가 켜져 있어야 본문이 미리 소비되지 않는다.
+     * 만료 시각은 {@code file} 파트보다 앞선 {@code expiresAt} 폼 필드로 받는다.
+     */
+    @PostMapping(value = "/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<FileResponse> uploadStream(
+            HttpServletRequest request,
+            @AuthenticationPrincipal Jwt jwt
+    ) throws IOException {
+        String uploadedBy = jwt.getSubject();
+        JakartaServletFileUpload<DiskFileItem, DiskFileItemFactory> upload = new JakartaServletFileUpload<>();
+        Instant expiresAt = null;
+
+        try (Bulkhead.Permit permit = uploadBulkhead.acquire()) {
+            FileItemInputIterator items = upload.getItemIterator(request);
+            while (items.hasNext()) {
+                FileItemInput item = items.next();
+                if (item.isFormField() && "expiresAt".equals(item.getFieldName())) {
+                    expiresAt = parseInstant(item);
+                    continue;
+                }
+                if (item.isFormField() || !"file".equals(item.getFieldName())) {
+                    continue;
+                }
+
+                try (InputStream inputStream = item.getInputStream()) {
+                    FileResponse response = fileService.upload(item.getName(), item.getContentType(), inputStream, uploadedBy, expiresAt);
+                    return ResponseEntity.status(HttpStatus.CREATED).body(response);
+                }
+            }
+        }
+
+        throw new IllegalArgumentException("파일이 비어있습니다.");
+    }
+
+    @PostMapping("/uploads")
+    public ResponseEntity<UploadSessionResponse> initiateUpload(
+            @RequestParam String fileName,
+            @RequestParam(required = false) String contentType,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        UploadSessionResponse response = metadataBulkhead.call(() -> uploadSessionService.initiate(fileName, contentType, jwt.getSubject()));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PutMapping("/uploads/{sessionId}/parts/{partNumber}")
+    public ResponseEntity<UploadPartResponse> uploadPart(
+            @PathVariable String sessionId,
+            @PathVariable int partNumber,
+            @RequestHeader(HttpHeaders.CONTENT_LENGTH) long contentLength,
+            InputStream body,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        UploadPartResponse response = uploadBulkhead.call(() -> uploadSessionService.uploadPart(sessionId, partNumber, body, contentLength, jwt.getSubject()));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/uploads/{sessionId}/parts")
+    public ResponseEntity<List<UploadPartResponse>> getUploadedParts(
+            @PathVariable String sessionId,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        List<UploadPartResponse> responses = metadataBulkhead.call(() -> uploadSessionService.getParts(sessionId, jwt.getSubject()));
+        return ResponseEntity.ok(responses);
+    }
+
+    @PostMapping("/uploads/{sessionId}/complete")
+    public ResponseEntity<FileResponse> completeUpload(
+            @PathVariable String sessionId,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        FileResponse response = metadataBulkhead.call(() -> uploadSessionService.complete(sessionId, jwt.getSubject()));
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @DeleteMapping("/uploads/{sessionId}")
+    public ResponseEntity<Void> abortUpload(
+            @PathVariable String sessionId,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        metadataBulkhead.run(() -> uploadSessionService.abort(sessionId, jwt.getSubject()));
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<FileResponse> getFileInfo(@PathVariable String id) {
-        FileResponse response = fileService.getFileInfo(id);
+        FileResponse response = metadataBulkhead.call(() -> fileService.getFileInfo(id));
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<BulkFileInfoResponse> getFileInfos(@RequestBody FileIdsRequest request) {
+        BulkFileInfoResponse response = metadataBulkhead.call(() -> fileService.getFileInfos(request.ids()));
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/batch/delete")
+    public ResponseEntity<BulkDeleteResponse> deleteAll(@RequestBody FileIdsRequest request) {
+        BulkDeleteResponse response = metadataBulkhead.call(() -> fileService.deleteAll(request.ids()));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 요청한 파일들(없으면 내 파일 전체)을 ZIP으로 묶어 만들어지는 대로 내려준다.
+     * 전체 크기를 미리 알 수 없으므로 Content-Length 없이 청크 단위로 전송한다.
+     */
+    @PostMapping("/archive")
+    public ResponseEntity<StreamingResponseBody> archive(
+            @RequestBody(required = false) FileIdsRequest request,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        FileMetrics.DownloadObservation observation = fileMetrics.startDownload();
+        Bulkhead.Permit permit = downloadBulkhead.acquire();
+        try {
+            Iterator<FileMetadata> files = request != null && request.ids() != null && !request.ids().isEmpty()
+                    ? fileArchiveService.findFiles(request.ids()).iterator()
+                    : fileArchiveService.findOwnedFiles(jwt.getSubject());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/zip"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"files.zip\"")
+                    .body(outputStream -> {
+                        try (permit; observation) {
+                            fileArchiveService.write(files, observation.begin(outputStream));
+                        }
+                    });
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
     @GetMapping("/{id}/download")
-    public ResponseEntity<InputStreamResource> download(@PathVariable String id) {
-        FileResponse fileInfo = fileService.getFileInfo(id);
-        InputStream inputStream = fileService.download(id);
+    public ResponseEntity<StreamingResponseBody> download(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        // 허용량은 응답 본문 전송이 끝날 때 반환되며, 본문을 만들기 전에 실패하면 여기서 반환한다.
+        FileMetrics.DownloadObservation observation = fileMetrics.startDownload();
+        Bulkhead.Permit permit = downloadBulkhead.acquire();
+        try {
+            return prepareDownload(id, rangeHeader, acceptEncoding, permit, observation);
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+    }
 
-        String encodedFileName = URLEncoder.encode(fileInfo.originalName(), StandardCharsets.UTF_8)
+    /**
+     * 압축되어 저장된 파일은 클라이언트가 그 인코딩을 받을 수 있으면 저장된 바이트를 {@code Content-Encoding}과 함께
+     * 그대로 보내고, Range도 저장된 바이트 기준으로 처리한다. 받을 수 없으면 풀어서 보내며, 압축 스트림 중간부터는
+     * 풀 수 없으므로 이때는 Range를 무시하고 전체를 보낸다.
+     */
+    private ResponseEntity<StreamingResponseBody> prepareDownload(String id, String rangeHeader, String acceptEncoding, Bulkhead.Permit permit, FileMetrics.DownloadObservation observation) {
+        FileDownload download = fileService.openDownload(id);
+        FileMetadata metadata = download.getMetadata();
+        MediaType contentType = MediaType.parseMediaType(metadata.getContentType());
+        String encodedFileName = URLEncoder.encode(metadata.getOriginalName(), StandardCharsets.UTF_8)
                 .replaceAll("\\+", "%20");
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(fileInfo.contentType()))
+        if (metadata.isEncoded() && !acceptsEncoding(acceptEncoding, metadata.getContentEncoding())) {
+            return ResponseEntity.ok()
+                    .contentType(contentType)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename*=UTF-8''" + encodedFileName)
+                    .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(metadata.getSize()))
+                    .body(stream(permit, observation, download::openDecoded));
+        }
+
+        long size = metadata.getStoredLength();
+
+        List<HttpRange> ranges;
+        try {
+            ranges = resolveRanges(rangeHeader, size);
+        } catch (IllegalArgumentException e) {
+            permit.close();
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = (ranges.isEmpty() ? ResponseEntity.ok() : ResponseEntity.status(HttpStatus.PARTIAL_CONTENT))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
                 .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename*=UTF-8''" + encodedFileName)
-                .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(fileInfo.size()))
-                .body(new InputStreamResource(inputStream));
+                        "attachment; filename*=UTF-8''" + encodedFileName);
+        if (metadata.isEncoded()) {
+            response.header(HttpHeaders.CONTENT_ENCODING, metadata.getContentEncoding())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        if (ranges.isEmpty()) {
+            return response
+                    .contentType(contentType)
+                    .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(size))
+                    .body(transfer(permit, observation, download, 0, -1));
+        }
+
+        if (ranges.size() == 1) {
+            long start = ranges.get(0).getRangeStart(size);
+            long end = ranges.get(0).getRangeEnd(size);
+            return response
+                    .contentType(contentType)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size)
+                    .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(end - start + 1))
+                    .body(transfer(permit, observation, download, start, end - start + 1));
+        }
+
+        // 여러 구간은 multipart/byteranges로 응답하며, 각 구간은 자기 차례가 되었을 때 MinIO에서 해당 범위만 읽는다.
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        List<Supplier<InputStream>> segments = new ArrayList<>();
+        long contentLength = 0;
+
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(size);
+            long end = range.getRangeEnd(size);
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + start + "-" + end + "/" + size + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+
+            segments.add(() -> new ByteArrayInputStream(partHeader));
+            segments.add(() -> download.open(start, end - start + 1));
+            contentLength += partHeader.length + (end - start + 1);
+        }
+
+        byte[] closingBoundary = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        segments.add(() -> new ByteArrayInputStream(closingBoundary));
+        contentLength += closingBoundary.length;
+
+        return response
+                .contentType(MediaType.parseMediaType("multipart/byteranges; boundary=" + boundary))
+                .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(contentLength))
+                .body(stream(permit, observation, () -> new LazySequenceInputStream(segments)));
+    }
+
+    /**
+     * 이미지 파생본을 제공한다. 아직 만들어지는 중이면 202와 Retry-After로 응답한다.
+     * 파생본은 파일 ID와 규격이 같으면 내용이 바뀌지 않으므로 오래 캐시하도록 한다.
+     */
+    @GetMapping("/{id}/variants/{spec}")
+    public ResponseEntity<StreamingResponseBody> getVariant(
+            @PathVariable String id,
+            @PathVariable String spec
+    ) {
+        FileMetrics.DownloadObservation observation = fileMetrics.startDownload();
+        Bulkhead.Permit permit = downloadBulkhead.acquire();
+        try {
+            Optional<ImageVariant> variant = imageVariantService.open(id, spec);
+            if (variant.isEmpty()) {
+                permit.close();
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build();
+            }
+
+            ImageVariant image = variant.get();
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(image.contentType()))
+                    .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(image.size()))
+                    .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                    .body(stream(permit, observation, image::open));
+        } catch (RuntimeException e) {
+            permit.close();
+            throw e;
+        }
     }
 
     @GetMapping("/my")
-    public ResponseEntity<List<FileResponse>> getMyFiles(@AuthenticationPrincipal Jwt jwt) {
+    public ResponseEntity<FilePageResponse> getMyFiles(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
         String uploadedBy = jwt.getSubject();
-        List<FileResponse> responses = fileService.getFilesByUser(uploadedBy);
-        return ResponseEntity.ok(responses);
+        FilePageResponse response = metadataBulkhead.call(() -> fileService.getFiles(uploadedBy, cursor, size));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/my", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamMyFiles(@AuthenticationPrincipal Jwt jwt) {
+        String uploadedBy = jwt.getSubject();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonArray(listStreamBulkhead.acquire(), consumer -> fileService.streamFiles(uploadedBy, consumer)));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<FilePageResponse> search(@AuthenticationPrincipal Jwt jwt, @ModelAttribute FileSearchRequest request) {
+        String uploadedBy = jwt.getSubject();
+        FilePageResponse response = metadataBulkhead.call(() -> fileService.search(uploadedBy, request));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/usage")
+    public ResponseEntity<StorageUsageResponse> getUsage(@AuthenticationPrincipal Jwt jwt) {
+        String uploadedBy = jwt.getSubject();
+        StorageUsageResponse response = metadataBulkhead.call(() -> StorageUsageResponse.from(
+                storageUsageService.getUsage(uploadedBy), storageUsageService.getQuotaBytes()));
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping
-    public ResponseEntity<List<FileResponse>> getAllFiles() {
-        List<FileResponse> responses = fileService.getAllFiles();
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<FilePageResponse> getAllFiles(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        FilePageResponse response = metadataBulkhead.call(() -> fileService.getFiles(null, cursor, size));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllFiles() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonArray(listStreamBulkhead.acquire(), consumer -> fileService.streamFiles(null, consumer)));
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable String id) {
-        fileService.delete(id);
+        metadataBulkhead.run(() -> fileService.delete(id));
         return ResponseEntity.noContent().build();
     }
 
@@ -82,16 +425,140 @@ public class FileController {
             @PathVariable String id,
             @RequestParam(defaultValue = "60") int expiryMinutes
     ) {
-        PresignedUrlResponse response = fileService.getPresignedDownloadUrl(id, expiryMinutes);
+        PresignedUrlResponse response = metadataBulkhead.call(() -> fileService.getPresignedDownloadUrl(id, expiryMinutes));
         return ResponseEntity.ok(response);
     }
 
     @PostMapping("/presigned/upload")
-    public ResponseEntity<PresignedUrlResponse> getPresignedUploadUrl(
+    public ResponseEntity<PresignedUploadResponse> getPresignedUploadUrl(
             @RequestParam String fileName,
-            @RequestParam(defaultValue = "60") int expiryMinutes
+            @RequestParam(required = false) String contentType,
+            @RequestParam long size,
+            @RequestParam(defaultValue = "60") int expiryMinutes,
+            @RequestParam(required = false) Instant expiresAt,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        String uploadedBy = jwt.getSubject();
+        PresignedUploadResponse response = metadataBulkhead.call(() -> fileService.getPresignedUploadUrl(fileName, contentType, size, expiryMinutes, uploadedBy, expiresAt));
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{id}/finalize")
+    public ResponseEntity<FileResponse> finalizeUpload(
+            @PathVariable String id,
+            @AuthenticationPrincipal Jwt jwt
     ) {
-        PresignedUrlResponse response = fileService.getPresignedUploadUrl(fileName, expiryMinutes);
+        String uploadedBy = jwt.getSubject();
+        FileResponse response = metadataBulkhead.call(() -> fileService.finalizeUpload(id, uploadedBy));
         return ResponseEntity.ok(response);
     }
+
+    private Instant parseInstant(FileItemInput item) throws IOException {
+        String value;
+        try (InputStream inputStream = item.getInputStream()) {
+            value = new String(inputStream.readNBytes(MAX_FORM_FIELD_LENGTH), StandardCharsets.UTF_8).trim();
+        }
+        try {
+            return value.isEmpty() ? null : Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("잘못된 만료 시각입니다: " + value);
+        }
+    }
+
+    /**
+     * 응답 본문을 풀링된 버퍼로 복사한다. 소스 스트림은 쓰기 직전에 열고, 클라이언트가 중간에 끊어
+     * 쓰기가 실패하더라도 반드시 닫아 MinIO 연결을 바로 반환한다.
+     */
+    private StreamingResponseBody stream(Bulkhead.Permit permit, FileMetrics.DownloadObservation observation, Supplier<InputStream> source) {
+        return outputStream -> {
+            try (permit; observation) {
+                OutputStream observed = observation.begin(outputStream);
+                try (InputStream inputStream = source.get()) {
+                    transferBufferPool.transfer(inputStream, observed);
+                }
+            }
+        };
+    }
+
+    /**
+     * 다운로드 구간을 내보낸다. 로컬 디스크 캐시에 있으면 {@code transferTo}로, 없으면 풀링된 버퍼로 복사한다.
+     */
+    private StreamingResponseBody transfer(Bulkhead.Permit permit, FileMetrics.DownloadObservation observation, FileDownload download, long offset, long length) {
+        return outputStream -> {
+            try (permit; observation) {
+                download.transfer(observation.begin(outputStream), offset, length, transferBufferPool);
+            }
+        };
+    }
+
+    /**
+     * 행이 넘어오는 대로 JSON 배열 원소로 직렬화해 내보낸다. 목록 전체를 메모리에 올리지 않는다.
+     */
+    private StreamingResponseBody jsonArray(Bulkhead.Permit permit, Consumer<Consumer<FileResponse>> source) {
+        return outputStream -> {
+            try (permit) {
+                writeJsonArray(outputStream, source);
+            }
+        };
+    }
+
+    private void writeJsonArray(OutputStream outputStream, Consumer<Consumer<FileResponse>> source) throws IOException {
+        OutputStream out = new BufferedOutputStream(outputStream, JSON_BUFFER_SIZE);
+        out.write('[');
+        boolean[] first = {true};
+        source.accept(item -> {
+            try {
+                if (!first[0]) {
+                    out.write(',');
+                }
+                first[0] = false;
+                out.write(objectMapper.writeValueAsBytes(item));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.write(']');
+        out.flush();
+    }
+
+    private boolean acceptsEncoding(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase(encoding) && !coding.equals("*")) {
+                continue;
+            }
+            // q=0 은 명시적인 거부다.
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        rejected = Double.parseDouble(param.substring(2)) == 0;
+                    } catch (NumberFormatException e) {
+                        rejected = true;
+                    }
+                }
+            }
+            return !rejected;
+        }
+        return false;
+    }
+
+    private List<HttpRange> resolveRanges(String rangeHeader, long size) {
+        List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+
+        long requested = 0;
+        for (HttpRange range : ranges) {
+            // 만족할 수 없는 구간이면 IllegalArgumentException이 발생한다.
+            requested += range.getRangeEnd(size) - range.getRangeStart(size) + 1;
+        }
+        if (requested > size) {
+            throw new IllegalArgumentException("Requested ranges exceed the file size");
+        }
+        return ranges;
+    }
 }
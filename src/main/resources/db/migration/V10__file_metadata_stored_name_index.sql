@@ -0,0 +1,4 @@
+-- 저장소 정합성 검사 (StorageConsistencyReconciler)
+-- 저장소 목록(UTF-8 바이트 순)과 병합하기 위해 "C" 콜레이션으로 (stored_name, id) 키셋 조회를 한다.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_bucket_stored_name
+    ON file_metadata (bucket, stored_name COLLATE "C", id);
@@ -0,0 +1,15 @@
+-- 파일 메타데이터
+-- 이 테이블은 마이그레이션 도입 전부터 있던 것이므로, 기존 DB에서는 아무것도 하지 않는다.
+CREATE TABLE IF NOT EXISTS file_metadata
+(
+    id            VARCHAR(36)  NOT NULL PRIMARY KEY,
+    original_name VARCHAR(255) NOT NULL,
+    stored_name   VARCHAR(255) NOT NULL,
+    content_type  VARCHAR(255) NOT NULL,
+    size          BIGINT       NOT NULL,
+    extension     VARCHAR(20),
+    uploaded_by   VARCHAR(255) NOT NULL,
+    bucket        VARCHAR(255) NOT NULL,
+    created_dt    TIMESTAMP WITH TIME ZONE,
+    updated_dt    TIMESTAMP WITH TIME ZONE
+);
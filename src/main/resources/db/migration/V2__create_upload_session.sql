@@ -0,0 +1,16 @@
+-- 분할 업로드 세션 (POST /api/files/uploads)
+CREATE TABLE IF NOT EXISTS upload_session
+(
+    id            VARCHAR(36)  NOT NULL PRIMARY KEY,
+    upload_id     VARCHAR(255) NOT NULL,
+    bucket        VARCHAR(255) NOT NULL,
+    stored_name   VARCHAR(255) NOT NULL,
+    original_name VARCHAR(255) NOT NULL,
+    content_type  VARCHAR(255) NOT NULL,
+    extension     VARCHAR(20),
+    uploaded_by   VARCHAR(255) NOT NULL,
+    created_dt    TIMESTAMP WITH TIME ZONE,
+    updated_dt    TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_upload_session_created_dt ON upload_session (created_dt);
@@ -0,0 +1,7 @@
+-- 목록 조회 키셋 페이지네이션 (GET /api/files, GET /api/files/my)
+-- ORDER BY created_dt DESC, id DESC 와 같은 순서로 정렬되어 있어 정렬 없이 LIMIT 만큼만 읽는다.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_uploaded_by_created_dt
+    ON file_metadata (uploaded_by, created_dt DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_created_dt
+    ON file_metadata (created_dt DESC, id DESC);
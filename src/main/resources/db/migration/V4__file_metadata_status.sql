@@ -0,0 +1,8 @@
+-- 2단계 업로드 (PENDING -> ACTIVE)
+-- 기존 행은 모두 전송이 끝난 파일이므로 ACTIVE로 채운다.
+ALTER TABLE file_metadata
+    ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE';
+
+-- PendingUploadReconciler 조회용 (status = 'PENDING' AND created_dt < ? ORDER BY created_dt)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_status_created_dt
+    ON file_metadata (status, created_dt);
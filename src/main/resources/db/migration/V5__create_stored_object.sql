@@ -0,0 +1,12 @@
+-- 내용 주소 중복 제거 (file.dedup.enabled)
+-- sha256/{hex} 객체마다 한 행이며, ref_count는 이 객체를 가리키는 file_metadata 행 수다.
+CREATE TABLE IF NOT EXISTS stored_object
+(
+    bucket      VARCHAR(255) NOT NULL,
+    stored_name VARCHAR(255) NOT NULL,
+    size        BIGINT       NOT NULL,
+    ref_count   BIGINT       NOT NULL,
+    created_dt  TIMESTAMP WITH TIME ZONE,
+    updated_dt  TIMESTAMP WITH TIME ZONE,
+    PRIMARY KEY (bucket, stored_name)
+);
@@ -0,0 +1,5 @@
+-- 압축 저장 (file.compression.enabled)
+-- content_encoding이 NULL이면 원본 그대로 저장된 객체이고, stored_size는 압축된 객체의 바이트 수다.
+ALTER TABLE file_metadata
+    ADD COLUMN IF NOT EXISTS content_encoding VARCHAR(20),
+    ADD COLUMN IF NOT EXISTS stored_size      BIGINT;
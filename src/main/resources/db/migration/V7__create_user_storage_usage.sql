@@ -0,0 +1,11 @@
+-- 사용자별 저장 사용량 (GET /api/files/usage, file.usage.quota-bytes)
+-- 업로드/삭제마다 메모리에 모은 증감을 주기적으로 더하고, file_metadata 집계와 주기적으로 맞춘다.
+-- bytes는 원본 크기(size) 기준이며 ACTIVE 파일만 센다.
+CREATE TABLE IF NOT EXISTS user_storage_usage
+(
+    uploaded_by VARCHAR(255) NOT NULL PRIMARY KEY,
+    bytes       BIGINT       NOT NULL,
+    files       BIGINT       NOT NULL,
+    created_dt  TIMESTAMP WITH TIME ZONE,
+    updated_dt  TIMESTAMP WITH TIME ZONE
+);
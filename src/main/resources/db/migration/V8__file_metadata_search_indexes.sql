@@ -0,0 +1,20 @@
+-- 메타데이터 검색 (GET /api/files/search)
+-- 검색은 항상 소유자 조건이 붙으므로 uploaded_by를 선두로 두고, 정렬 키와 같은 순서로 만들어 정렬 없이 LIMIT 만큼만 읽는다.
+-- 최신순/오래된순과 생성 시각 범위는 idx_file_metadata_uploaded_by_created_dt(V3)를 쓴다.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 이름 부분/접두 일치 (lower(original_name) LIKE '%...%'). 트라이그램이라 세 글자 이상일 때 인덱스를 탄다.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_original_name_trgm
+    ON file_metadata USING gin (lower(original_name) gin_trgm_ops);
+
+-- 크기순 정렬, 크기 범위
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_uploaded_by_size
+    ON file_metadata (uploaded_by, size DESC, id DESC);
+
+-- 이름순 정렬
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_uploaded_by_lower_name
+    ON file_metadata (uploaded_by, lower(original_name), id);
+
+-- 확장자 필터 + 최신순
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_uploaded_by_extension_created_dt
+    ON file_metadata (uploaded_by, lower(extension), created_dt DESC, id DESC);
@@ -0,0 +1,10 @@
+-- 파일 만료 (expiresAt)
+-- null이면 만료되지 않는다.
+ALTER TABLE file_metadata
+    ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP WITH TIME ZONE;
+
+-- FileExpirationSweeper 키셋 조회용 (expires_at <= ? ORDER BY expires_at, id)
+-- 대부분의 행은 만료가 없으므로 만료가 있는 행만 색인한다.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_file_metadata_expires_at
+    ON file_metadata (expires_at, id)
+    WHERE expires_at IS NOT NULL;
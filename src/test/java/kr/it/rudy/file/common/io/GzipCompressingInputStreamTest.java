@@ -0,0 +1,90 @@
+package kr.it.rudy.file.common.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GzipCompressingInputStreamTest {
+
+    @Test
+    void roundTripsText() throws IOException {
+        byte[] original = "안녕하세요, rudy-file. ".repeat(10_000).getBytes(StandardCharsets.UTF_8);
+
+        byte[] compressed = compress(original, 8192, 8192);
+
+        assertThat(compressed.length).isLessThan(original.length);
+        assertThat(gunzip(compressed)).isEqualTo(original);
+    }
+
+    @Test
+    void roundTripsIncompressibleData() throws IOException {
+        byte[] original = new byte[300_000];
+        new Random(42).nextBytes(original);
+
+        assertThat(gunzip(compress(original, 8192, 8192))).isEqualTo(original);
+    }
+
+    @Test
+    void roundTripsEmptyInput() throws IOException {
+        byte[] compressed = compress(new byte[0], 8192, 8192);
+
+        assertThat(gunzip(compressed)).isEmpty();
+    }
+
+    @Test
+    void roundTripsWithOneByteBuffers() throws IOException {
+        byte[] original = "a1b2c3".repeat(5_000).getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(gunzip(compress(original, 1, 1))).isEqualTo(original);
+    }
+
+    @Test
+    void singleByteReadsMatchBulkReads() throws IOException {
+        byte[] original = "single byte read ".repeat(1_000).getBytes(StandardCharsets.US_ASCII);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new GzipCompressingInputStream(new ByteArrayInputStream(original), Deflater.DEFAULT_COMPRESSION, 64)) {
+            int b;
+            while ((b = in.read()) != -1) {
+                out.write(b);
+            }
+        }
+
+        assertThat(out.toByteArray()).isEqualTo(compress(original, 64, 8192));
+        assertThat(gunzip(out.toByteArray())).isEqualTo(original);
+    }
+
+    @Test
+    void sameInputProducesSameOutput() throws IOException {
+        byte[] original = "deterministic".repeat(100).getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(compress(original, 8192, 8192)).isEqualTo(compress(original, 8192, 8192));
+    }
+
+    private byte[] compress(byte[] data, int bufferSize, int readSize) throws IOException {
+        try (InputStream in = new GzipCompressingInputStream(new ByteArrayInputStream(data), Deflater.DEFAULT_COMPRESSION, bufferSize)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[readSize];
+            int n;
+            while ((n = in.read(buffer, 0, buffer.length)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private byte[] gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
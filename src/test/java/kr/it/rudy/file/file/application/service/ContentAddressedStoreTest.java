@@ -0,0 +1,72 @@
+package kr.it.rudy.file.file.application.service;
+
+import kr.it.rudy.file.file.application.storage.ObjectStorage;
+import kr.it.rudy.file.file.domain.StoredObjectRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ContentAddressedStoreTest {
+
+    private static final String BUCKET = "files";
+    private static final String KEY = "sha256/ab12";
+
+    private final ObjectStorage objectStorage = mock(ObjectStorage.class);
+    private final StoredObjectRepository storedObjectRepository = mock(StoredObjectRepository.class);
+    private final ContentAddressedStore store = new ContentAddressedStore(objectStorage, storedObjectRepository);
+
+    @Test
+    void releaseKeepsObjectWhileReferencesRemain() {
+        when(storedObjectRepository.release(BUCKET, KEY, 2)).thenReturn(Optional.of(1L));
+
+        store.release(BUCKET, KEY, 2);
+
+        verifyNoInteractions(objectStorage);
+        verify(storedObjectRepository, never()).deleteIfUnreferenced(anyString(), anyString());
+    }
+
+    @Test
+    void releaseOfLastReferenceRemovesObjectThenRow() throws Exception {
+        when(storedObjectRepository.release(BUCKET, KEY, 3)).thenReturn(Optional.of(0L));
+
+        store.release(BUCKET, KEY, 3);
+
+        InOrder order = inOrder(objectStorage, storedObjectRepository);
+        order.verify(objectStorage).remove(BUCKET, KEY);
+        order.verify(storedObjectRepository).deleteIfUnreferenced(BUCKET, KEY);
+    }
+
+    @Test
+    void releaseOfUnknownObjectDoesNothing() {
+        when(storedObjectRepository.release(BUCKET, KEY, 1)).thenReturn(Optional.empty());
+
+        store.release(BUCKET, KEY, 1);
+
+        verifyNoInteractions(objectStorage);
+        verify(storedObjectRepository, never()).deleteIfUnreferenced(anyString(), anyString());
+    }
+
+    @Test
+    void releaseKeepsRowWhenObjectRemovalFails() throws Exception {
+        when(storedObjectRepository.release(BUCKET, KEY, 1)).thenReturn(Optional.of(0L));
+        doThrow(new IOException("unavailable")).when(objectStorage).remove(BUCKET, KEY);
+
+        assertThatThrownBy(() -> store.release(BUCKET, KEY, 1))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("파일 삭제에 실패했습니다.");
+
+        verify(storedObjectRepository, never()).deleteIfUnreferenced(anyString(), anyString());
+    }
+}
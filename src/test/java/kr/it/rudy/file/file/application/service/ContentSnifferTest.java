@@ -0,0 +1,161 @@
+package kr.it.rudy.file.file.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContentSnifferTest {
+
+    private static final String ALLOWED = "jpg,jpeg,png,gif,webp,pdf,doc,docx,xls,xlsx,ppt,pptx,txt,zip,tar,gz,md";
+
+    private final ContentSniffer sniffer = new ContentSniffer(ALLOWED, true);
+
+    @Test
+    void acceptsEverySignatureAndKeepsTheStreamIntact() throws IOException {
+        Map<String, byte[]> samples = Map.ofEntries(
+                Map.entry("jpg", head(0xFF, 0xD8, 0xFF, 0xE0)),
+                Map.entry("png", head(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)),
+                Map.entry("gif", ascii("GIF89a")),
+                Map.entry("webp", ascii("RIFF\u0001\u0002\u0003\u0004WEBPVP8 ")),
+                Map.entry("pdf", ascii("%PDF-1.7")),
+                Map.entry("zip", head('P', 'K', 0x03, 0x04)),
+                Map.entry("docx", head('P', 'K', 0x03, 0x04)),
+                Map.entry("xls", head(0xD0, 0xCF, 0x11, 0xE0, 0xA1, 0xB1, 0x1A, 0xE1)),
+                Map.entry("gz", head(0x1F, 0x8B, 0x08)),
+                Map.entry("tar", tar()),
+                Map.entry("txt", "안녕하세요\nhello".getBytes(StandardCharsets.UTF_8))
+        );
+
+        for (Map.Entry<String, byte[]> sample : samples.entrySet()) {
+            byte[] content = padded(sample.getValue(), 10_000);
+
+            ContentSniffer.Sniffed sniffed = sniffer.sniff(new ByteArrayInputStream(content), sample.getKey());
+
+            assertThat(sniffed.contentType()).isNotNull();
+            assertThat(sniffed.inputStream().readAllBytes()).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void reportsContentTypeOfTheExtension() throws IOException {
+        assertThat(sniff(head(0xFF, 0xD8, 0xFF), "JPEG")).isEqualTo("image/jpeg");
+        assertThat(sniff(ascii("GIF87a"), "gif")).isEqualTo("image/gif");
+        assertThat(sniff(head('P', 'K', 0x05, 0x06), "xlsx"))
+                .isEqualTo("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        assertThat(sniff(ascii("# 제목"), "md")).isEqualTo("text/markdown");
+    }
+
+    @Test
+    void rejectsContentThatDoesNotMatchExtension() {
+        byte[] jpeg = head(0xFF, 0xD8, 0xFF, 0xE0);
+
+        for (String extension : new String[]{"png", "gif", "webp", "pdf", "zip", "doc", "gz", "tar"}) {
+            assertThatThrownBy(() -> sniff(jpeg, extension))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("파일 내용이 확장자와 일치하지 않습니다");
+        }
+        assertThatThrownBy(() -> sniff(ascii("RIFF\u0000\u0000\u0000\u0000WAVE"), "webp"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sniff(Arrays.copyOf(tar(), 260), "tar"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsBinaryAsText() {
+        assertThatThrownBy(() -> sniff(head('a', 0x00, 'b'), "txt"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sniff(head('a', 0xC3, 0x28), "txt"))
+                .isInstanceOf(IllegalArgumentException.class);
+        // 끝까지 읽은 짧은 파일이 멀티바이트 문자 중간에서 끝나면 잘못된 UTF-8이다.
+        assertThatThrownBy(() -> sniff(head('a', 0xED, 0x95), "txt"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void acceptsMultibyteCharacterCutAtSniffBoundary() throws IOException {
+        byte[] prefix = new byte[ContentSniffer.SNIFF_LENGTH - 2];
+        Arrays.fill(prefix, (byte) 'a');
+        byte[] hangul = "한".getBytes(StandardCharsets.UTF_8);
+        byte[] content = concat(prefix, hangul, "글".getBytes(StandardCharsets.UTF_8));
+
+        ContentSniffer.Sniffed sniffed = sniffer.sniff(new ByteArrayInputStream(content), "txt");
+
+        assertThat(sniffed.contentType()).isEqualTo("text/plain");
+        assertThat(sniffed.inputStream().readAllBytes()).isEqualTo(content);
+
+        byte[] head = Arrays.copyOf(content, ContentSniffer.SNIFF_LENGTH);
+        assertThat(sniffer.detect(head, false, "txt")).isEqualTo("text/plain");
+        assertThatThrownBy(() -> sniffer.detect(head, true, "txt"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void skipsUnknownExtensionsEmptyStreamsAndDisabledSniffing() throws IOException {
+        InputStream unknown = new ByteArrayInputStream(head(0x00, 0x01));
+        ContentSniffer.Sniffed notChecked = sniffer.sniff(unknown, "bin");
+        assertThat(notChecked.contentType()).isNull();
+        assertThat(notChecked.inputStream()).isSameAs(unknown);
+
+        assertThat(sniffer.sniff(new ByteArrayInputStream(new byte[0]), "png").contentType()).isNull();
+        assertThat(sniffer.detect(new byte[0], true, "png")).isNull();
+        assertThat(sniffer.sniff(new ByteArrayInputStream(ascii("x")), null).contentType()).isNull();
+
+        // 허용 목록에 없는 확장자는 시그니처를 알아도 검사하지 않는다.
+        ContentSniffer pngOnly = new ContentSniffer("png", true);
+        assertThat(pngOnly.sniff(new ByteArrayInputStream(ascii("x")), "pdf").contentType()).isNull();
+
+        ContentSniffer disabled = new ContentSniffer(ALLOWED, false);
+        assertThat(disabled.sniff(new ByteArrayInputStream(ascii("not a png")), "png").contentType()).isNull();
+        assertThat(disabled.detect(ascii("not a png"), true, "png")).isNull();
+    }
+
+    private String sniff(byte[] content, String extension) throws IOException {
+        return sniffer.sniff(new ByteArrayInputStream(content), extension).contentType();
+    }
+
+    private static byte[] head(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] tar() {
+        byte[] header = new byte[512];
+        Arrays.fill(header, 0, 8, (byte) 'f');
+        System.arraycopy(ascii("ustar\u000000"), 0, header, 257, 8);
+        return header;
+    }
+
+    /**
+     * 시그니처 뒤를 텍스트로 채워 {@link ContentSniffer#SNIFF_LENGTH}보다 길게 만든다.
+     */
+    private static byte[] padded(byte[] head, int length) {
+        byte[] content = Arrays.copyOf(head, Math.max(length, head.length));
+        Arrays.fill(content, head.length, content.length, (byte) 'x');
+        return content;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        byte[] result = new byte[Arrays.stream(parts).mapToInt(part -> part.length).sum()];
+        int offset = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+}
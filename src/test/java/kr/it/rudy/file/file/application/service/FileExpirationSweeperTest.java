@@ -0,0 +1,133 @@
+package kr.it.rudy.file.file.application.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.it.rudy.file.common.concurrency.AdvisoryLock;
+import kr.it.rudy.file.file.application.dto.BulkDeleteResponse;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileMetadataRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FileExpirationSweeperTest {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int CONCURRENCY = 2;
+
+    private FileMetadataRepository repository;
+    private FileService fileService;
+    private AdvisoryLock advisoryLock;
+    private MeterRegistry meterRegistry;
+    private final List<List<FileMetadata>> purged = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(FileMetadataRepository.class);
+        fileService = mock(FileService.class);
+        advisoryLock = mock(AdvisoryLock.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(advisoryLock.runExclusively(anyString(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        when(fileService.purge(any())).thenAnswer(invocation -> {
+            List<FileMetadata> chunk = List.copyOf(invocation.getArgument(0));
+            purged.add(chunk);
+            return deletedAll(chunk);
+        });
+    }
+
+    @Test
+    void sweepPurgesExpiredFilesInBatchesUntilThePageRunsShort() {
+        List<FileMetadata> first = files(4);
+        List<FileMetadata> second = files(1);
+        when(repository.findExpiredBefore(any(), isNull(), eq(BATCH_SIZE * CONCURRENCY))).thenReturn(first);
+        when(repository.findExpiredBefore(any(), eq(first.get(3)), eq(BATCH_SIZE * CONCURRENCY))).thenReturn(second);
+        when(repository.countExpiredBefore(any())).thenReturn(0L);
+
+        sweeper(100).sweep();
+
+        assertThat(purged).containsExactly(first.subList(0, 2), first.subList(2, 4), second);
+        assertThat(count("deleted")).isEqualTo(5);
+        assertThat(count("failed")).isZero();
+        verify(repository, never()).findExpiredBefore(any(), eq(second.get(0)), anyInt());
+    }
+
+    @Test
+    void failedBatchIsCountedAndTheSweepContinues() {
+        List<FileMetadata> page = files(4);
+        when(repository.findExpiredBefore(any(), isNull(), anyInt())).thenReturn(page);
+        when(repository.findExpiredBefore(any(), eq(page.get(3)), anyInt())).thenReturn(List.of());
+        doThrow(new RuntimeException("파일 삭제에 실패했습니다.")).when(fileService).purge(page.subList(0, 2));
+        when(repository.countExpiredBefore(any())).thenReturn(2L);
+
+        sweeper(100).sweep();
+
+        assertThat(count("deleted")).isEqualTo(2);
+        assertThat(count("failed")).isEqualTo(2);
+        assertThat(meterRegistry.get("file.expiration.backlog").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void sweepStopsAtTheLimitPerSweep() {
+        List<FileMetadata> page = files(4);
+        when(repository.findExpiredBefore(any(), any(), anyInt())).thenReturn(page);
+
+        sweeper(4).sweep();
+
+        assertThat(purged).hasSize(2);
+        verify(repository, never()).findExpiredBefore(any(), eq(page.get(3)), anyInt());
+    }
+
+    @Test
+    void sweepIsSkippedWhenAnotherNodeHoldsTheLock() {
+        doReturn(false).when(advisoryLock).runExclusively(anyString(), any());
+
+        sweeper(100).sweep();
+
+        verify(repository, never()).findExpiredBefore(any(), any(), anyInt());
+        verify(fileService, never()).purge(any());
+    }
+
+    private FileExpirationSweeper sweeper(long maxFilesPerSweep) {
+        return new FileExpirationSweeper(repository, fileService, advisoryLock, Runnable::run, meterRegistry,
+                BATCH_SIZE, CONCURRENCY, 0, maxFilesPerSweep);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("file.expiration.files").tag("result", result).counter().count();
+    }
+
+    private static List<FileMetadata> files(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    FileMetadata metadata = FileMetadata.create("file" + i + ".txt", "stored" + i + ".txt", "text/plain", 10L, "txt", "user-1", "files");
+                    metadata.expireAt(Instant.parse("2026-01-01T00:00:00Z"));
+                    return metadata;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static BulkDeleteResponse deletedAll(List<FileMetadata> chunk) {
+        return new BulkDeleteResponse(chunk.stream().map(metadata -> metadata.getId().getValue()).collect(Collectors.toList()), List.of());
+    }
+}
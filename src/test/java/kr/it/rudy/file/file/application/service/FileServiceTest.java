@@ -0,0 +1,284 @@
+package kr.it.rudy.file.file.application.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.it.rudy.file.file.application.dto.BulkDeleteResponse;
+import kr.it.rudy.file.file.application.dto.FileResponse;
+import kr.it.rudy.file.file.application.storage.ObjectStat;
+import kr.it.rudy.file.file.application.storage.ObjectStorage;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileMetadataRepository;
+import kr.it.rudy.file.file.domain.FileStatus;
+import kr.it.rudy.file.file.infrastructure.cache.ObjectDiskCache;
+import kr.it.rudy.file.file.infrastructure.cache.PresignedUrlCache;
+import kr.it.rudy.file.file.infrastructure.metrics.FileMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class FileServiceTest {
+
+    private static final String ALLOWED = "jpg,png,pdf,txt,zip";
+    private static final String BUCKET = "files";
+    private static final String OWNER = "user-1";
+
+    private ObjectStorage objectStorage;
+    private FileMetadataRepository fileMetadataRepository;
+    private ContentAddressedStore contentAddressedStore;
+    private StorageUsageService storageUsageService;
+    private FileService fileService;
+
+    @BeforeEach
+    void setUp() {
+        objectStorage = mock(ObjectStorage.class);
+        fileMetadataRepository = mock(FileMetadataRepository.class);
+        contentAddressedStore = mock(ContentAddressedStore.class);
+        storageUsageService = mock(StorageUsageService.class);
+        fileService = new FileService(
+                objectStorage,
+                fileMetadataRepository,
+                new FilePolicy(ALLOWED, "txt", "jpg,png,zip"),
+                contentAddressedStore,
+                mock(PresignedUrlCache.class),
+                mock(ObjectDiskCache.class),
+                mock(ImageVariantService.class),
+                new FileMetrics(new SimpleMeterRegistry()),
+                storageUsageService,
+                new ContentSniffer(ALLOWED, true)
+        );
+        ReflectionTestUtils.setField(fileService, "bucket", BUCKET);
+        ReflectionTestUtils.setField(fileService, "maxFileSize", 10L * 1024 * 1024);
+        ReflectionTestUtils.setField(fileService, "maxBatchSize", 1000);
+        ReflectionTestUtils.setField(fileService, "listStreamTimeout", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(fileService, "compressionLevel", 6);
+    }
+
+    @Test
+    void storeReservesPendingRowTransfersThenActivates() throws Exception {
+        byte[] pdf = pdf(5_000);
+        List<FileStatus> savedStatuses = new ArrayList<>();
+        when(fileMetadataRepository.save(any())).thenAnswer(invocation -> {
+            FileMetadata metadata = invocation.getArgument(0);
+            savedStatuses.add(metadata.getStatus());
+            return metadata;
+        });
+        doAnswer(invocation -> {
+            invocation.<InputStream>getArgument(2).readAllBytes();
+            return null;
+        }).when(objectStorage).put(eq(BUCKET), anyString(), any(), anyLong(), any(), any());
+
+        FileResponse response = fileService.upload("report.pdf", "application/octet-stream", new ByteArrayInputStream(pdf), OWNER, null);
+
+        assertThat(savedStatuses).containsExactly(FileStatus.PENDING, FileStatus.ACTIVE);
+        assertThat(response.size()).isEqualTo(pdf.length);
+        assertThat(response.contentType()).isEqualTo("application/pdf");
+        InOrder order = inOrder(fileMetadataRepository, objectStorage, storageUsageService);
+        order.verify(fileMetadataRepository).save(any());
+        order.verify(objectStorage).put(eq(BUCKET), anyString(), any(), anyLong(), eq("application/pdf"), any());
+        order.verify(fileMetadataRepository).save(any());
+        order.verify(storageUsageService).recordUpload(OWNER, pdf.length);
+    }
+
+    @Test
+    void storeDiscardsPendingRowWhenTransferFails() throws Exception {
+        List<FileMetadata> saved = new ArrayList<>();
+        when(fileMetadataRepository.save(any())).thenAnswer(invocation -> {
+            saved.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        doThrow(new IOException("connection reset"))
+                .when(objectStorage).put(eq(BUCKET), anyString(), any(), anyLong(), any(), any());
+
+        assertThatThrownBy(() -> fileService.upload("report.pdf", null, new ByteArrayInputStream(pdf(100)), OWNER, null))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("파일 업로드에 실패했습니다.");
+
+        FileMetadata pending = saved.get(0);
+        assertThat(saved).hasSize(1);
+        verify(objectStorage).remove(BUCKET, pending.getStoredName());
+        verify(fileMetadataRepository).delete(pending.getId());
+        verify(storageUsageService, never()).recordUpload(any(), anyLong());
+    }
+
+    @Test
+    void storeRejectsMismatchedContentBeforeWritingAnything() throws Exception {
+        byte[] notAPng = "plain text pretending to be an image".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> fileService.upload("photo.png", "image/png", new ByteArrayInputStream(notAPng), OWNER, null))
+                .isInstanceOf(ContentMismatchException.class)
+                .hasMessageContaining("png");
+
+        verify(objectStorage, never()).put(anyString(), anyString(), any(), anyLong(), any(), any());
+        verify(fileMetadataRepository, never()).save(any());
+        verify(storageUsageService, never()).recordUpload(any(), anyLong());
+        verifyNoInteractions(contentAddressedStore);
+    }
+
+    @Test
+    void finalizeUploadActivatesReservationWhenObjectMatches() throws Exception {
+        FileMetadata pending = reservation(100, "application/pdf");
+        when(fileMetadataRepository.findById(pending.getId())).thenReturn(Optional.of(pending));
+        when(fileMetadataRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(objectStorage.stat(BUCKET, pending.getStoredName())).thenReturn(Optional.of(new ObjectStat(100, "application/pdf")));
+        when(objectStorage.get(BUCKET, pending.getStoredName(), 0, ContentSniffer.SNIFF_LENGTH))
+                .thenReturn(new ByteArrayInputStream(pdf(100)));
+
+        FileResponse response = fileService.finalizeUpload(pending.getId().getValue(), OWNER);
+
+        assertThat(pending.isActive()).isTrue();
+        assertThat(response.size()).isEqualTo(100);
+        verify(fileMetadataRepository).save(pending);
+        verify(storageUsageService).recordUpload(OWNER, 100);
+    }
+
+    @Test
+    void finalizeUploadDiscardsReservationWhenSizeDiffers() throws Exception {
+        FileMetadata pending = reservation(100, "application/pdf");
+        when(fileMetadataRepository.findById(pending.getId())).thenReturn(Optional.of(pending));
+        when(objectStorage.stat(BUCKET, pending.getStoredName())).thenReturn(Optional.of(new ObjectStat(99, "application/pdf")));
+
+        assertThatThrownBy(() -> fileService.finalizeUpload(pending.getId().getValue(), OWNER))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("크기");
+
+        verify(objectStorage).remove(BUCKET, pending.getStoredName());
+        verify(fileMetadataRepository).delete(pending.getId());
+        verify(fileMetadataRepository, never()).save(any());
+        verify(storageUsageService, never()).recordUpload(any(), anyLong());
+    }
+
+    @Test
+    void finalizeUploadDiscardsReservationWhenContentMismatches() throws Exception {
+        FileMetadata pending = reservation(100, "application/pdf");
+        when(fileMetadataRepository.findById(pending.getId())).thenReturn(Optional.of(pending));
+        when(objectStorage.stat(BUCKET, pending.getStoredName())).thenReturn(Optional.of(new ObjectStat(100, "application/pdf")));
+        when(objectStorage.get(BUCKET, pending.getStoredName(), 0, ContentSniffer.SNIFF_LENGTH))
+                .thenReturn(new ByteArrayInputStream(new byte[100]));
+
+        assertThatThrownBy(() -> fileService.finalizeUpload(pending.getId().getValue(), OWNER))
+                .isInstanceOf(ContentMismatchException.class);
+
+        verify(objectStorage).remove(BUCKET, pending.getStoredName());
+        verify(fileMetadataRepository).delete(pending.getId());
+        verify(fileMetadataRepository, never()).save(any());
+    }
+
+    @Test
+    void finalizeUploadReturnsAlreadyActiveFileWithoutCheckingStorage() throws Exception {
+        FileMetadata active = reservation(100, "application/pdf");
+        active.activate(100);
+        when(fileMetadataRepository.findById(active.getId())).thenReturn(Optional.of(active));
+
+        FileResponse response = fileService.finalizeUpload(active.getId().getValue(), OWNER);
+
+        assertThat(response.id()).isEqualTo(active.getId().getValue());
+        verify(objectStorage, never()).stat(anyString(), anyString());
+        verify(fileMetadataRepository, never()).save(any());
+    }
+
+    @Test
+    void finalizeUploadRejectsAnotherUsersReservation() throws Exception {
+        FileMetadata pending = reservation(100, "application/pdf");
+        when(fileMetadataRepository.findById(pending.getId())).thenReturn(Optional.of(pending));
+
+        assertThatThrownBy(() -> fileService.finalizeUpload(pending.getId().getValue(), "someone-else"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("파일을 찾을 수 없습니다");
+
+        verify(objectStorage, never()).stat(anyString(), anyString());
+        verify(objectStorage, never()).remove(anyString(), anyString());
+    }
+
+    @Test
+    void purgeRemovesObjectsPerBucketAndDeletesOnlyRowsWhoseObjectsWereRemoved() throws Exception {
+        FileMetadata kept = stored("a.txt", BUCKET, 10);
+        FileMetadata failed = stored("b.txt", BUCKET, 20);
+        FileMetadata archived = stored("c.txt", "archive", 30);
+        when(contentAddressedStore.isContentAddressed(anyString())).thenReturn(false);
+        when(objectStorage.removeAll(eq(BUCKET), any())).thenReturn(Map.of(failed.getStoredName(), "AccessDenied"));
+        when(objectStorage.removeAll(eq("archive"), any())).thenReturn(Map.of());
+
+        BulkDeleteResponse response = fileService.purge(List.of(kept, failed, archived));
+
+        assertThat(response.deleted()).containsExactlyInAnyOrder(kept.getId().getValue(), archived.getId().getValue());
+        assertThat(response.failed()).containsExactly(new BulkDeleteResponse.Failure(failed.getId().getValue(), "AccessDenied"));
+        verify(objectStorage).removeAll(eq(BUCKET), argThat(names -> names.containsAll(List.of(kept.getStoredName(), failed.getStoredName())) && names.size() == 2));
+        verify(objectStorage).removeAll("archive", List.of(archived.getStoredName()));
+        verify(fileMetadataRepository).deleteAllById(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(kept.getId(), archived.getId()))));
+        verify(storageUsageService).recordDelete(OWNER, 10);
+        verify(storageUsageService).recordDelete(OWNER, 30);
+        verify(storageUsageService, never()).recordDelete(OWNER, 20);
+    }
+
+    @Test
+    void purgeReleasesEachContentAddressedObjectOnceWithItsReferenceCount() throws Exception {
+        FileMetadata first = stored("sha256/ab12", BUCKET, 10);
+        FileMetadata second = stored("sha256/ab12", BUCKET, 10);
+        FileMetadata other = stored("sha256/cd34", BUCKET, 10);
+        when(contentAddressedStore.isContentAddressed(anyString())).thenReturn(true);
+
+        BulkDeleteResponse response = fileService.purge(List.of(first, second, other));
+
+        assertThat(response.deleted()).hasSize(3);
+        verify(objectStorage, never()).removeAll(anyString(), any());
+        InOrder order = inOrder(fileMetadataRepository, contentAddressedStore);
+        order.verify(fileMetadataRepository).deleteAllById(any());
+        order.verify(contentAddressedStore).release(BUCKET, "sha256/ab12", 2);
+        verify(contentAddressedStore).release(BUCKET, "sha256/cd34", 1);
+    }
+
+    @Test
+    void purgeTreatsAFailedBatchRemovalAsFailureForEveryFile() throws Exception {
+        FileMetadata first = stored("a.txt", BUCKET, 10);
+        FileMetadata second = stored("b.txt", BUCKET, 10);
+        when(objectStorage.removeAll(eq(BUCKET), any())).thenThrow(new IOException("unavailable"));
+
+        BulkDeleteResponse response = fileService.purge(List.of(first, second));
+
+        assertThat(response.deleted()).isEmpty();
+        assertThat(response.failed()).extracting(BulkDeleteResponse.Failure::reason).containsOnly("STORAGE_ERROR");
+        verify(fileMetadataRepository, never()).deleteAllById(any());
+        verify(storageUsageService, never()).recordDelete(any(), anyLong());
+    }
+
+    private static FileMetadata reservation(long size, String contentType) {
+        return FileMetadata.pending("report.pdf", "reserved.pdf", contentType, size, "pdf", OWNER, BUCKET);
+    }
+
+    private static FileMetadata stored(String storedName, String bucket, long size) {
+        return FileMetadata.create("name-" + storedName, storedName, "text/plain", size, "txt", OWNER, bucket);
+    }
+
+    private static byte[] pdf(int size) {
+        byte[] data = new byte[size];
+        byte[] signature = "%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(signature, 0, data, 0, signature.length);
+        return data;
+    }
+}
@@ -0,0 +1,229 @@
+package kr.it.rudy.file.file.application.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.it.rudy.file.common.concurrency.AdvisoryLock;
+import kr.it.rudy.file.file.application.dto.BulkDeleteResponse;
+import kr.it.rudy.file.file.application.storage.ObjectEntry;
+import kr.it.rudy.file.file.application.storage.ObjectStorage;
+import kr.it.rudy.file.file.domain.FileId;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileMetadataRepository;
+import kr.it.rudy.file.file.domain.FileStatus;
+import kr.it.rudy.file.file.domain.StoredNameReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 저장소 목록과 메타데이터 조회를 UTF-8 바이트 순으로 정렬된 목록으로 흉내 내고 병합 결과를 확인한다.
+ */
+class StorageConsistencyReconcilerTest {
+
+    private static final String BUCKET = "bucket";
+    private static final Instant OLD = Instant.now().minus(Duration.ofDays(7));
+    private static final Comparator<String> UTF8_ORDER =
+            (a, b) -> Arrays.compareUnsigned(a.getBytes(StandardCharsets.UTF_8), b.getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectStorage objectStorage = mock(ObjectStorage.class);
+    private final FileMetadataRepository fileMetadataRepository = mock(FileMetadataRepository.class);
+    private final FileService fileService = mock(FileService.class);
+    private final ContentAddressedStore contentAddressedStore = new ContentAddressedStore(objectStorage, null);
+    private final AdvisoryLock advisoryLock = mock(AdvisoryLock.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<ObjectEntry> objects = new ArrayList<>();
+    private final List<StoredNameReference> references = new ArrayList<>();
+    private final Map<FileId, FileMetadata> metadata = new HashMap<>();
+    private final Set<String> removed = new HashSet<>();
+    private final List<FileId> purged = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(advisoryLock.runExclusively(anyString(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        when(objectStorage.list(BUCKET)).thenAnswer(invocation -> objects.stream()
+                .sorted(Comparator.comparing(ObjectEntry::name, UTF8_ORDER)));
+        when(objectStorage.stat(eq(BUCKET), anyString())).thenReturn(Optional.empty());
+        when(objectStorage.removeAll(eq(BUCKET), anyCollection())).thenAnswer(invocation -> {
+            removed.addAll(invocation.<Collection<String>>getArgument(1));
+            return Map.of();
+        });
+        when(fileMetadataRepository.findStoredNames(eq(BUCKET), any(), any(), anyInt()))
+                .thenAnswer(invocation -> page(invocation.getArgument(1), invocation.getArgument(3)));
+        when(fileMetadataRepository.findAllById(anyCollection())).thenAnswer(invocation -> invocation.<Collection<FileId>>getArgument(0).stream()
+                .map(metadata::get)
+                .filter(found -> found != null)
+                .collect(Collectors.toList()));
+        when(fileService.purge(any())).thenAnswer(invocation -> {
+            List<FileMetadata> files = invocation.getArgument(0);
+            files.forEach(file -> purged.add(file.getId()));
+            return new BulkDeleteResponse(files.stream().map(file -> file.getId().getValue()).collect(Collectors.toList()), List.of());
+        });
+    }
+
+    @Test
+    void matchingObjectsAndReferencesAreConsistent() {
+        object("a/one");
+        object("b/two");
+        reference("file-1", "a/one", FileStatus.ACTIVE);
+        reference("file-2", "b/two", FileStatus.ACTIVE);
+
+        reconciler(true, 2).reconcile();
+
+        assertFound(0, 0);
+        assertThat(removed).isEmpty();
+        assertThat(purged).isEmpty();
+    }
+
+    @Test
+    void duplicateReferencesToOneObjectAreConsumedTogether() {
+        object("sha256/aaaa");
+        object("sha256/bbbb");
+        reference("file-1", "sha256/aaaa", FileStatus.ACTIVE);
+        reference("file-2", "sha256/aaaa", FileStatus.ACTIVE);
+        reference("file-3", "sha256/aaaa", FileStatus.ACTIVE);
+        reference("file-4", "sha256/bbbb", FileStatus.ACTIVE);
+
+        // 배치 크기 2라 같은 이름의 참조가 페이지 경계를 넘는다.
+        reconciler(true, 2).reconcile();
+
+        assertFound(0, 0);
+        assertThat(purged).isEmpty();
+    }
+
+    @Test
+    void reportsOrphansAndDanglingReferences() {
+        object("a/kept");
+        object("c/orphan");
+        object("sha256/orphan");
+        reference("file-1", "a/kept", FileStatus.ACTIVE);
+        reference("file-2", "b/missing", FileStatus.ACTIVE);
+        reference("file-3", "b/pending", FileStatus.PENDING);
+        unsettledReference("file-4", "b/uploading");
+
+        reconciler(true, 2).reconcile();
+
+        assertFound(2, 1);
+        // 내용 주소 객체는 보고만 한다.
+        assertThat(removed).isEqualTo(Set.of("c/orphan"));
+        assertThat(purged).isEqualTo(List.of(FileId.of("file-2")));
+    }
+
+    @Test
+    void skipsObjectsInsideGracePeriod() {
+        objects.add(new ObjectEntry("c/new", 1, Instant.now()));
+
+        reconciler(true, 2).reconcile();
+
+        assertFound(0, 0);
+        assertThat(removed).isEmpty();
+    }
+
+    @Test
+    void variantsAreOrphanedOnlyWhenSourceFileIsGone() {
+        object("a/one");
+        reference("file-1", "a/one", FileStatus.ACTIVE);
+        object("variants/file-1/w256.jpg");
+        object("variants/file-1/w512.jpg");
+        object("variants/file-9/w256.jpg");
+        object("variants/malformed");
+
+        reconciler(true, 2).reconcile();
+
+        assertFound(2, 0);
+        assertThat(removed).isEqualTo(Set.of("variants/file-9/w256.jpg", "variants/malformed"));
+    }
+
+    @Test
+    void mergesSupplementaryCharactersInUtf8Order() {
+        // UTF-16 비교로는 U+1F600(서로게이트 D83D)이 U+FFFD보다 앞서지만 UTF-8 바이트 순으로는 뒤다.
+        // 순서를 잘못 비교하면 짝이 어긋나 멀쩡한 객체와 참조까지 고아/끊긴 참조로 잡힌다.
+        object("n/\uFFFD");
+        object("n/\uD83D\uDE00");
+        object("n/\uD83D\uDE00/x");
+        reference("file-1", "n/\uD83D\uDE00", FileStatus.ACTIVE);
+        reference("file-2", "n/\uD83D\uDE00/x", FileStatus.ACTIVE);
+
+        reconciler(true, 1).reconcile();
+
+        assertFound(1, 0);
+        assertThat(removed).isEqualTo(Set.of("n/\uFFFD"));
+        assertThat(purged).isEmpty();
+    }
+
+    @Test
+    void reportOnlyModeDoesNotRepair() throws Exception {
+        object("c/orphan");
+        reference("file-2", "b/missing", FileStatus.ACTIVE);
+
+        reconciler(false, 2).reconcile();
+
+        assertFound(1, 1);
+        verify(objectStorage, never()).removeAll(anyString(), anyCollection());
+        verify(fileService, never()).purge(any());
+    }
+
+    private StorageConsistencyReconciler reconciler(boolean repair, int batchSize) {
+        return new StorageConsistencyReconciler(objectStorage, fileMetadataRepository, fileService, contentAddressedStore,
+                advisoryLock, meterRegistry, BUCKET, Duration.ofHours(24), repair, batchSize, 100);
+    }
+
+    private void object(String name) {
+        objects.add(new ObjectEntry(name, 1, OLD));
+    }
+
+    private void reference(String id, String storedName, FileStatus status) {
+        references.add(new StoredNameReference(FileId.of(id), storedName, status, true));
+        metadata.put(FileId.of(id), FileMetadata.reconstitute(FileId.of(id), id + ".txt", storedName, "text/plain", 1L,
+                "txt", "user", BUCKET, status, null, null, null, OLD, OLD));
+    }
+
+    private void unsettledReference(String id, String storedName) {
+        references.add(new StoredNameReference(FileId.of(id), storedName, FileStatus.ACTIVE, false));
+    }
+
+    /**
+     * {@link FileMetadataRepository#findStoredNames}의 (저장 이름 UTF-8 바이트 순, id) 키셋 페이지.
+     */
+    private List<StoredNameReference> page(StoredNameReference after, int limit) {
+        Comparator<StoredNameReference> order = Comparator.comparing(StoredNameReference::storedName, UTF8_ORDER)
+                .thenComparing(reference -> reference.id().getValue());
+        return references.stream()
+                .sorted(order)
+                .filter(reference -> after == null || order.compare(reference, after) > 0)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private void assertFound(double orphans, double dangling) {
+        assertThat(meterRegistry.get("file.reconcile.found").tag("kind", "orphan_object").gauge().value()).isEqualTo(orphans);
+        assertThat(meterRegistry.get("file.reconcile.found").tag("kind", "dangling_reference").gauge().value()).isEqualTo(dangling);
+    }
+}
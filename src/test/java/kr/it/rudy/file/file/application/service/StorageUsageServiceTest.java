@@ -0,0 +1,152 @@
+package kr.it.rudy.file.file.application.service;
+
+import kr.it.rudy.file.common.concurrency.AdvisoryLock;
+import kr.it.rudy.file.file.domain.StorageUsage;
+import kr.it.rudy.file.file.domain.StorageUsageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StorageUsageServiceTest {
+
+    private static final long QUOTA = 1_000;
+
+    private StorageUsageRepository repository;
+    private AdvisoryLock advisoryLock;
+    private StorageUsageService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(StorageUsageRepository.class);
+        advisoryLock = mock(AdvisoryLock.class);
+        when(repository.findByUploadedBy(anyString())).thenReturn(Optional.empty());
+        service = new StorageUsageService(repository, advisoryLock, QUOTA, Duration.ZERO, 1_000, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void flushAddsAccumulatedDeltasOncePerUser() {
+        service.recordUpload("alice", 100);
+        service.recordUpload("alice", 100);
+        service.recordDelete("alice", 30);
+        service.recordUpload("bob", 10);
+
+        service.flush();
+        service.flush();
+
+        verify(repository).add("alice", 170, 1);
+        verify(repository).add("bob", 10, 1);
+        verify(repository, times(2)).add(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void flushSkipsDeltasThatCancelOut() {
+        service.recordUpload("alice", 100);
+        service.recordDelete("alice", 100);
+
+        service.flush();
+
+        verify(repository, never()).add(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void failedFlushIsRetriedWithLaterDeltas() {
+        doThrow(new IllegalStateException("connection refused"))
+                .doNothing()
+                .when(repository).add(eq("alice"), anyLong(), anyLong());
+        service.recordUpload("alice", 100);
+
+        service.flush();
+        service.recordUpload("alice", 50);
+        service.flush();
+
+        verify(repository).add("alice", 100, 1);
+        verify(repository).add("alice", 150, 2);
+    }
+
+    @Test
+    void usageIncludesPendingDeltasUntilFlushed() {
+        when(repository.findByUploadedBy("alice"))
+                .thenReturn(Optional.of(new StorageUsage("alice", 500, 5)))
+                .thenReturn(Optional.of(new StorageUsage("alice", 900, 6)));
+
+        service.recordUpload("alice", 400);
+        assertThat(service.getUsage("alice")).isEqualTo(new StorageUsage("alice", 900, 6));
+        assertThatThrownBy(() -> service.checkQuota("alice", 101))
+                .isInstanceOf(QuotaExceededException.class);
+
+        service.flush();
+
+        assertThat(service.getUsage("alice")).isEqualTo(new StorageUsage("alice", 900, 6));
+        verify(repository, times(2)).findByUploadedBy("alice");
+    }
+
+    @Test
+    void reconcileFlushesThenOverwritesOnlyRowsUnchangedSinceTheSnapshot() {
+        runLockedTasks(true);
+        Instant snapshot = Instant.parse("2026-01-01T04:30:00Z");
+        StorageUsage alice = new StorageUsage("alice", 700, 7);
+        StorageUsage bob = new StorageUsage("bob", 20, 2);
+        when(repository.currentTime()).thenReturn(snapshot);
+        when(repository.findDrifted()).thenReturn(List.of(alice, bob));
+        when(repository.overwriteIfUnchangedSince(alice, snapshot)).thenReturn(true);
+        when(repository.overwriteIfUnchangedSince(bob, snapshot)).thenReturn(false);
+        service.recordUpload("alice", 100);
+
+        service.reconcile();
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).add("alice", 100, 1);
+        order.verify(repository).currentTime();
+        order.verify(repository).findDrifted();
+        order.verify(repository).overwriteIfUnchangedSince(alice, snapshot);
+        order.verify(repository).overwriteIfUnchangedSince(bob, snapshot);
+    }
+
+    @Test
+    void reconcileWithoutDriftOverwritesNothing() {
+        runLockedTasks(true);
+        when(repository.findDrifted()).thenReturn(List.of());
+
+        service.reconcile();
+
+        verify(repository, never()).overwriteIfUnchangedSince(any(), any());
+    }
+
+    @Test
+    void reconcileIsSkippedWhenAnotherNodeHoldsTheLock() {
+        runLockedTasks(false);
+
+        service.reconcile();
+
+        verify(repository, never()).findDrifted();
+        verify(repository, never()).overwriteIfUnchangedSince(any(), any());
+    }
+
+    private void runLockedTasks(boolean acquired) {
+        when(advisoryLock.runExclusively(anyString(), any())).thenAnswer(invocation -> {
+            if (acquired) {
+                invocation.<Runnable>getArgument(1).run();
+            }
+            return acquired;
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package kr.it.rudy.file.file.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileSearchCursorTest {
+
+    private static final String ID = "3f2b8c1e-7d4a-4e6b-9a0c-1b2d3e4f5a6b";
+
+    @Test
+    void roundTripsEverySort() {
+        FileSummary last = summary("보고서.pdf", 1_234L, Instant.parse("2026-01-02T03:04:05.123456Z"));
+
+        for (FileSearchSort sort : FileSearchSort.values()) {
+            FileSearchCursor cursor = FileSearchCursor.of(sort, last);
+
+            assertThat(FileSearchCursor.decode(cursor.encode(), sort)).isEqualTo(cursor);
+        }
+    }
+
+    @Test
+    void keepsSeparatorsInsideNames() {
+        for (String name : new String[]{"a|b|c.txt", "|leading", "trailing|", "||", ""}) {
+            FileSearchCursor cursor = FileSearchCursor.of(FileSearchSort.NAME, summary(name, 1L, Instant.EPOCH));
+
+            FileSearchCursor decoded = FileSearchCursor.decode(cursor.encode(), FileSearchSort.NAME);
+
+            assertThat(decoded.key()).isEqualTo(name);
+            assertThat(decoded.id()).isEqualTo(ID);
+        }
+    }
+
+    @Test
+    void encodesUrlSafeWithoutPadding() {
+        FileSearchCursor cursor = FileSearchCursor.of(FileSearchSort.NAME_DESC, summary("??>>~~.txt", 1L, Instant.EPOCH));
+
+        assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsCursorFromAnotherSort() {
+        String encoded = FileSearchCursor.of(FileSearchSort.LATEST, summary("a.txt", 1L, Instant.EPOCH)).encode();
+
+        assertThatThrownBy(() -> FileSearchCursor.decode(encoded, FileSearchSort.OLDEST))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("커서의 정렬이 요청한 정렬과 다릅니다");
+    }
+
+    @Test
+    void rejectsKeyThatDoesNotMatchSort() {
+        assertThatThrownBy(() -> FileSearchCursor.decode(raw("LARGEST|" + ID + "|abc"), FileSearchSort.LARGEST))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("잘못된 커서입니다");
+        assertThatThrownBy(() -> FileSearchCursor.decode(raw("LATEST|" + ID + "|yesterday"), FileSearchSort.LATEST))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("잘못된 커서입니다");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String value : new String[]{"not base64!", raw("NAME"), raw("NAME|" + ID), raw("UNKNOWN|" + ID + "|a")}) {
+            assertThatThrownBy(() -> FileSearchCursor.decode(value, FileSearchSort.NAME))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("잘못된 커서입니다");
+        }
+    }
+
+    private FileSummary summary(String name, long size, Instant createdDt) {
+        return new FileSummary(ID, name, "application/octet-stream", size, "txt", "user", createdDt, null);
+    }
+
+    private String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
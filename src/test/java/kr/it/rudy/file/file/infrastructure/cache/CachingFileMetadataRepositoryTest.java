@@ -0,0 +1,97 @@
+package kr.it.rudy.file.file.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.it.rudy.file.file.domain.FileId;
+import kr.it.rudy.file.file.domain.FileMetadata;
+import kr.it.rudy.file.file.domain.FileStatus;
+import kr.it.rudy.file.file.infrastructure.persistence.FileMetadataRepositoryImpl;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingFileMetadataRepositoryTest {
+
+    private static final FileId ID = FileId.of("file-1");
+
+    private final FileMetadataRepositoryImpl delegate = mock(FileMetadataRepositoryImpl.class);
+    private final FileMetadataCache cache = new FileMetadataCache(null, new SimpleMeterRegistry(),
+            1_000, Duration.ofMinutes(10), false, Duration.ofHours(1));
+    private final CachingFileMetadataRepository repository = new CachingFileMetadataRepository(delegate, cache);
+
+    @Test
+    void callersCannotChangeTheCachedInstance() {
+        when(delegate.findById(ID)).thenReturn(Optional.of(metadata(FileStatus.ACTIVE)));
+
+        FileMetadata first = repository.findById(ID).orElseThrow();
+        first.detectContentType("image/png");
+        first.expireAt(Instant.EPOCH);
+
+        FileMetadata second = repository.findById(ID).orElseThrow();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getContentType()).isEqualTo("text/plain");
+        assertThat(second.getExpiresAt()).isNull();
+        verify(delegate, times(1)).findById(ID);
+    }
+
+    @Test
+    void pendingRowsAreNotCached() {
+        when(delegate.findById(ID)).thenReturn(Optional.of(metadata(FileStatus.PENDING)));
+
+        repository.findById(ID);
+        repository.findById(ID);
+
+        verify(delegate, times(2)).findById(ID);
+        assertThat(cache.get(ID)).isEmpty();
+    }
+
+    @Test
+    void loadThatStartedBeforeEvictionDoesNotRepopulate() {
+        long ticket = cache.ticket(ID);
+        cache.evict(ID);
+
+        cache.put(metadata(FileStatus.ACTIVE), ticket);
+        cache.putLocal(metadata(FileStatus.ACTIVE), ticket);
+
+        assertThat(cache.get(ID)).isEmpty();
+        cache.put(metadata(FileStatus.ACTIVE), cache.ticket(ID));
+        assertThat(cache.get(ID)).isPresent();
+    }
+
+    @Test
+    void saveEvictsSoNextReadSeesTheNewRow() {
+        FileMetadata pending = metadata(FileStatus.PENDING);
+        FileMetadata active = metadata(FileStatus.ACTIVE);
+        when(delegate.findById(ID)).thenReturn(Optional.of(active));
+        when(delegate.save(pending)).thenReturn(pending);
+        repository.findById(ID);
+
+        repository.save(pending);
+
+        assertThat(cache.get(ID)).isEmpty();
+    }
+
+    @Test
+    void bulkLookupReturnsCopiesOfCachedRows() {
+        when(delegate.findAllById(List.of(ID))).thenReturn(List.of(metadata(FileStatus.ACTIVE)));
+
+        repository.findAllById(List.of(ID)).get(0).detectContentType("image/png");
+
+        assertThat(repository.findAllById(List.of(ID)).get(0).getContentType()).isEqualTo("text/plain");
+        verify(delegate, times(1)).findAllById(List.of(ID));
+    }
+
+    private FileMetadata metadata(FileStatus status) {
+        Instant now = Instant.now();
+        return FileMetadata.reconstitute(ID, "a.txt", "stored.txt", "text/plain", 10L, "txt", "user", "bucket",
+                status, null, null, null, now, now);
+    }
+}
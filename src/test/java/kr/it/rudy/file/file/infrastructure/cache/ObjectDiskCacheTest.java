@@ -0,0 +1,297 @@
+package kr.it.rudy.file.file.infrastructure.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ObjectDiskCacheTest {
+
+    private static final String BUCKET = "bucket";
+    private static final String NAME = "object";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void disabledCacheStreamsSingleReaderWithoutTouchingDisk() throws Exception {
+        Path cacheDirectory = directory.resolve("cache");
+        ObjectDiskCache cache = new ObjectDiskCache(new SimpleMeterRegistry(), false, cacheDirectory, 1_000_000, 100_000, Duration.ofSeconds(5));
+        byte[] data = bytes(10_000);
+        List<String> opened = new ArrayList<>();
+
+        try (InputStream in = cache.openShared(BUCKET, NAME, data.length, record(opened, data))) {
+            assertThat(in.readAllBytes()).isEqualTo(data);
+        }
+
+        assertThat(opened).containsExactly("0-");
+        assertThat(cacheDirectory).doesNotExist();
+        assertThat(cache.get(BUCKET, NAME)).isEmpty();
+    }
+
+    @Test
+    void directoryIsClearedOnlyWhenCacheIsEnabled() throws Exception {
+        Path leftover = Files.writeString(directory.resolve("leftover.obj"), "x");
+
+        new ObjectDiskCache(new SimpleMeterRegistry(), false, directory, 1_000_000, 100_000, Duration.ofSeconds(5));
+        assertThat(leftover).exists();
+
+        new ObjectDiskCache(new SimpleMeterRegistry(), true, directory, 1_000_000, 100_000, Duration.ofSeconds(5));
+        assertThat(leftover).doesNotExist();
+    }
+
+    @Test
+    void readerJoiningPassThroughFetchesMissedPrefixAndSharesTheRest() throws Exception {
+        ObjectDiskCache cache = cache(false, Duration.ofSeconds(5));
+        byte[] data = bytes(10_000);
+        ChunkedSource source = new ChunkedSource();
+        List<String> opened = new ArrayList<>();
+        ObjectDiskCache.Source shared = (offset, length) -> {
+            opened.add(offset + "-" + (length < 0 ? "" : length));
+            return length < 0 ? source : new ByteArrayInputStream(data, (int) offset, (int) length);
+        };
+
+        try (InputStream first = cache.openShared(BUCKET, NAME, data.length, shared)) {
+            source.push(Arrays.copyOfRange(data, 0, 4_000));
+            assertThat(first.readNBytes(4_000)).isEqualTo(Arrays.copyOfRange(data, 0, 4_000));
+
+            try (InputStream second = cache.openShared(BUCKET, NAME, data.length, shared)) {
+                source.push(Arrays.copyOfRange(data, 4_000, data.length));
+                source.end();
+
+                assertThat(second.readAllBytes()).isEqualTo(data);
+                assertThat(first.readAllBytes()).isEqualTo(Arrays.copyOfRange(data, 4_000, data.length));
+            }
+        }
+
+        assertThat(opened).containsExactly("0-", "0-4000");
+        assertThat(cache.get(BUCKET, NAME)).isEmpty();
+        assertEmptyDirectory();
+    }
+
+    @Test
+    void enabledCachePublishesCompletedFillAndJoinerReadsFromSpool() throws Exception {
+        ObjectDiskCache cache = cache(true, Duration.ofSeconds(5));
+        byte[] data = bytes(10_000);
+        ChunkedSource source = new ChunkedSource();
+        List<String> opened = new ArrayList<>();
+        ObjectDiskCache.Source shared = (offset, length) -> {
+            opened.add(offset + "-" + (length < 0 ? "" : length));
+            return source;
+        };
+
+        try (InputStream first = cache.openShared(BUCKET, NAME, data.length, shared)) {
+            source.push(Arrays.copyOfRange(data, 0, 4_000));
+            assertThat(first.readNBytes(4_000)).isEqualTo(Arrays.copyOfRange(data, 0, 4_000));
+
+            try (InputStream second = cache.openShared(BUCKET, NAME, data.length, shared)) {
+                source.push(Arrays.copyOfRange(data, 4_000, data.length));
+                source.end();
+
+                assertThat(first.readAllBytes()).isEqualTo(Arrays.copyOfRange(data, 4_000, data.length));
+                assertThat(second.readAllBytes()).isEqualTo(data);
+            }
+        }
+
+        assertThat(opened).containsExactly("0-");
+        Path cached = cache.get(BUCKET, NAME).orElseThrow();
+        assertThat(Files.readAllBytes(cached)).isEqualTo(data);
+
+        try (InputStream hit = cache.openShared(BUCKET, NAME, data.length, shared)) {
+            assertThat(hit.readAllBytes()).isEqualTo(data);
+        }
+        assertThat(opened).hasSize(1);
+    }
+
+    @Test
+    void lastReaderClosingCancelsTheSourceAndDeletesTheSpool() throws Exception {
+        ObjectDiskCache cache = cache(true, Duration.ofSeconds(5));
+        byte[] data = bytes(10_000);
+        ChunkedSource source = new ChunkedSource();
+
+        InputStream first = cache.openShared(BUCKET, NAME, data.length, (offset, length) -> source);
+        InputStream second = cache.openShared(BUCKET, NAME, data.length, (offset, length) -> source);
+        source.push(Arrays.copyOfRange(data, 0, 1_000));
+        assertThat(first.readNBytes(1_000)).isEqualTo(Arrays.copyOfRange(data, 0, 1_000));
+
+        first.close();
+        assertThat(source.closed).isFalse();
+        second.close();
+
+        assertThat(source.closed).isTrue();
+        assertThat(cache.get(BUCKET, NAME)).isEmpty();
+        assertEmptyDirectory();
+    }
+
+    @Test
+    void fillFailureFailsReadersAndNextReadRefetches() throws Exception {
+        ObjectDiskCache cache = cache(true, Duration.ofSeconds(5));
+        byte[] data = bytes(2_000);
+        ChunkedSource failing = new ChunkedSource();
+
+        try (InputStream reader = cache.openShared(BUCKET, NAME, data.length, (offset, length) -> failing)) {
+            failing.push(Arrays.copyOfRange(data, 0, 500));
+            assertThat(reader.readNBytes(500)).isEqualTo(Arrays.copyOfRange(data, 0, 500));
+
+            failing.fail(new IOException("connection reset"));
+
+            assertThatThrownBy(() -> reader.readNBytes(1))
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("connection reset");
+        }
+        assertEmptyDirectory();
+
+        try (InputStream retry = cache.openShared(BUCKET, NAME, data.length, (offset, length) -> new ByteArrayInputStream(data))) {
+            assertThat(retry.readAllBytes()).isEqualTo(data);
+        }
+        assertThat(cache.get(BUCKET, NAME)).isPresent();
+    }
+
+    @Test
+    void shortSourceFailsTheFill() throws Exception {
+        ObjectDiskCache cache = cache(true, Duration.ofSeconds(5));
+        byte[] data = bytes(1_000);
+
+        try (InputStream reader = cache.openShared(BUCKET, NAME, data.length + 1, (offset, length) -> new ByteArrayInputStream(data))) {
+            assertThatThrownBy(reader::readAllBytes)
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("Expected 1001 bytes");
+        }
+        assertThat(cache.get(BUCKET, NAME)).isEmpty();
+    }
+
+    @Test
+    void readerWaitingOnStalledSourceTimesOut() throws Exception {
+        ObjectDiskCache cache = cache(true, Duration.ofMillis(200));
+        ChunkedSource stalled = new ChunkedSource();
+
+        try (InputStream first = cache.openShared(BUCKET, NAME, 100, (offset, length) -> stalled);
+             InputStream second = cache.openShared(BUCKET, NAME, 100, (offset, length) -> stalled)) {
+            CompletableFuture<Integer> pumping = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return first.read();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            Thread.sleep(50);
+
+            assertThatThrownBy(second::read)
+                    .isInstanceOf(IOException.class)
+                    .hasMessageContaining("made no progress");
+
+            stalled.push(new byte[]{7});
+            assertThat(pumping.get(5, TimeUnit.SECONDS)).isEqualTo(7);
+        } finally {
+            stalled.end();
+        }
+    }
+
+    private ObjectDiskCache cache(boolean enabled, Duration stallTimeout) throws IOException {
+        return new ObjectDiskCache(new SimpleMeterRegistry(), enabled, directory, 1_000_000, 100_000, stallTimeout);
+    }
+
+    private void assertEmptyDirectory() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private static ObjectDiskCache.Source record(List<String> opened, byte[] data) {
+        return (offset, length) -> {
+            opened.add(offset + "-" + (length < 0 ? "" : length));
+            return new ByteArrayInputStream(data, (int) offset, length < 0 ? data.length - (int) offset : (int) length);
+        };
+    }
+
+    private static byte[] bytes(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        return data;
+    }
+
+    /**
+     * 테스트가 밀어 넣은 만큼만 내주는 원본 스트림. 채우기 도중의 상태를 재현하는 데 쓴다.
+     */
+    private static class ChunkedSource extends InputStream {
+
+        private static final Object EOF = new Object();
+
+        private final BlockingQueue<Object> chunks = new LinkedBlockingQueue<>();
+        private byte[] current = new byte[0];
+        private int position;
+        private boolean ended;
+        private volatile boolean closed;
+
+        void push(byte[] chunk) {
+            chunks.add(chunk);
+        }
+
+        void fail(IOException e) {
+            chunks.add(e);
+        }
+
+        void end() {
+            chunks.add(EOF);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int n = read(single, 0, 1);
+            return n == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            while (position == current.length) {
+                if (ended) {
+                    return -1;
+                }
+                Object next;
+                try {
+                    next = chunks.poll(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+                if (next == null || next == EOF) {
+                    ended = true;
+                } else if (next instanceof IOException e) {
+                    throw e;
+                } else {
+                    current = (byte[]) next;
+                    position = 0;
+                }
+            }
+            int n = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, n);
+            position += n;
+            return n;
+        }
+    }
+}